@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# Run one of the *Benchmark mains from the test sources
+# Usage: ./benchmark.sh <Name>Benchmark [jvm options...]
+# Example: ./benchmark.sh PatientSnapshotBenchmark -Dsnapshot.benchmark.rows=1000000 -Xmx4g
+
+BENCHMARK=$1
+if [ -z "$BENCHMARK" ]; then
+    echo "Usage: ./benchmark.sh <Name>Benchmark [jvm options...]"
+    echo "Available:"
+    ls src/test/java/com/healthcare/java/patient | sed -n 's/\(.*Benchmark\)\.java$/  \1/p'
+    exit 1
+fi
+shift
+
+# Check that classes and dependencies are built
+if [ ! -d "target/test-classes" ] || [ ! -d "target/lib" ]; then
+    echo "❌ Compiled classes or target/lib not found"
+    echo "Run 'mvn package -DskipTests' first"
+    exit 1
+fi
+
+java "$@" -cp "target/classes:target/test-classes:target/lib/*" \
+    com.healthcare.java.patient.$BENCHMARK
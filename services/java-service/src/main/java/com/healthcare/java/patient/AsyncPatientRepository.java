@@ -0,0 +1,307 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Async Patient Repository - CompletableFuture facade over a blocking repository
+ * Every call runs on a fixed pool of platform threads sized to what the storage can serve
+ * at once (for SQLite, its connection count), so blocking JDBC work - sqlite-jdbc holds a
+ * monitor across each native call - never occupies a virtual thread's carrier. Callers on
+ * virtual threads wait on the future, which parks and frees the carrier.
+ *
+ * Queued work is bounded: once queueCapacity calls are waiting, new calls fail with
+ * RejectedExecutionException instead of piling up.
+ *
+ * blocking() adapts the facade back to PatientRepository, so PatientService and SocketServer
+ * can use it unchanged. Streams are not offloaded: they are opened on the pool but pulled
+ * on the caller's thread.
+ *
+ * Usage:
+ *   AsyncPatientRepository async = AsyncPatientRepository.forStorage(sqlite);
+ *   async.findById(42L).thenAccept(...);
+ *   PatientService service = new PatientService(async.blocking());
+ */
+public class AsyncPatientRepository implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private final PatientRepository delegate;
+    private final ThreadPoolExecutor executor;
+    private final PatientRepository blocking = new Blocking();
+
+    public AsyncPatientRepository(PatientRepository delegate, int threads) {
+        this(delegate, threads, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public AsyncPatientRepository(PatientRepository delegate, int threads, int queueCapacity) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive");
+        if (queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be positive");
+        this.delegate = delegate;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> Thread.ofPlatform().name("patient-repository-" + counter.incrementAndGet())
+                        .daemon().unstarted(runnable));
+    }
+
+    /**
+     * One thread per connection SQLite can hand out; more threads would only wait on the pool
+     */
+    public static AsyncPatientRepository forStorage(SQLitePatientRepository repository) {
+        int connections = repository.maxConnections();
+        return new AsyncPatientRepository(repository,
+                connections > 0 ? connections : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Run any call against the wrapped repository on the pool
+     */
+    public <T> CompletableFuture<T> submit(Function<PatientRepository, T> call) {
+        try {
+            return CompletableFuture.supplyAsync(() -> call.apply(delegate), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException(executor.isShutdown()
+                            ? "Repository executor is closed" : "Repository work queue is full"));
+        }
+    }
+
+    public CompletableFuture<Patient> save(Patient patient) {
+        return submit(repository -> repository.save(patient));
+    }
+
+    public CompletableFuture<Optional<Patient>> insertIfEmailAbsent(Patient patient) {
+        return submit(repository -> repository.insertIfEmailAbsent(patient));
+    }
+
+    public CompletableFuture<Optional<Patient>> updateIfPresent(Patient patient) {
+        return submit(repository -> repository.updateIfPresent(patient));
+    }
+
+    public CompletableFuture<List<Patient>> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        return submit(repository -> repository.insertAllIfEmailAbsent(patients));
+    }
+
+    public CompletableFuture<List<Patient>> saveAll(Collection<Patient> patients) {
+        return submit(repository -> repository.saveAll(patients));
+    }
+
+    public CompletableFuture<Optional<Patient>> findById(Long id) {
+        return submit(repository -> repository.findById(id));
+    }
+
+    public CompletableFuture<List<Patient>> findAll() {
+        return submit(PatientRepository::findAll);
+    }
+
+    public CompletableFuture<List<Patient>> findPage(Long afterId, int limit) {
+        return submit(repository -> repository.findPage(afterId, limit));
+    }
+
+    public CompletableFuture<Void> delete(Long id) {
+        return submit(repository -> {
+            repository.delete(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> deleteAll(Collection<Long> ids) {
+        return submit(repository -> {
+            repository.deleteAll(ids);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> existsByEmail(String email) {
+        return submit(repository -> repository.existsByEmail(email));
+    }
+
+    public CompletableFuture<List<Patient>> findByNameContaining(String name) {
+        return submit(repository -> repository.findByNameContaining(name));
+    }
+
+    public CompletableFuture<List<Patient>> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return submit(repository -> repository.findByBirthDateBetween(from, to));
+    }
+
+    public CompletableFuture<List<PatientSummary>> findAllSummaries() {
+        return submit(PatientRepository::findAllSummaries);
+    }
+
+    public CompletableFuture<List<PatientSummary>> findSummaryPage(Long afterId, int limit) {
+        return submit(repository -> repository.findSummaryPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<PatientSummary>> findSummariesByNameContaining(String name) {
+        return submit(repository -> repository.findSummariesByNameContaining(name));
+    }
+
+    public CompletableFuture<Long> count() {
+        return submit(PatientRepository::count);
+    }
+
+    public CompletableFuture<Void> clear() {
+        return submit(repository -> {
+            repository.clear();
+            return null;
+        });
+    }
+
+    /**
+     * PatientRepository view that waits for each call; the wait parks a virtual thread
+     * instead of pinning it
+     */
+    public PatientRepository blocking() {
+        return blocking;
+    }
+
+    /**
+     * Calls waiting for a pool thread
+     */
+    public int queuedCalls() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Finish queued calls, then stop the pool; the wrapped repository stays open
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for a call; the wrapped repository's own runtime exceptions come through unwrapped
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private final class Blocking implements PatientRepository {
+        @Override
+        public Patient save(Patient patient) {
+            return await(AsyncPatientRepository.this.save(patient));
+        }
+
+        @Override
+        public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+            return await(AsyncPatientRepository.this.insertIfEmailAbsent(patient));
+        }
+
+        @Override
+        public Optional<Patient> updateIfPresent(Patient patient) {
+            return await(AsyncPatientRepository.this.updateIfPresent(patient));
+        }
+
+        @Override
+        public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+            return await(AsyncPatientRepository.this.insertAllIfEmailAbsent(patients));
+        }
+
+        @Override
+        public List<Patient> saveAll(Collection<Patient> patients) {
+            return await(AsyncPatientRepository.this.saveAll(patients));
+        }
+
+        @Override
+        public Optional<Patient> findById(Long id) {
+            return await(AsyncPatientRepository.this.findById(id));
+        }
+
+        @Override
+        public List<Patient> findAll() {
+            return await(AsyncPatientRepository.this.findAll());
+        }
+
+        @Override
+        public List<Patient> findPage(Long afterId, int limit) {
+            return await(AsyncPatientRepository.this.findPage(afterId, limit));
+        }
+
+        @Override
+        public void delete(Long id) {
+            await(AsyncPatientRepository.this.delete(id));
+        }
+
+        @Override
+        public void deleteAll(Collection<Long> ids) {
+            await(AsyncPatientRepository.this.deleteAll(ids));
+        }
+
+        @Override
+        public boolean existsByEmail(String email) {
+            return await(AsyncPatientRepository.this.existsByEmail(email));
+        }
+
+        @Override
+        public List<Patient> findByNameContaining(String name) {
+            return await(AsyncPatientRepository.this.findByNameContaining(name));
+        }
+
+        @Override
+        public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+            return await(AsyncPatientRepository.this.findByBirthDateBetween(from, to));
+        }
+
+        @Override
+        public List<PatientSummary> findAllSummaries() {
+            return await(AsyncPatientRepository.this.findAllSummaries());
+        }
+
+        @Override
+        public List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+            return await(AsyncPatientRepository.this.findSummaryPage(afterId, limit));
+        }
+
+        @Override
+        public List<PatientSummary> findSummariesByNameContaining(String name) {
+            return await(AsyncPatientRepository.this.findSummariesByNameContaining(name));
+        }
+
+        @Override
+        public Stream<Patient> streamAll() {
+            return await(submit(PatientRepository::streamAll));
+        }
+
+        @Override
+        public Stream<Patient> streamByNameContaining(String name) {
+            return await(submit(repository -> repository.streamByNameContaining(name)));
+        }
+
+        @Override
+        public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+            return await(submit(repository -> repository.streamByBirthDateBetween(from, to)));
+        }
+
+        @Override
+        public long count() {
+            return await(AsyncPatientRepository.this.count());
+        }
+
+        @Override
+        public void clear() {
+            await(AsyncPatientRepository.this.clear());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Ordered skip-list index on birth date for range (cohort) queries
+ * Entries are (epochDay, id) pairs so that a date range is one contiguous sub-set:
+ * a query costs O(log n + k) and needs no per-date buckets.
+ */
+final class BirthDateIndex {
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<Long, LocalDate> datesById = new ConcurrentHashMap<>();
+
+    private record Key(long epochDay, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byDay = Long.compare(epochDay, other.epochDay);
+            return byDay != 0 ? byDay : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Index (or re-index) the birth date of the given patient ID
+     */
+    void index(long id, LocalDate birthDate) {
+        datesById.compute(id, (key, previous) -> {
+            if (previous != null) {
+                if (previous.equals(birthDate)) return previous;
+                keys.remove(new Key(previous.toEpochDay(), key));
+            }
+            keys.add(new Key(birthDate.toEpochDay(), key));
+            return birthDate;
+        });
+    }
+
+    void remove(long id) {
+        datesById.computeIfPresent(id, (key, previous) -> {
+            keys.remove(new Key(previous.toEpochDay(), key));
+            return null;
+        });
+    }
+
+    /**
+     * IDs born within [from, to] in birth-date order; a null bound leaves that side open
+     */
+    List<Long> range(LocalDate from, LocalDate to) {
+        return stream(from, to).toList();
+    }
+
+    /**
+     * Lazy walk of the same range over the live skip list (weakly consistent)
+     */
+    Stream<Long> stream(LocalDate from, LocalDate to) {
+        Key low = new Key(from == null ? Long.MIN_VALUE : from.toEpochDay(), Long.MIN_VALUE);
+        Key high = new Key(to == null ? Long.MAX_VALUE : to.toEpochDay(), Long.MAX_VALUE);
+        if (low.compareTo(high) > 0) return Stream.empty();
+
+        return keys.subSet(low, true, high, true).stream().map(Key::id);
+    }
+
+    void clear() {
+        keys.clear();
+        datesById.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package com.healthcare.java.patient;
+
+/**
+ * Point-in-time hit/miss/eviction counters of a cache
+ */
+public record CacheStats(long hits, long misses, long evictions) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public CacheStats plus(CacheStats other) {
+        return new CacheStats(hits + other.hits, misses + other.misses, evictions + other.evictions);
+    }
+}
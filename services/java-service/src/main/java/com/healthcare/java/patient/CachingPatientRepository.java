@@ -0,0 +1,330 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Caching Patient Repository - bounded point-lookup cache in front of any repository
+ * findById is cached by ID and existsByEmail by email, each in a TinyLfuCache (W-TinyLFU
+ * eviction). Misses are cached too, so repeated lookups of an unknown ID or a free email
+ * skip the store as well. Scans, pages, searches and count go straight to the wrapped
+ * repository.
+ *
+ * Email entries are filed under the normalized email but only answer the exact spelling
+ * they were loaded for, since stores differ on whether emails compare case-sensitively;
+ * a write then drops every spelling of the emails it touches.
+ *
+ * Writes go to the wrapped repository first and then invalidate the affected entries: the
+ * patient's ID, the email of the row written and the email the cached copy of that ID had
+ * before. Nothing is read to find the old email; when the ID was not cached, cached hits
+ * for every email are treated as stale instead. A lookup that raced with a write drops
+ * what it loaded instead of caching a value the write may have replaced.
+ * Cached patients are copied on the way in and out, so callers may mutate what they get
+ * back exactly as they could with the wrapped repository.
+ *
+ * Usage:
+ *   CachingPatientRepository repo = new CachingPatientRepository(
+ *           new SQLitePatientRepository("data/patients.db"), 10_000);
+ */
+public class CachingPatientRepository implements PatientRepository, AutoCloseable {
+    private final PatientRepository delegate;
+    private final TinyLfuCache<Long, Optional<Patient>> byId;
+    private final TinyLfuCache<String, EmailEntry> byEmail;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong unknownRewrites = new AtomicLong();
+
+    /**
+     * Whether email existed when loaded; a hit is only trusted while no write of an
+     * uncached ID happened since, because that write may have freed the email
+     */
+    private record EmailEntry(String email, boolean exists, long rewrites) {}
+
+    /**
+     * Wrap delegate with an ID cache and an email cache of up to maximumSize entries each
+     */
+    public CachingPatientRepository(PatientRepository delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.byId = new TinyLfuCache<>(maximumSize);
+        this.byEmail = new TinyLfuCache<>(maximumSize);
+    }
+
+    // ============ Cached lookups ============
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        if (id == null) return Optional.empty();
+        Optional<Patient> cached = byId.get(id);
+        if (cached != null) return cached.map(CachingPatientRepository::copy);
+
+        long stamp = writes.get();
+        Optional<Patient> loaded = delegate.findById(id);
+        fill(byId, id, loaded.map(CachingPatientRepository::copy), stamp);
+        return loaded;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email == null) return delegate.existsByEmail(email);
+        String key = EmailIndex.normalize(email);
+        EmailEntry cached = byEmail.get(key);
+        if (cached != null && cached.email().equals(email)
+                && (!cached.exists() || cached.rewrites() == unknownRewrites.get())) {
+            return cached.exists();
+        }
+
+        long stamp = writes.get();
+        long rewrites = unknownRewrites.get();
+        boolean exists = delegate.existsByEmail(email);
+        fill(byEmail, key, new EmailEntry(email, exists, rewrites), stamp);
+        return exists;
+    }
+
+    /**
+     * ID and email cache counters combined
+     */
+    public CacheStats stats() {
+        return idCacheStats().plus(emailCacheStats());
+    }
+
+    public CacheStats idCacheStats() {
+        return byId.stats();
+    }
+
+    public CacheStats emailCacheStats() {
+        return byEmail.stats();
+    }
+
+    // ============ Write-through invalidation ============
+
+    @Override
+    public Patient save(Patient patient) {
+        Optional<Patient> previous = evict(patient.getId());
+        Patient saved = null;
+        try {
+            return saved = delegate.save(patient);
+        } finally {
+            writes.incrementAndGet();
+            invalidate(saved, patient, previous);
+        }
+    }
+
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        Optional<Patient> inserted = Optional.empty();
+        try {
+            return inserted = delegate.insertIfEmailAbsent(patient);
+        } finally {
+            writes.incrementAndGet();
+            invalidate(inserted.orElse(null), patient, Optional.empty());
+        }
+    }
+
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        Optional<Patient> previous = evict(patient.getId());
+        Optional<Patient> updated = Optional.empty();
+        try {
+            return updated = delegate.updateIfPresent(patient);
+        } finally {
+            writes.incrementAndGet();
+            invalidate(updated.orElse(null), patient, previous);
+        }
+    }
+
+    @Override
+    public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        List<Patient> batch = new ArrayList<>(patients);
+        List<Patient> inserted = null;
+        try {
+            return inserted = delegate.insertAllIfEmailAbsent(batch);
+        } finally {
+            writes.incrementAndGet();
+            for (Patient patient : inserted != null ? inserted : batch) {
+                invalidate(patient, patient, Optional.empty());
+            }
+        }
+    }
+
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> batch = new ArrayList<>(patients);
+        List<Optional<Patient>> previous = new ArrayList<>(batch.size());
+        for (Patient patient : batch) {
+            previous.add(evict(patient.getId()));
+        }
+        List<Patient> saved = null;
+        try {
+            return saved = delegate.saveAll(batch);
+        } finally {
+            writes.incrementAndGet();
+            for (int i = 0; i < batch.size(); i++) {
+                invalidate(saved == null ? null : saved.get(i), batch.get(i), previous.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        Optional<Patient> previous = evict(id);
+        try {
+            delegate.delete(id);
+        } finally {
+            writes.incrementAndGet();
+            invalidate(id, null, previous);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        List<Long> batch = new ArrayList<>(ids);
+        List<Optional<Patient>> previous = new ArrayList<>(batch.size());
+        for (Long id : batch) {
+            previous.add(evict(id));
+        }
+        try {
+            delegate.deleteAll(batch);
+        } finally {
+            writes.incrementAndGet();
+            for (int i = 0; i < batch.size(); i++) {
+                invalidate(batch.get(i), null, previous.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            delegate.clear();
+        } finally {
+            writes.incrementAndGet();
+            byId.clear();
+            byEmail.clear();
+        }
+    }
+
+    // ============ Pass-through ============
+
+    @Override
+    public List<Patient> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        return delegate.findByNameContaining(name);
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.findByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public List<PatientSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+        return delegate.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByNameContaining(String name) {
+        return delegate.findSummariesByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        return delegate.streamByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.streamByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    /**
+     * Closes the wrapped repository if it holds resources
+     */
+    @Override
+    public void close() {
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to close wrapped repository", e);
+            }
+        }
+    }
+
+    /**
+     * Cache a loaded value unless a write happened since the load began; the re-check after
+     * put covers a write whose invalidation ran before the put landed
+     */
+    private <K, V> void fill(TinyLfuCache<K, V> cache, K key, V value, long stamp) {
+        if (writes.get() != stamp) return;
+        cache.put(key, value);
+        if (writes.get() != stamp) cache.invalidate(key);
+    }
+
+    /**
+     * Drop the ID's entry ahead of a write and return what it held: the patient, empty for
+     * a new patient or a cached miss, or null when the ID was not cached
+     */
+    private Optional<Patient> evict(Long id) {
+        return id == null ? Optional.empty() : byId.invalidate(id);
+    }
+
+    /**
+     * Invalidate after a write; a null previous means the old email is unknown, so every
+     * cached email hit is retired
+     */
+    private void invalidate(Long id, String email, Optional<Patient> previous) {
+        if (id != null) byId.invalidate(id);
+        invalidateEmail(email);
+        if (previous == null) {
+            unknownRewrites.incrementAndGet();
+        } else {
+            previous.ifPresent(patient -> invalidateEmail(patient.getEmail()));
+        }
+    }
+
+    private void invalidateEmail(String email) {
+        if (email != null) byEmail.invalidate(EmailIndex.normalize(email));
+    }
+
+    /**
+     * Invalidate after a write of requested; written is the row the store returned, or null
+     * if the write failed or changed nothing
+     */
+    private void invalidate(Patient written, Patient requested, Optional<Patient> previous) {
+        Patient row = written != null ? written : requested;
+        invalidate(row.getId(), row.getEmail(), previous);
+    }
+
+    private static Patient copy(Patient patient) {
+        return Patient.fromStorage(patient.getId(), patient.getName(), patient.getEmail(), patient.getPhone(),
+                patient.getBirthDate(), patient.getCreatedAt(), patient.getUpdatedAt());
+    }
+}
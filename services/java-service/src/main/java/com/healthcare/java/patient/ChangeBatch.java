@@ -0,0 +1,12 @@
+package com.healthcare.java.patient;
+
+import java.util.List;
+
+/**
+ * Result of reading a ChangeLog after a sequence
+ * Pass lastSequence to the next read. With resyncRequired the reader fell further behind
+ * than the log holds and changes is empty: reload the full data set, then keep reading
+ * after lastSequence (changes replayed over the reload are idempotent).
+ */
+public record ChangeBatch(List<PatientChange> changes, boolean resyncRequired, long lastSequence) {
+}
@@ -0,0 +1,347 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Change Capturing Patient Repository - change-data-capture in front of any repository
+ * Every successful save, delete and clear appends a PatientChange to a bounded ChangeLog,
+ * which caches, search indexes and replicas tail from a sequence number. Failed writes
+ * (validation errors, duplicate emails) emit nothing, except that a saveAll the delegate
+ * stored part of before failing captures the part that was stored.
+ *
+ * Changes to one patient are captured in the order the wrapped repository applied them:
+ * each write holds its ID's StripedLocks stripe across the write and its append, so two
+ * writers cannot commit in one order and publish in the other. A new patient's ID only
+ * exists once the delegate has stored it, and another writer can find it from then on, so
+ * each publish bumps a per-stripe version and an insert whose stripe moved meanwhile
+ * captures what the delegate holds instead of the inserted copy. Writes to different IDs
+ * still run concurrently, which keeps SQLite's group commit batching. clear takes a
+ * read-write lock exclusively, so no write straddles it. Readers never block writers: one
+ * that falls behind by more than the log's capacity gets a resync signal instead.
+ *
+ * Usage:
+ *   ChangeCapturingPatientRepository repo = new ChangeCapturingPatientRepository(
+ *           new SQLitePatientRepository("data/patients.db"), 65_536);
+ *   ChangeBatch batch = repo.changes().await(lastSeen, 1_000, Duration.ofSeconds(1));
+ */
+public class ChangeCapturingPatientRepository implements PatientRepository, AutoCloseable {
+    private static final int STRIPES = 256;
+
+    private final PatientRepository delegate;
+    private final ChangeLog changes;
+    private final StripedLocks stripes = new StripedLocks(STRIPES);
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final ReadWriteLock clearLock = new ReentrantReadWriteLock();
+
+    /**
+     * Wrap delegate, keeping the latest capacity changes for readers
+     */
+    public ChangeCapturingPatientRepository(PatientRepository delegate, int capacity) {
+        this.delegate = delegate;
+        this.changes = new ChangeLog(capacity);
+    }
+
+    public ChangeLog changes() {
+        return changes;
+    }
+
+    // ============ Captured writes ============
+
+    @Override
+    public Patient save(Patient patient) {
+        clearLock.readLock().lock();
+        try {
+            if (patient.getId() == null) {
+                long[] before = versions();
+                Patient saved = delegate.save(patient);
+                publishInserted(saved, before);
+                return saved;
+            }
+            ReentrantLock stripe = stripes.lock(patient.getId());
+            try {
+                Patient saved = delegate.save(patient);
+                publish(PatientChange.Type.SAVED, saved.getId(), copy(saved));
+                return saved;
+            } finally {
+                StripedLocks.unlock(stripe);
+            }
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        clearLock.readLock().lock();
+        try {
+            long[] before = versions();
+            Optional<Patient> inserted = delegate.insertIfEmailAbsent(patient);
+            inserted.ifPresent(saved -> publishInserted(saved, before));
+            return inserted;
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        clearLock.readLock().lock();
+        ReentrantLock stripe = stripes.lock(patient.getId());
+        try {
+            Optional<Patient> updated = delegate.updateIfPresent(patient);
+            updated.ifPresent(saved -> publish(PatientChange.Type.SAVED, saved.getId(), copy(saved)));
+            return updated;
+        } finally {
+            StripedLocks.unlock(stripe);
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        clearLock.readLock().lock();
+        try {
+            long[] before = versions();
+            List<Patient> inserted = delegate.insertAllIfEmailAbsent(patients);
+            inserted.forEach(saved -> publishInserted(saved, before));
+            return inserted;
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Existing patients are captured under their stripes, new ones after the stripes are
+     * released, as in insertAllIfEmailAbsent. If the delegate fails after storing part of
+     * the batch, every patient that has an ID is read back and what is stored is captured.
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> batch = new ArrayList<>(patients);
+        List<Long> ids = batch.stream().map(Patient::getId).toList();
+        clearLock.readLock().lock();
+        try {
+            long[] before = versions();
+            List<Patient> saved = null;
+            RuntimeException failure = null;
+            List<ReentrantLock> held = stripes.lockAll(ids);
+            try {
+                try {
+                    saved = delegate.saveAll(batch);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    if (ids.get(i) == null) continue;
+                    if (failure != null) {
+                        publishStored(ids.get(i));
+                    } else {
+                        publish(PatientChange.Type.SAVED, ids.get(i), copy(saved.get(i)));
+                    }
+                }
+            } finally {
+                StripedLocks.unlockAll(held);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (ids.get(i) != null) continue;
+                if (failure != null) {
+                    if (batch.get(i).getId() != null) publishStored(batch.get(i).getId());
+                } else {
+                    publishInserted(saved.get(i), before);
+                }
+            }
+            if (failure != null) throw failure;
+            return saved;
+        } finally {
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        if (id == null) {
+            delegate.delete(id);
+            return;
+        }
+        clearLock.readLock().lock();
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            delegate.delete(id);
+            publish(PatientChange.Type.DELETED, id, null);
+        } finally {
+            StripedLocks.unlock(stripe);
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        List<Long> batch = new ArrayList<>(ids);
+        clearLock.readLock().lock();
+        List<ReentrantLock> held = stripes.lockAll(batch);
+        try {
+            delegate.deleteAll(batch);
+            for (Long id : batch) {
+                if (id != null) publish(PatientChange.Type.DELETED, id, null);
+            }
+        } finally {
+            StripedLocks.unlockAll(held);
+            clearLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        clearLock.writeLock().lock();
+        try {
+            delegate.clear();
+            changes.append(PatientChange.Type.CLEARED, 0, null);
+        } finally {
+            clearLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Append a change for id and bump its stripe's version; called with the stripe held
+     */
+    private void publish(PatientChange.Type type, long id, Patient patient) {
+        changes.append(type, id, patient);
+        versions.incrementAndGet(stripes.stripe(id));
+    }
+
+    /**
+     * Capture a patient the delegate just gave a new ID. That ID was visible to scans from
+     * the delegate's commit on, so a delete or update of it may already be in the log. If
+     * its stripe published anything since the insert began, capture what the delegate holds
+     * now (nothing, if it was deleted) instead of the inserted copy.
+     */
+    private void publishInserted(Patient inserted, long[] before) {
+        long id = inserted.getId();
+        int index = stripes.stripe(id);
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            if (versions.get(index) == before[index]) {
+                publish(PatientChange.Type.SAVED, id, copy(inserted));
+            } else {
+                delegate.findById(id).ifPresent(current -> publish(PatientChange.Type.SAVED, id, copy(current)));
+            }
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    /**
+     * Capture whatever the delegate holds for id, if anything
+     */
+    private void publishStored(long id) {
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            delegate.findById(id).ifPresent(current -> publish(PatientChange.Type.SAVED, id, copy(current)));
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    private long[] versions() {
+        long[] snapshot = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            snapshot[i] = versions.get(i);
+        }
+        return snapshot;
+    }
+
+    // ============ Pass-through ============
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Patient> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        return delegate.findByNameContaining(name);
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.findByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public List<PatientSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+        return delegate.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByNameContaining(String name) {
+        return delegate.findSummariesByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        return delegate.streamByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.streamByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    /**
+     * Closes the wrapped repository if it holds resources
+     */
+    @Override
+    public void close() {
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to close wrapped repository", e);
+            }
+        }
+    }
+
+    private static Patient copy(Patient patient) {
+        return Patient.fromStorage(patient.getId(), patient.getName(), patient.getEmail(), patient.getPhone(),
+                patient.getBirthDate(), patient.getCreatedAt(), patient.getUpdatedAt());
+    }
+}
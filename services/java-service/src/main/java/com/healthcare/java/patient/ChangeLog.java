@@ -0,0 +1,123 @@
+package com.healthcare.java.patient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer of PatientChange events with monotonically increasing sequences
+ * Writers claim a sequence with one atomic increment and publish into its slot with a CAS;
+ * they never wait for readers. Readers tail from any sequence still in the ring; one that
+ * falls more than capacity events behind gets a resync signal instead of stalling writers.
+ *
+ * A reader stops at the first claimed-but-unpublished sequence, so it always sees changes
+ * in sequence order without gaps. Waiting readers park on a condition that writers only
+ * signal while someone is waiting.
+ */
+public final class ChangeLog {
+    private final AtomicReferenceArray<PatientChange> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    /**
+     * Keep the latest capacity changes (rounded up to a power of two)
+     */
+    public ChangeLog(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Sequence of the newest claimed change, 0 before the first; a reader starting from
+     * a reload takes this first, then reads after it
+     */
+    public long lastSequence() {
+        return claimed.get();
+    }
+
+    long append(PatientChange.Type type, long patientId, Patient patient) {
+        long sequence = claimed.incrementAndGet();
+        PatientChange change = new PatientChange(sequence, type, patientId, patient);
+        int index = (int) sequence & mask;
+        PatientChange current;
+        do {
+            current = slots.get(index);
+            // A writer stalled for a whole lap must not overwrite a newer change
+            if (current != null && current.sequence() > sequence) return sequence;
+        } while (!slots.compareAndSet(index, current, change));
+
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Up to maxChanges changes after the given sequence, without waiting
+     */
+    public ChangeBatch read(long afterSequence, int maxChanges) {
+        if (maxChanges < 1) throw new IllegalArgumentException("maxChanges must be positive");
+        List<PatientChange> changes = new ArrayList<>(Math.min(maxChanges, 256));
+        long next = afterSequence + 1;
+        while (changes.size() < maxChanges) {
+            long head = claimed.get();
+            if (next > head) break;
+            if (head - next >= capacity()) return resync(head);
+            PatientChange change = slots.get((int) next & mask);
+            if (change == null || change.sequence() < next) break; // claimed, not yet published
+            if (change.sequence() > next) return resync(claimed.get());
+            changes.add(change);
+            next++;
+        }
+        return new ChangeBatch(changes, false, next - 1);
+    }
+
+    /**
+     * Like read, but waits up to timeout for at least one change
+     */
+    public ChangeBatch await(long afterSequence, int maxChanges, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            ChangeBatch batch = read(afterSequence, maxChanges);
+            long remaining = deadline - System.nanoTime();
+            if (!batch.changes().isEmpty() || batch.resyncRequired() || remaining <= 0) return batch;
+
+            lock.lock();
+            waiters.incrementAndGet();
+            try {
+                // Re-check after announcing ourselves: a change published before the increment
+                // is visible here, one published after it will signal
+                batch = read(afterSequence, maxChanges);
+                if (!batch.changes().isEmpty() || batch.resyncRequired()) return batch;
+                published.await(remaining, TimeUnit.NANOSECONDS);
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+        }
+    }
+
+    private static ChangeBatch resync(long head) {
+        return new ChangeBatch(List.of(), true, head);
+    }
+}
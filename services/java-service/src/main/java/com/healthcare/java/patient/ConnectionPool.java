@@ -0,0 +1,296 @@
+package com.healthcare.java.patient;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded JDBC connection pool
+ * At most maxSize connections are open at once; borrowers beyond that wait up to
+ * acquireTimeout. Idle connections are reused most-recently-returned first, validated with
+ * Connection.isValid when they sat idle longer than validateAfter, and closed by a background
+ * sweep once idle longer than idleTimeout.
+ *
+ * Borrowed connections are proxies: close() rolls back any open transaction, restores
+ * auto-commit and hands the physical connection back to the pool. That includes a
+ * transaction begun with raw SQL under auto-commit: statements from createStatement()
+ * watch for BEGIN, COMMIT, END and ROLLBACK. With a statement cache, prepareStatement(sql)
+ * is served from a per-connection StatementCache.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * A physical connection and its statement cache (null when caching is off)
+     */
+    private record Pooled(Connection connection, StatementCache statements) {}
+
+    private record Idle(Pooled pooled, long since) {}
+
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final Deque<Idle> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final long acquireTimeoutNanos;
+    private final long validateAfterNanos;
+    private final long idleTimeoutNanos;
+    private final int statementCacheSize;
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    ConnectionPool(ConnectionFactory factory, int maxSize, Duration acquireTimeout,
+                   Duration validateAfter, Duration idleTimeout, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be positive");
+        if (statementCacheSize < 0) throw new IllegalArgumentException("Statement cache size cannot be negative");
+        this.factory = factory;
+        this.permits = new Semaphore(maxSize, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.validateAfterNanos = validateAfter.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.statementCacheSize = statementCacheSize;
+
+        if (idleTimeout.isZero()) {
+            this.evictor = null;
+        } else {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sqlite-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = Math.max(1, idleTimeout.toMillis() / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrow a connection; closing it returns it to the pool
+     */
+    Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLException("Timed out waiting for a pooled connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a pooled connection", e);
+        }
+
+        try {
+            Pooled pooled = takeIdle();
+            if (pooled == null) {
+                Connection physical = factory.open();
+                open.incrementAndGet();
+                pooled = new Pooled(physical, statementCacheSize == 0
+                        ? null : new StatementCache(statementCacheSize, statementStats));
+            }
+            return lease(pooled);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Physical connections currently open, borrowed or idle
+     */
+    int openCount() {
+        return open.get();
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Prepared-statement cache counters across every connection of this pool
+     */
+    CacheStats statementCacheStats() {
+        return statementStats.snapshot();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) evictor.shutdownNow();
+        Idle entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry.pooled());
+        }
+    }
+
+    private Pooled takeIdle() {
+        Idle entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - entry.since();
+            if (idleTimeoutNanos > 0 && idleNanos > idleTimeoutNanos) {
+                discard(entry.pooled());
+            } else if (idleNanos > validateAfterNanos && !isValid(entry.pooled().connection())) {
+                discard(entry.pooled());
+            } else {
+                return entry.pooled();
+            }
+        }
+        return null;
+    }
+
+    private void release(Pooled pooled, boolean inTransaction) {
+        Connection physical = pooled.connection();
+        try {
+            if (closed || physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            } else if (inTransaction) {
+                try (Statement stmt = physical.createStatement()) {
+                    stmt.execute("ROLLBACK");
+                }
+            }
+            idle.offerFirst(new Idle(pooled, System.nanoTime()));
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close connections idle longer than idleTimeout; the oldest sit at the tail
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        Idle entry;
+        while ((entry = idle.peekLast()) != null && now - entry.since() > idleTimeoutNanos) {
+            if (idle.removeLastOccurrence(entry)) {
+                discard(entry.pooled());
+            }
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(Pooled pooled) {
+        open.decrementAndGet();
+        if (pooled.statements() != null) pooled.statements().close();
+        try {
+            pooled.connection().close();
+        } catch (SQLException ignored) {
+            // Already broken; nothing left to release
+        }
+    }
+
+    private Connection lease(Pooled pooled) {
+        Connection physical = pooled.connection();
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+            private boolean inTransaction;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        if (!returned) {
+                            returned = true;
+                            release(pooled, inTransaction);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return returned || physical.isClosed();
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "prepareStatement" -> {
+                        if (returned) throw new SQLException("Connection has been returned to the pool");
+                        if (pooled.statements() != null && args.length == 1) {
+                            return pooled.statements().prepare(physical, (String) args[0]);
+                        }
+                    }
+                    case "createStatement" -> {
+                        if (returned) throw new SQLException("Connection has been returned to the pool");
+                        return watch((Statement) call(physical, method, args));
+                    }
+                    case "unwrap", "isWrapperFor", "toString" -> {
+                        // delegate to the physical connection below
+                    }
+                    default -> {
+                        if (returned) throw new SQLException("Connection has been returned to the pool");
+                    }
+                }
+                return call(physical, method, args);
+            }
+
+            /**
+             * Track transactions the caller opens and ends with SQL; only successful statements count,
+             * so a failed COMMIT still leaves the transaction to be rolled back on return
+             */
+            private Statement watch(Statement statement) {
+                return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                        new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                            Object result = call(statement, method, args);
+                            if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                                Boolean begins = beginsTransaction(sql);
+                                if (begins != null) inTransaction = begins;
+                            }
+                            return result;
+                        });
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * TRUE if sql opens a transaction, FALSE if it ends one, null otherwise
+     * (ROLLBACK TO a savepoint leaves the transaction open)
+     */
+    private static Boolean beginsTransaction(String sql) {
+        String statement = sql.strip().toUpperCase(Locale.ROOT);
+        if (statement.startsWith("BEGIN")) return true;
+        if (statement.startsWith("COMMIT") || statement.startsWith("END")) return false;
+        if (statement.startsWith("ROLLBACK") && !statement.matches("ROLLBACK(\\s+TRANSACTION)?\\s+TO\\b.*")) return false;
+        return null;
+    }
+}
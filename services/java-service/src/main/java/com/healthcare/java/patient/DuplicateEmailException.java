@@ -0,0 +1,20 @@
+package com.healthcare.java.patient;
+
+/**
+ * A write was rejected because another patient already uses the email
+ * Still an IllegalArgumentException, so existing handlers keep reporting it as bad input.
+ */
+public class DuplicateEmailException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final String email;
+
+    public DuplicateEmailException(String email) {
+        super("Email already exists: " + email);
+        this.email = email;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
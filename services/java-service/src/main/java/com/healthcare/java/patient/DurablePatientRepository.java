@@ -0,0 +1,500 @@
+package com.healthcare.java.patient;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Durable In-Memory Patient Repository - in-memory reads with crash safety
+ * Wraps an InMemoryPatientRepository; every mutation is appended to a memory-mapped
+ * WriteAheadLog (fsync batched by record count and/or a background interval), and a
+ * periodic PatientSnapshot of the whole patient set truncates the log. On open, the latest
+ * snapshot is loaded and the log records after it are replayed.
+ *
+ * Two log files take turns. A checkpoint switches appends to the empty one and copies the
+ * patient set under the write lock, writes the snapshot with writers running again, then
+ * retakes the lock only to swap the snapshot in and empty the log it covers.
+ *
+ * Usage:
+ *   DurablePatientRepository repo = DurablePatientRepository.builder(Path.of("data"))
+ *           .syncEvery(32).syncInterval(Duration.ofMillis(10)).snapshotEvery(100_000).open();
+ */
+public class DurablePatientRepository implements PatientRepository, Closeable {
+    static final String LOG_FILE = "patients.wal";
+    static final String ALTERNATE_LOG_FILE = "patients.wal.1";
+    static final String SNAPSHOT_FILE = "patients.snapshot";
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+
+    private final InMemoryPatientRepository delegate = new InMemoryPatientRepository();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final Path directory;
+    private final WriteAheadLog[] logs = new WriteAheadLog[2];
+    private final int syncEvery;
+    private final long snapshotEvery;
+    private final ScheduledExecutorService flusher;
+
+    private int live;
+    private long sequence;
+    private long snapshotSequence;
+    private int unsynced;
+    private long sinceSnapshot;
+
+    private DurablePatientRepository(Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.syncEvery = builder.syncEvery;
+        this.snapshotEvery = builder.snapshotEvery;
+
+        Files.createDirectories(directory);
+        deleteSnapshotTemps();
+        loadSnapshot();
+        logs[0] = new WriteAheadLog(directory.resolve(LOG_FILE), builder.logCapacityBytes);
+        logs[1] = new WriteAheadLog(directory.resolve(ALTERNATE_LOG_FILE), builder.logCapacityBytes);
+        replayLogs();
+
+        if (builder.syncInterval.isZero()) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "patient-wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = builder.syncInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::sync, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private int logCapacityBytes = 64 * 1024 * 1024;
+        private int syncEvery = 1;
+        private Duration syncInterval = Duration.ZERO;
+        private long snapshotEvery = 100_000;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /** Size of each of the two mapped log files; a full log forces a snapshot */
+        public Builder logCapacityBytes(int bytes) { this.logCapacityBytes = bytes; return this; }
+        /** fsync after this many records (1 = every write) */
+        public Builder syncEvery(int records) { this.syncEvery = records; return this; }
+        /** Also fsync pending records on this interval (zero disables the background flusher) */
+        public Builder syncInterval(Duration interval) { this.syncInterval = interval; return this; }
+        /** Snapshot and truncate the log after this many records */
+        public Builder snapshotEvery(long records) { this.snapshotEvery = records; return this; }
+
+        public DurablePatientRepository open() {
+            if (logCapacityBytes < 4096) throw new IllegalArgumentException("Log capacity must be at least 4096 bytes");
+            if (syncEvery < 1) throw new IllegalArgumentException("syncEvery must be positive");
+            if (snapshotEvery < 1) throw new IllegalArgumentException("snapshotEvery must be positive");
+            if (syncInterval.isNegative()) throw new IllegalArgumentException("syncInterval cannot be negative");
+            try {
+                return new DurablePatientRepository(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open durable repository in " + directory, e);
+            }
+        }
+    }
+
+    // ============ Mutations (logged) ============
+
+    @Override
+    public Patient save(Patient patient) {
+        return mutate(() -> {
+            Patient saved = delegate.save(patient);
+            append(SAVE, PatientCodec.encode(saved));
+            return saved;
+        });
+    }
+
+    /**
+     * Only a successful insert is logged
+     */
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        return mutate(() -> {
+            Optional<Patient> saved = delegate.insertIfEmailAbsent(patient);
+            if (saved.isPresent()) append(SAVE, PatientCodec.encode(saved.get()));
+            return saved;
+        });
+    }
+
+    /**
+     * Only a successful update is logged
+     */
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        return mutate(() -> {
+            Optional<Patient> saved = delegate.updateIfPresent(patient);
+            if (saved.isPresent()) append(SAVE, PatientCodec.encode(saved.get()));
+            return saved;
+        });
+    }
+
+    /**
+     * Logs every patient and syncs once for the whole batch. Not atomic: as with the
+     * in-memory saveAll, a DuplicateEmailException mid-batch is rethrown with the patients
+     * before it saved, and those are logged and synced like a completed batch.
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        return mutate(() -> {
+            List<Patient> saved = new ArrayList<>(patients.size());
+            try {
+                for (Patient patient : patients) {
+                    Patient stored = delegate.save(patient);
+                    record(SAVE, PatientCodec.encode(stored));
+                    saved.add(stored);
+                }
+            } finally {
+                flushBatch();
+            }
+            return saved;
+        });
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        mutate(() -> {
+            for (Long id : ids) {
+                if (id == null) continue;
+                delegate.delete(id);
+                record(DELETE, ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+            }
+            flushBatch();
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Long id) {
+        if (id == null) return;
+        mutate(() -> {
+            delegate.delete(id);
+            append(DELETE, ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        mutate(() -> {
+            delegate.clear();
+            append(CLEAR, new byte[0]);
+            return null;
+        });
+    }
+
+    // ============ Reads (served from memory) ============
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Patient> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        return delegate.findByNameContaining(name);
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.findByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        return delegate.streamByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return delegate.streamByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    // ============ Durability ============
+
+    /**
+     * Force any records not yet flushed by the syncEvery policy
+     */
+    public void sync() {
+        writeLock.lock();
+        try {
+            if (unsynced > 0) {
+                logs[live].force();
+                unsynced = 0;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write a snapshot of the current state and truncate the log. Writers are blocked only
+     * while the patient set is copied and while the finished snapshot is swapped in.
+     */
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            long covered;
+            List<Patient> patients;
+            long nextId;
+            writeLock.lock();
+            try {
+                if (logs[live ^ 1].sizeBytes() > 0) {
+                    // An earlier checkpoint failed before emptying the other log: nothing to switch to
+                    checkpointLocked();
+                    return;
+                }
+                if (unsynced > 0) logs[live].force();
+                unsynced = 0;
+                live ^= 1;
+                sinceSnapshot = 0;
+                covered = sequence;
+                patients = delegate.findAll();
+                nextId = delegate.nextId();
+            } finally {
+                writeLock.unlock();
+            }
+
+            Path temp = writeSnapshotTemp(patients, nextId, covered);
+            writeLock.lock();
+            try {
+                // A full log may have forced a newer snapshot meanwhile; never replace it with an older one
+                if (covered > snapshotSequence) {
+                    installSnapshot(temp, covered);
+                } else {
+                    Files.deleteIfExists(temp);
+                }
+                logs[live ^ 1].reset();
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot", e);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) flusher.shutdownNow();
+        writeLock.lock();
+        try {
+            logs[0].close();
+            logs[1].close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Run one mutation under the write lock, then checkpoint (outside it) if one is due. A
+     * checkpoint already running in another thread covers this one.
+     */
+    private <T> T mutate(Supplier<T> mutation) {
+        T result;
+        boolean due;
+        writeLock.lock();
+        try {
+            result = mutation.get();
+            due = sinceSnapshot >= snapshotEvery;
+        } finally {
+            writeLock.unlock();
+        }
+        if (due && checkpointLock.tryLock()) {
+            try {
+                checkpoint();
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Called with the write lock held, after the mutation was applied in memory
+     */
+    private void append(byte type, byte[] payload) {
+        if (!record(type, payload)) return;
+        if (unsynced >= syncEvery) {
+            logs[live].force();
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Append without applying the sync policy; returns false if a full log forced a checkpoint
+     */
+    private boolean record(byte type, byte[] payload) {
+        sequence++;
+        if (!logs[live].append(type, sequence, payload)) {
+            // Log full: the snapshot already contains this mutation, so it need not be logged
+            try {
+                checkpointLocked();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write snapshot", e);
+            }
+            return false;
+        }
+        unsynced++;
+        sinceSnapshot++;
+        return true;
+    }
+
+    /**
+     * End of a batch: the sync policy is applied once, so a batch costs at most one fsync
+     */
+    private void flushBatch() {
+        if (unsynced >= syncEvery) {
+            logs[live].force();
+            unsynced = 0;
+        }
+    }
+
+    /**
+     * Snapshot and empty both logs without releasing the write lock, for when appends
+     * cannot continue (a full log) or there is no empty log to switch to
+     */
+    private void checkpointLocked() throws IOException {
+        installSnapshot(writeSnapshotTemp(delegate.findAll(), delegate.nextId(), sequence), sequence);
+        logs[0].reset();
+        logs[1].reset();
+        unsynced = 0;
+        sinceSnapshot = 0;
+    }
+
+    /**
+     * Replay both logs in sequence order; the one holding the newest records takes appends.
+     * Both hold records only after a crash mid-checkpoint, which is finished here.
+     */
+    private void replayLogs() throws IOException {
+        List<WriteAheadLog.Entry> entries = new ArrayList<>();
+        long[] newest = new long[2];
+        for (int i = 0; i < logs.length; i++) {
+            int index = i;
+            logs[i].replay(entry -> {
+                entries.add(entry);
+                newest[index] = entry.sequence();
+            });
+        }
+        live = newest[1] > newest[0] ? 1 : 0;
+        entries.sort(Comparator.comparingLong(WriteAheadLog.Entry::sequence));
+        entries.forEach(this::apply);
+        if (logs[0].sizeBytes() > 0 && logs[1].sizeBytes() > 0) {
+            checkpointLocked();
+        }
+    }
+
+    private void apply(WriteAheadLog.Entry entry) {
+        if (entry.sequence() <= sequence) return; // already covered by the snapshot
+        try {
+            switch (entry.type()) {
+                case SAVE -> delegate.save(PatientCodec.read(new DataInputStream(new ByteArrayInputStream(entry.payload()))));
+                case DELETE -> delegate.delete(ByteBuffer.wrap(entry.payload()).getLong());
+                case CLEAR -> delegate.clear();
+                default -> throw new IllegalStateException("Unknown log record type: " + entry.type());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt log record " + entry.sequence(), e);
+        }
+        sequence = entry.sequence();
+        sinceSnapshot++;
+    }
+
+    /**
+     * Write a snapshot to its own temp file beside the live one (forced before returning)
+     */
+    private Path writeSnapshotTemp(List<Patient> patients, long nextId, long lastSequence) throws IOException {
+        Path temp = Files.createTempFile(directory, SNAPSHOT_FILE, ".tmp");
+        try {
+            PatientSnapshot.write(temp, patients, nextId, lastSequence);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    /**
+     * Swap a written snapshot in atomically and fsync the directory so the rename itself
+     * survives a crash before the covered log records are discarded
+     */
+    private void installSnapshot(Path temp, long lastSequence) throws IOException {
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+        snapshotSequence = lastSequence;
+    }
+
+    private void loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) return;
+
+        PatientSnapshot.Info info = PatientSnapshot.read(file, delegate::save);
+        delegate.advanceNextId(info.nextId());
+        sequence = info.lastSequence();
+        snapshotSequence = sequence;
+    }
+
+    /**
+     * Remove snapshots a crash left half written
+     */
+    private void deleteSnapshotTemps() throws IOException {
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, SNAPSHOT_FILE + "*.tmp")) {
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.healthcare.java.patient;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Secondary hash index from normalized email to patient ID
+ * Keeps O(1) uniqueness checks; the reverse map remembers which email each ID
+ * was indexed under, since callers mutate Patient objects in place before saving.
+ */
+final class EmailIndex {
+    private final ConcurrentMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, String> emailsById = new ConcurrentHashMap<>();
+
+    /**
+     * Normalize email for index lookups (trimmed, lower-case)
+     */
+    static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    boolean contains(String email) {
+        return email != null && idsByEmail.containsKey(normalize(email));
+    }
+
+    Long findId(String email) {
+        return email == null ? null : idsByEmail.get(normalize(email));
+    }
+
+    /**
+     * Email (normalized) the given ID is indexed under, or null
+     */
+    String emailOf(long id) {
+        return emailsById.get(id);
+    }
+
+    /**
+     * Claim email for the given ID, releasing the email the ID was previously indexed under.
+     * Returns false (and changes nothing) if another ID already owns the email.
+     */
+    boolean claim(String email, long id) {
+        String key = normalize(email);
+        Long owner = idsByEmail.putIfAbsent(key, id);
+        if (owner != null && owner != id) {
+            return false;
+        }
+        String previous = emailsById.put(id, key);
+        if (previous != null && !previous.equals(key)) {
+            idsByEmail.remove(previous, id);
+        }
+        return true;
+    }
+
+    /**
+     * Release whatever email the given ID is indexed under
+     */
+    void release(long id) {
+        String previous = emailsById.remove(id);
+        if (previous != null) {
+            idsByEmail.remove(previous, id);
+        }
+    }
+
+    int size() {
+        return idsByEmail.size();
+    }
+
+    void clear() {
+        idsByEmail.clear();
+        emailsById.clear();
+    }
+}
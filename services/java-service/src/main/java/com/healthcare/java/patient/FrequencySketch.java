@@ -0,0 +1,83 @@
+package com.healthcare.java.patient;
+
+/**
+ * Count-min sketch of 4-bit access counters, the popularity estimate behind TinyLfuCache
+ * Each key bumps four counters packed sixteen to a long; its frequency is the smallest of
+ * the four. After 10 x maximumSize increments every counter is halved, so the sketch keeps
+ * tracking recent popularity instead of all-time counts.
+ *
+ * Not thread-safe: the owning cache serializes access.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(maximumSize, 8) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Estimated recent accesses of the key with this hash, 0 to 15
+     */
+    int frequency(long hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = spread(hash, i);
+            int shift = counterShift(h);
+            frequency = Math.min(frequency, (int) ((table[index(h)] >>> shift) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    void increment(long hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = spread(hash, i);
+            int index = index(h);
+            int shift = counterShift(h);
+            if (((table[index] >>> shift) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve every counter; odd counters lose their low bit, which the addition count accounts for
+     */
+    private void reset() {
+        int truncated = 0;
+        for (int i = 0; i < table.length; i++) {
+            truncated += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (truncated >>> 2)) >>> 1;
+    }
+
+    private static long spread(long hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 32);
+    }
+
+    private int index(long h) {
+        return (int) h & tableMask;
+    }
+
+    private static int counterShift(long h) {
+        return (int) (h >>> 60) << 2;
+    }
+}
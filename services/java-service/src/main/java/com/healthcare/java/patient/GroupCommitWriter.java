@@ -0,0 +1,183 @@
+package com.healthcare.java.patient;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group commit for SQLite writes
+ * Callers enqueue a write and get a future; one writer thread drains the queue, runs up to
+ * maxBatch writes in a single transaction and commits once, so every caller in the batch
+ * shares one fsync. Each write runs under its own savepoint: a write that fails (say, a
+ * duplicate email) is rolled back alone and only its caller sees the error.
+ *
+ * After taking the first write the thread waits at most window for more to arrive; with a
+ * zero window it only batches what queued up while the previous commit was running.
+ */
+final class GroupCommitWriter implements AutoCloseable {
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    @FunctionalInterface
+    interface Write<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private static final class Request<T> {
+        private final Write<T> write;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private Object value;
+
+        Request(Write<T> write) {
+            this.write = write;
+        }
+
+        void run(Connection conn) throws SQLException {
+            value = write.apply(conn);
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete() {
+            result.complete((T) value);
+        }
+    }
+
+    private final BlockingQueue<Request<?>> queue = new LinkedBlockingQueue<>();
+    private final ConnectionSource connections;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Thread thread;
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile boolean closed;
+
+    GroupCommitWriter(ConnectionSource connections, Duration window, int maxBatch) {
+        this.connections = connections;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.thread = Thread.ofPlatform().name("sqlite-group-commit").daemon().start(this::run);
+    }
+
+    /**
+     * Queue a write; the future completes after the transaction holding it commits.
+     * Throws IllegalStateException once the writer is closed.
+     */
+    <T> CompletableFuture<T> submit(Write<T> write) {
+        if (closed) throw new IllegalStateException("Group commit writer is closed");
+        Request<T> request = new Request<>(write);
+        queue.add(request);
+        // close() may have finished its final drain between the check and the add: if the
+        // request is still queued nobody will run it, so take it back and reject it
+        if (closed && queue.remove(request)) {
+            throw new IllegalStateException("Group commit writer is closed");
+        }
+        return request.result;
+    }
+
+    /**
+     * Transactions committed so far
+     */
+    long commits() {
+        return commits.get();
+    }
+
+    /**
+     * Writes committed or failed so far; writes() / commits() is the mean batch size
+     */
+    long writes() {
+        return writes.get();
+    }
+
+    /**
+     * Commit whatever is queued, then stop the writer thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Writes that raced with close() after the thread's last drain
+        Request<?> request;
+        while ((request = queue.poll()) != null) {
+            request.result.completeExceptionally(new IllegalStateException("Group commit writer is closed"));
+        }
+    }
+
+    private void run() {
+        List<Request<?>> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Request<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Request<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the writer; finish the loop on the remaining queue
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Request<?>> batch) {
+        List<Throwable> errors = new ArrayList<>(batch.size());
+        try (Connection conn = connections.get();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("BEGIN IMMEDIATE");
+            try {
+                for (Request<?> request : batch) {
+                    stmt.execute("SAVEPOINT write");
+                    try {
+                        request.run(conn);
+                        errors.add(null);
+                    } catch (SQLException | RuntimeException e) {
+                        stmt.execute("ROLLBACK TO write");
+                        errors.add(e);
+                    }
+                    stmt.execute("RELEASE write");
+                }
+                stmt.execute("COMMIT");
+            } catch (SQLException | RuntimeException e) {
+                stmt.execute("ROLLBACK");
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            batch.forEach(request -> request.result.completeExceptionally(e));
+            writes.addAndGet(batch.size());
+            return;
+        }
+
+        commits.incrementAndGet();
+        writes.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.get(i) != null) {
+                batch.get(i).result.completeExceptionally(errors.get(i));
+            } else {
+                batch.get(i).complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.healthcare.java.patient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a PatientImporter run
+ * rows counts every non-blank data line read (blank lines are skipped); each one was either
+ * imported or rejected. errors holds
+ * the first rejected rows (up to the importer's maxErrors), in line order; the full list
+ * goes to the error report file when one is configured.
+ */
+public record ImportReport(long rows, long imported, long rejected, List<RowError> errors, Duration elapsed) {
+
+    /**
+     * A rejected row: its 1-based line in the file and why it was rejected
+     */
+    public record RowError(long line, String reason) {}
+
+    public double rowsPerSecond() {
+        return elapsed.isZero() ? 0.0 : rows * 1e9 / elapsed.toNanos();
+    }
+}
@@ -1,61 +1,269 @@
 package com.healthcare.java.patient;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * In-Memory Patient Repository - default implementation
  * Can be swapped with SQLitePatientRepository
+ *
+ * Thread-safe for the one-virtual-thread-per-connection model used by SocketServer:
+ * patients live in a segmented, primitive-keyed LongObjectMap with lock-free reads,
+ * IDs come from an AtomicLong, and email uniqueness is enforced by an atomic claim
+ * on the EmailIndex. A write holds its ID's lock stripe while it updates the map and
+ * every index, so a concurrent save and delete of one patient cannot leave them
+ * disagreeing; writes to different patients still run in parallel.
+ *
+ * Every write also publishes a new version of its stripe's PersistentLongMap while it
+ * holds the stripe, so writers never contend on a shared root. findAll stitches the
+ * current version of every stripe into an immutable view in O(stripes) instead of
+ * copying every patient: each stripe's part is point-in-time, and any write that
+ * completed before the call is included. Saved Patient objects are shared with
+ * snapshots and must not be mutated after save.
  */
 public class InMemoryPatientRepository implements PatientRepository {
-    private final Map<Long, Patient> patients = new HashMap<>();
-    private Long nextId = 1L;
+    private static final int STRIPES = 64;
+
+    private final StripedLocks stripes = new StripedLocks(STRIPES);
+    private final LongObjectMap<Patient> patients = new LongObjectMap<>();
+    private final AtomicReferenceArray<PersistentLongMap<Patient>> versions = emptyVersions();
+    private final AtomicLong nextId = new AtomicLong(1L);
+    private final EmailIndex emailIndex = new EmailIndex();
+    private final TrigramIndex nameIndex = new TrigramIndex();
+    private final BirthDateIndex birthDateIndex = new BirthDateIndex();
+    private final ConcurrentSkipListSet<Long> orderedIds = new ConcurrentSkipListSet<>();
 
     @Override
     public Patient save(Patient patient) {
-        if (patient.getId() == null) {
-            patient.setId(nextId++);
+        long id = patient.getId() != null ? patient.getId() : nextId.getAndIncrement();
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            if (!emailIndex.claim(patient.getEmail(), id)) {
+                throw new DuplicateEmailException(patient.getEmail());
+            }
+            store(id, patient);
+        } finally {
+            StripedLocks.unlock(stripe);
         }
-        patients.put(patient.getId(), patient);
         return patient;
     }
 
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> saved = new ArrayList<>(patients.size());
+        for (Patient patient : patients) {
+            saved.add(save(patient));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        // Cheap pre-check so a plain duplicate does not burn an ID; the claim below is the atomic one
+        if (emailIndex.contains(patient.getEmail())) return Optional.empty();
+        long id = nextId.getAndIncrement();
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            if (!emailIndex.claim(patient.getEmail(), id)) {
+                return Optional.empty();
+            }
+            store(id, patient);
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+        return Optional.of(patient);
+    }
+
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        if (patient.getId() == null) return Optional.empty();
+        long id = patient.getId();
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            Patient existing = patients.get(id);
+            if (existing == null) return Optional.empty();
+            if (!emailIndex.claim(patient.getEmail(), id)) {
+                throw new DuplicateEmailException(patient.getEmail());
+            }
+            patient.setCreatedAt(existing.getCreatedAt());
+            store(id, patient);
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+        return Optional.of(patient);
+    }
+
     @Override
     public Optional<Patient> findById(Long id) {
-        return Optional.ofNullable(patients.get(id));
+        return id == null ? Optional.empty() : Optional.ofNullable(patients.get(id));
     }
 
+    /**
+     * Immutable view of all patients from the current version of every stripe
+     */
     @Override
     public List<Patient> findAll() {
-        return new ArrayList<>(patients.values());
+        List<PersistentLongMap<Patient>> current = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            current.add(versions.get(i));
+        }
+        return PersistentLongMap.concat(current);
+    }
+
+    /**
+     * Seeks the ordered ID set, so a deep page costs the same as the first
+     */
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        List<Patient> page = new ArrayList<>(Math.min(limit, 1_024));
+        Iterator<Long> ids = (afterId == null ? orderedIds : orderedIds.tailSet(afterId, false)).iterator();
+        while (page.size() < limit && ids.hasNext()) {
+            Patient patient = patients.get(ids.next());
+            if (patient != null) page.add(patient);
+        }
+        return page;
     }
 
     @Override
     public void delete(Long id) {
-        patients.remove(id);
+        if (id == null) return;
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            orderedIds.remove(id);
+            patients.remove(id);
+            int index = stripes.stripe(id);
+            versions.set(index, versions.get(index).remove(id));
+            emailIndex.release(id);
+            nameIndex.remove(id);
+            birthDateIndex.remove(id);
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            delete(id);
+        }
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return patients.values().stream()
-                .anyMatch(p -> p.getEmail().equals(email));
+        return emailIndex.contains(email);
     }
 
     @Override
     public List<Patient> findByNameContaining(String name) {
-        return patients.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(name.toLowerCase()))
+        if (TrigramIndex.supports(name)) {
+            List<Patient> matches = new ArrayList<>();
+            for (Long id : nameIndex.search(name)) {
+                Patient patient = patients.get(id);
+                if (patient != null) matches.add(patient);
+            }
+            return matches;
+        }
+        String needle = TrigramIndex.normalize(name);
+        return findAll().stream()
+                .filter(p -> TrigramIndex.normalize(p.getName()).contains(needle))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        List<Patient> matches = new ArrayList<>();
+        for (Long id : birthDateIndex.range(from, to)) {
+            Patient patient = patients.get(id);
+            if (patient != null) matches.add(patient);
+        }
+        return matches;
+    }
+
+    /**
+     * Walks the same view as findAll
+     */
+    @Override
+    public Stream<Patient> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        if (TrigramIndex.supports(name)) {
+            return nameIndex.search(name).stream().map(patients::get).filter(Objects::nonNull);
+        }
+        String needle = TrigramIndex.normalize(name);
+        return streamAll().filter(p -> TrigramIndex.normalize(p.getName()).contains(needle));
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return birthDateIndex.stream(from, to).map(patients::get).filter(Objects::nonNull);
+    }
+
     @Override
     public long count() {
-        return patients.size();
+        long count = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            count += versions.get(i).size();
+        }
+        return count;
     }
 
     @Override
     public void clear() {
-        patients.clear();
-        nextId = 1L;
+        List<ReentrantLock> held = stripes.lockEvery();
+        try {
+            patients.clear();
+            for (int i = 0; i < STRIPES; i++) {
+                versions.set(i, PersistentLongMap.empty());
+            }
+            emailIndex.clear();
+            nameIndex.clear();
+            birthDateIndex.clear();
+            orderedIds.clear();
+            nextId.set(1L);
+        } finally {
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    /**
+     * Next ID to be assigned; exposed for persistence layers that restore state
+     */
+    long nextId() {
+        return nextId.get();
+    }
+
+    void advanceNextId(long next) {
+        nextId.accumulateAndGet(next, Math::max);
+    }
+
+    private static AtomicReferenceArray<PersistentLongMap<Patient>> emptyVersions() {
+        AtomicReferenceArray<PersistentLongMap<Patient>> versions = new AtomicReferenceArray<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            versions.set(i, PersistentLongMap.empty());
+        }
+        return versions;
+    }
+
+    /**
+     * Caller holds the ID's stripe and has claimed the email
+     */
+    private void store(long id, Patient patient) {
+        advanceNextId(id + 1);
+        patient.setId(id);
+        patients.put(id, patient);
+        orderedIds.add(id);
+        int index = stripes.stripe(id);
+        versions.set(index, versions.get(index).put(id, patient));
+        nameIndex.index(id, patient.getName());
+        birthDateIndex.index(id, patient.getBirthDate());
     }
 }
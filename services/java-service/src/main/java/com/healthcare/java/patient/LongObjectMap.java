@@ -0,0 +1,216 @@
+package com.healthcare.java.patient;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Primitive long-keyed open-addressing hash map for ID lookups
+ * Keys and values sit in parallel long[]/Object[] arrays (no boxing, no per-entry nodes).
+ * The map is split into segments that each serialize their own writers; reads take no
+ * lock and see a consistent entry through release/acquire ordering on the arrays.
+ *
+ * Key 0 is reserved as the empty marker. Removed entries keep their key with a null
+ * value until the segment is next rehashed.
+ */
+final class LongObjectMap<V> {
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+    private static final long EMPTY = 0L;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    LongObjectMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    LongObjectMap(int concurrency) {
+        int count = 1;
+        while (count < concurrency) {
+            count <<= 1;
+        }
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        volatile int size;
+        int used;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        long hash = hash(key);
+        Table table = segmentFor(hash).table;
+        for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+            long current = (long) KEYS.getAcquire(table.keys, i);
+            if (current == EMPTY) return null;
+            if (current == key) return (V) VALUES.getAcquire(table.values, i);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Key 0 is reserved");
+        if (value == null) throw new NullPointerException("value");
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            Table table = segment.table;
+            int slot = probe(table, key, hash);
+            if (table.keys[slot] == key) {
+                Object previous = table.values[slot];
+                VALUES.setRelease(table.values, slot, value);
+                if (previous == null) segment.size++;
+                return (V) previous;
+            }
+            if ((segment.used + 1) * 4 > table.keys.length * 3) {
+                table = rehash(segment, segment.size + 1);
+                slot = probe(table, key, hash);
+            }
+            VALUES.setRelease(table.values, slot, value);
+            KEYS.setRelease(table.keys, slot, key);
+            segment.used++;
+            segment.size++;
+            return null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            Table table = segment.table;
+            int slot = probe(table, key, hash);
+            if (table.keys[slot] != key || table.values[slot] == null) return null;
+            Object previous = table.values[slot];
+            VALUES.setRelease(table.values, slot, null);
+            segment.size--;
+            return (V) previous;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+
+    /**
+     * Visit every live value; weakly consistent with concurrent writers
+     */
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        for (Segment segment : segments) {
+            Table table = segment.table;
+            for (int i = 0; i < table.keys.length; i++) {
+                if ((long) KEYS.getAcquire(table.keys, i) == EMPTY) continue;
+                Object value = VALUES.getAcquire(table.values, i);
+                if (value != null) action.accept((V) value);
+            }
+        }
+    }
+
+    List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        forEachValue(values::add);
+        return values;
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.table = new Table(INITIAL_SEGMENT_CAPACITY);
+                segment.used = 0;
+                segment.size = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Slot holding the key, or the first empty slot of its probe sequence
+     */
+    private static int probe(Table table, long key, long hash) {
+        for (int i = (int) hash & table.mask; ; i = (i + 1) & table.mask) {
+            long current = table.keys[i];
+            if (current == key || current == EMPTY) return i;
+        }
+    }
+
+    /**
+     * Rebuild the segment's table sized for its live entries, dropping removed keys
+     */
+    private static Table rehash(Segment segment, int expected) {
+        Table old = segment.table;
+        int capacity = INITIAL_SEGMENT_CAPACITY;
+        while (expected * 2 > capacity) {
+            capacity <<= 1;
+        }
+        Table table = new Table(capacity);
+        int used = 0;
+        for (int i = 0; i < old.keys.length; i++) {
+            Object value = old.values[i];
+            if (old.keys[i] == EMPTY || value == null) continue;
+            int slot = probe(table, old.keys[i], hash(old.keys[i]));
+            table.keys[slot] = old.keys[i];
+            table.values[slot] = value;
+            used++;
+        }
+        segment.used = used;
+        segment.table = table;
+        return table;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    /**
+     * 64-bit finalizer mix so sequential IDs spread over slots and segments
+     */
+    static long hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,719 @@
+package com.healthcare.java.patient;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Off-Heap Patient Repository - columnar storage outside the Java heap
+ * Uses the Foreign Function & Memory API: every field lives in a primitive MemorySegment
+ * column indexed by row slot (birth date as epoch day, timestamps as epoch micros) and
+ * strings live in a heap of [int length][UTF-8 bytes] entries referenced by offset.
+ * Patient objects are only materialized on read, so the GC sees a handful of segments no
+ * matter how many patients are stored.
+ *
+ * Slots are handed out densely and reused through a free list, so the columns grow with
+ * the number of patients rather than with their IDs: an open-addressing table maps each
+ * patient ID to its slot, and a sorted off-heap list of IDs serves ID-ordered scans and
+ * keyset pages. Email uniqueness uses a second table of slots probed by email hash.
+ * Name and birth-date queries are column scans; their stream variants walk the rows with
+ * a cursor instead of materializing every match up front.
+ *
+ * Nothing grows without bound under updates and deletes: the string heap is compacted
+ * once dead strings outweigh live ones, the ID list drops deleted IDs once they make up
+ * half of it, and the hash tables rehash away their tombstones when they fill up.
+ */
+public class OffHeapPatientRepository implements PatientRepository {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long INITIAL_STRING_BYTES = 64 * 1024;
+    private static final long NO_STRING = -1L;
+    private static final long NO_SLOT = 0L;
+    private static final long TOMBSTONE = -1L;
+    private static final byte LIVE = 1;
+    private static final long MIN_DEAD_IDS = 1024;
+
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfInt INT_UNALIGNED = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row columns by slot (slot 0 unused); a free slot's ids cell links to the next free slot
+    private MemorySegment flags;
+    private MemorySegment ids;
+    private MemorySegment birthDays;
+    private MemorySegment createdAts;
+    private MemorySegment updatedAts;
+    private MemorySegment emailHashes;
+    private MemorySegment nameRefs;
+    private MemorySegment emailRefs;
+    private MemorySegment phoneRefs;
+    private long capacity;
+    private long highWater;
+    private long freeSlots;
+
+    // Patient IDs in ascending order; a deleted ID stays until compaction but no longer maps to a slot
+    private MemorySegment orderedIds;
+    private long orderedCount;
+    private long orderedDead;
+
+    // String heap
+    private MemorySegment strings;
+    private long stringsUsed;
+    private long stringsLive;
+
+    private SlotTable slotsById;
+    private SlotTable slotsByEmail;
+
+    private long nextId;
+    private long count;
+
+    public OffHeapPatientRepository() {
+        reset();
+    }
+
+    @Override
+    public Patient save(Patient patient) {
+        lock.writeLock().lock();
+        try {
+            long id = patient.getId() != null ? patient.getId() : nextId;
+            if (id <= 0) throw new IllegalArgumentException("Patient ID must be positive");
+
+            String email = EmailIndex.normalize(patient.getEmail());
+            int hash = email.hashCode();
+            long owner = findEmailOwner(email, hash);
+            long slot = slotOf(id);
+            if (owner != NO_SLOT && owner != slot) {
+                throw new DuplicateEmailException(patient.getEmail());
+            }
+
+            if (slot == NO_SLOT) {
+                slot = allocateSlot();
+                ids.setAtIndex(LONG, slot, id);
+                slotsById.insert(LongObjectMap.hash(id), slot);
+                addOrderedId(id);
+                count++;
+            } else {
+                if (owner != slot) slotsByEmail.remove(spread(emailHashes.getAtIndex(INT, slot)), slot);
+                releaseStrings(slot);
+            }
+
+            flags.set(BYTE, slot, LIVE);
+            birthDays.setAtIndex(INT, slot, (int) patient.getBirthDate().toEpochDay());
+            createdAts.setAtIndex(LONG, slot, PatientCodec.toMicros(patient.getCreatedAt()));
+            updatedAts.setAtIndex(LONG, slot, PatientCodec.toMicros(patient.getUpdatedAt()));
+            emailHashes.setAtIndex(INT, slot, hash);
+            nameRefs.setAtIndex(LONG, slot, appendString(patient.getName()));
+            emailRefs.setAtIndex(LONG, slot, appendString(patient.getEmail()));
+            phoneRefs.setAtIndex(LONG, slot, appendString(patient.getPhone()));
+
+            if (owner != slot) slotsByEmail.insert(spread(hash), slot);
+            if (id < Long.MAX_VALUE) nextId = Math.max(nextId, id + 1);
+            compactStringsIfSparse();
+
+            patient.setId(id);
+            return patient;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Email check and insert under one write-lock hold
+     */
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        lock.writeLock().lock();
+        try {
+            String email = EmailIndex.normalize(patient.getEmail());
+            if (findEmailOwner(email, email.hashCode()) != NO_SLOT) return Optional.empty();
+            patient.setId(null);
+            return Optional.of(save(patient));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Existence check and overwrite under one write-lock hold
+     */
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        lock.writeLock().lock();
+        try {
+            long slot = patient.getId() == null ? NO_SLOT : slotOf(patient.getId());
+            if (slot == NO_SLOT) return Optional.empty();
+            patient.setCreatedAt(PatientCodec.fromMicros(createdAts.getAtIndex(LONG, slot)));
+            return Optional.of(save(patient));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            long slot = id == null ? NO_SLOT : slotOf(id);
+            return slot != NO_SLOT ? Optional.of(materialize(slot)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Patient> patients = new ArrayList<>((int) count);
+            for (long i = 0; i < orderedCount; i++) {
+                long slot = slotOf(orderedIds.getAtIndex(LONG, i));
+                if (slot != NO_SLOT) patients.add(materialize(slot));
+            }
+            return patients;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Binary-searches the ordered ID list, so only deleted IDs in between are skipped
+     */
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Patient> page = new ArrayList<>((int) Math.min(limit, count));
+            for (long i = afterId == null ? 0 : firstIdAbove(afterId); i < orderedCount && page.size() < limit; i++) {
+                long slot = slotOf(orderedIds.getAtIndex(LONG, i));
+                if (slot != NO_SLOT) page.add(materialize(slot));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves under one write-lock hold instead of one per patient
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        lock.writeLock().lock();
+        try {
+            List<Patient> saved = new ArrayList<>(patients.size());
+            for (Patient patient : patients) {
+                saved.add(save(patient));
+            }
+            return saved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                delete(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            long slot = id == null ? NO_SLOT : slotOf(id);
+            if (slot == NO_SLOT) return;
+            slotsByEmail.remove(spread(emailHashes.getAtIndex(INT, slot)), slot);
+            slotsById.remove(LongObjectMap.hash(id), slot);
+            releaseStrings(slot);
+            freeSlot(slot);
+            count--;
+            orderedDead++;
+            compactOrderedIdsIfSparse();
+            compactStringsIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email == null) return false;
+        lock.readLock().lock();
+        try {
+            String normalized = EmailIndex.normalize(email);
+            return findEmailOwner(normalized, normalized.hashCode()) != NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        String needle = TrigramIndex.normalize(name);
+        lock.readLock().lock();
+        try {
+            List<Patient> matches = new ArrayList<>();
+            for (long i = 0; i < orderedCount; i++) {
+                long slot = slotOf(orderedIds.getAtIndex(LONG, i));
+                if (slot != NO_SLOT && nameContains(slot, needle)) {
+                    matches.add(materialize(slot));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            long[] hits = birthDateHits(from, to);
+            List<Patient> matches = new ArrayList<>(hits.length);
+            for (long id : hits) {
+                matches.add(materialize(slotOf(id)));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return scan(slot -> true);
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        String needle = TrigramIndex.normalize(name);
+        return scan(slot -> nameContains(slot, needle));
+    }
+
+    /**
+     * Only the sorted IDs are buffered; rows are materialized as the stream is consumed
+     * and rows deleted in the meantime are skipped
+     */
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        long[] hits;
+        lock.readLock().lock();
+        try {
+            hits = birthDateHits(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(hits).mapToObj(id -> {
+            lock.readLock().lock();
+            try {
+                long slot = slotOf(id);
+                return slot != NO_SLOT ? materialize(slot) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }).filter(Objects::nonNull);
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes currently reserved off-heap for columns, the ID list, strings and both tables
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return flags.byteSize() + ids.byteSize() + birthDays.byteSize() + createdAts.byteSize()
+                    + updatedAts.byteSize() + emailHashes.byteSize() + nameRefs.byteSize() + emailRefs.byteSize()
+                    + phoneRefs.byteSize() + orderedIds.byteSize() + strings.byteSize()
+                    + slotsById.byteSize() + slotsByEmail.byteSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============ Row access ============
+
+    /**
+     * IDs born within [from, to] in (birth date, ID) order; called with the read lock held
+     */
+    private long[] birthDateHits(LocalDate from, LocalDate to) {
+        long low = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long high = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        List<long[]> hits = new ArrayList<>();
+        for (long slot = 1; slot < highWater; slot++) {
+            if (!isLive(slot)) continue;
+            int day = birthDays.getAtIndex(INT, slot);
+            if (day >= low && day <= high) hits.add(new long[]{day, ids.getAtIndex(LONG, slot)});
+        }
+        hits.sort(Comparator.<long[]>comparingLong(hit -> hit[0]).thenComparingLong(hit -> hit[1]));
+        return hits.stream().mapToLong(hit -> hit[1]).toArray();
+    }
+
+    /**
+     * Cursor over live rows in ID order. Each step holds the read lock only while it finds
+     * and materializes the next match, and resumes by searching for the last ID it passed,
+     * so a slow consumer never blocks writers and survives compaction of the ID list.
+     */
+    private Stream<Patient> scan(LongPredicate matches) {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Patient>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long lastId;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Patient> action) {
+                Patient patient = null;
+                lock.readLock().lock();
+                try {
+                    for (long i = firstIdAbove(lastId); patient == null && i < orderedCount; i++) {
+                        lastId = orderedIds.getAtIndex(LONG, i);
+                        long slot = slotOf(lastId);
+                        if (slot != NO_SLOT && matches.test(slot)) patient = materialize(slot);
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (patient == null) return false;
+                action.accept(patient);
+                return true;
+            }
+        }, false);
+    }
+
+    private boolean isLive(long slot) {
+        return flags.get(BYTE, slot) == LIVE;
+    }
+
+    private boolean nameContains(long slot, String needle) {
+        return TrigramIndex.normalize(readString(nameRefs.getAtIndex(LONG, slot))).contains(needle);
+    }
+
+    private Patient materialize(long slot) {
+        return Patient.fromStorage(ids.getAtIndex(LONG, slot),
+                readString(nameRefs.getAtIndex(LONG, slot)),
+                readString(emailRefs.getAtIndex(LONG, slot)),
+                readString(phoneRefs.getAtIndex(LONG, slot)),
+                LocalDate.ofEpochDay(birthDays.getAtIndex(INT, slot)),
+                PatientCodec.fromMicros(createdAts.getAtIndex(LONG, slot)),
+                PatientCodec.fromMicros(updatedAts.getAtIndex(LONG, slot)));
+    }
+
+    // ============ Slots ============
+
+    private long slotOf(long id) {
+        if (id <= 0) return NO_SLOT;
+        return slotsById.find(LongObjectMap.hash(id), slot -> ids.getAtIndex(LONG, slot) == id);
+    }
+
+    private long allocateSlot() {
+        if (freeSlots != NO_SLOT) {
+            long slot = freeSlots;
+            freeSlots = ids.getAtIndex(LONG, slot);
+            return slot;
+        }
+        ensureCapacity(highWater + 1);
+        return highWater++;
+    }
+
+    private void freeSlot(long slot) {
+        flags.set(BYTE, slot, (byte) 0);
+        ids.setAtIndex(LONG, slot, freeSlots);
+        freeSlots = slot;
+    }
+
+    // ============ Ordered IDs ============
+
+    /**
+     * Index of the first ID in the ordered list greater than id
+     */
+    private long firstIdAbove(long id) {
+        long low = 0;
+        long high = orderedCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (orderedIds.getAtIndex(LONG, mid) <= id) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Appends in the usual case of a new highest ID; an explicit lower ID shifts the tail
+     */
+    private void addOrderedId(long id) {
+        if (orderedCount > 0 && orderedIds.getAtIndex(LONG, orderedCount - 1) >= id) {
+            long index = firstIdAbove(id - 1);
+            if (orderedIds.getAtIndex(LONG, index) == id) {
+                orderedDead--; // a deleted ID saved again: its entry never left
+                return;
+            }
+            ensureOrderedCapacity(orderedCount + 1);
+            MemorySegment.copy(orderedIds, index * Long.BYTES, orderedIds, (index + 1) * Long.BYTES,
+                    (orderedCount - index) * Long.BYTES);
+            orderedIds.setAtIndex(LONG, index, id);
+        } else {
+            ensureOrderedCapacity(orderedCount + 1);
+            orderedIds.setAtIndex(LONG, orderedCount, id);
+        }
+        orderedCount++;
+    }
+
+    private void compactOrderedIdsIfSparse() {
+        if (orderedDead <= Math.max(MIN_DEAD_IDS, orderedCount / 2)) return;
+        long kept = 0;
+        for (long i = 0; i < orderedCount; i++) {
+            long id = orderedIds.getAtIndex(LONG, i);
+            if (slotOf(id) != NO_SLOT) orderedIds.setAtIndex(LONG, kept++, id);
+        }
+        orderedCount = kept;
+        orderedDead = 0;
+    }
+
+    private void ensureOrderedCapacity(long entries) {
+        if (entries * Long.BYTES > orderedIds.byteSize()) {
+            orderedIds = grow(orderedIds, Math.max(entries * Long.BYTES, orderedIds.byteSize() * 2));
+        }
+    }
+
+    // ============ String heap ============
+
+    private long appendString(String value) {
+        if (value == null) return NO_STRING;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long needed = stringsUsed + Integer.BYTES + bytes.length;
+        if (needed > strings.byteSize()) {
+            strings = grow(strings, Math.max(needed, strings.byteSize() * 2));
+        }
+        long offset = stringsUsed;
+        strings.set(INT_UNALIGNED, offset, bytes.length);
+        MemorySegment.copy(bytes, 0, strings, BYTE, offset + Integer.BYTES, bytes.length);
+        stringsUsed = needed;
+        stringsLive += Integer.BYTES + bytes.length;
+        return offset;
+    }
+
+    private String readString(long offset) {
+        if (offset == NO_STRING) return null;
+        int length = strings.get(INT_UNALIGNED, offset);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(strings, BYTE, offset + Integer.BYTES, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void releaseStrings(long slot) {
+        releaseString(nameRefs.getAtIndex(LONG, slot));
+        releaseString(emailRefs.getAtIndex(LONG, slot));
+        releaseString(phoneRefs.getAtIndex(LONG, slot));
+    }
+
+    private void releaseString(long offset) {
+        if (offset != NO_STRING) stringsLive -= Integer.BYTES + strings.get(INT_UNALIGNED, offset);
+    }
+
+    /**
+     * Copy the live strings into a fresh heap once dead ones outweigh them; each
+     * compaction is paid for by at least as many bytes of writes since the last one
+     */
+    private void compactStringsIfSparse() {
+        if (stringsUsed - stringsLive <= Math.max(INITIAL_STRING_BYTES, stringsLive)) return;
+        MemorySegment old = strings;
+        strings = allocate(Math.max(INITIAL_STRING_BYTES, stringsLive * 2));
+        stringsUsed = 0;
+        for (long slot = 1; slot < highWater; slot++) {
+            if (!isLive(slot)) continue;
+            nameRefs.setAtIndex(LONG, slot, copyString(old, nameRefs.getAtIndex(LONG, slot)));
+            emailRefs.setAtIndex(LONG, slot, copyString(old, emailRefs.getAtIndex(LONG, slot)));
+            phoneRefs.setAtIndex(LONG, slot, copyString(old, phoneRefs.getAtIndex(LONG, slot)));
+        }
+    }
+
+    private long copyString(MemorySegment from, long offset) {
+        if (offset == NO_STRING) return NO_STRING;
+        long bytes = Integer.BYTES + from.get(INT_UNALIGNED, offset);
+        MemorySegment.copy(from, offset, strings, stringsUsed, bytes);
+        long copied = stringsUsed;
+        stringsUsed += bytes;
+        return copied;
+    }
+
+    // ============ Hash tables ============
+
+    private long findEmailOwner(String normalizedEmail, int hash) {
+        return slotsByEmail.find(spread(hash), slot -> emailHashes.getAtIndex(INT, slot) == hash
+                && EmailIndex.normalize(readString(emailRefs.getAtIndex(LONG, slot))).equals(normalizedEmail));
+    }
+
+    private static long spread(int hash) {
+        return (hash ^ (hash >>> 16)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Off-heap open-addressing table of row slots, probed linearly from a hash of a key the
+     * row's columns hold. Removal leaves a tombstone; an insert that would take the table
+     * past half full rehashes it, doubling only if live entries fill a quarter, so
+     * tombstones from updates and deletes are swept instead of growing the table.
+     */
+    private final class SlotTable {
+        private final LongUnaryOperator hashOfSlot;
+        private MemorySegment table;
+        private long slots;
+        private long used;
+        private long live;
+
+        SlotTable(LongUnaryOperator hashOfSlot) {
+            this.hashOfSlot = hashOfSlot;
+            this.slots = INITIAL_CAPACITY;
+            this.table = allocate(slots * Long.BYTES);
+        }
+
+        long find(long hash, LongPredicate matches) {
+            long mask = slots - 1;
+            for (long i = hash & mask; ; i = (i + 1) & mask) {
+                long slot = table.getAtIndex(LONG, i);
+                if (slot == NO_SLOT) return NO_SLOT;
+                if (slot != TOMBSTONE && matches.test(slot)) return slot;
+            }
+        }
+
+        void insert(long hash, long slot) {
+            if ((used + 1) * 2 > slots) {
+                rehash(live * 4 >= slots ? slots * 2 : slots);
+            }
+            place(hash, slot);
+            live++;
+        }
+
+        void remove(long hash, long slot) {
+            long mask = slots - 1;
+            for (long i = hash & mask; ; i = (i + 1) & mask) {
+                long current = table.getAtIndex(LONG, i);
+                if (current == NO_SLOT) return;
+                if (current == slot) {
+                    table.setAtIndex(LONG, i, TOMBSTONE);
+                    live--;
+                    return;
+                }
+            }
+        }
+
+        long byteSize() {
+            return table.byteSize();
+        }
+
+        private void place(long hash, long slot) {
+            long mask = slots - 1;
+            for (long i = hash & mask; ; i = (i + 1) & mask) {
+                long current = table.getAtIndex(LONG, i);
+                if (current == NO_SLOT || current == TOMBSTONE) {
+                    table.setAtIndex(LONG, i, slot);
+                    if (current == NO_SLOT) used++;
+                    return;
+                }
+            }
+        }
+
+        private void rehash(long newSlots) {
+            MemorySegment old = table;
+            long oldSlots = slots;
+            table = allocate(newSlots * Long.BYTES);
+            slots = newSlots;
+            used = 0;
+            for (long i = 0; i < oldSlots; i++) {
+                long slot = old.getAtIndex(LONG, i);
+                if (slot != NO_SLOT && slot != TOMBSTONE) {
+                    place(hashOfSlot.applyAsLong(slot), slot);
+                }
+            }
+        }
+    }
+
+    // ============ Allocation ============
+
+    private void ensureCapacity(long slots) {
+        if (slots <= capacity) return;
+        long newCapacity = Math.max(slots, capacity * 2);
+        flags = grow(flags, newCapacity);
+        ids = grow(ids, newCapacity * Long.BYTES);
+        birthDays = grow(birthDays, newCapacity * Integer.BYTES);
+        createdAts = grow(createdAts, newCapacity * Long.BYTES);
+        updatedAts = grow(updatedAts, newCapacity * Long.BYTES);
+        emailHashes = grow(emailHashes, newCapacity * Integer.BYTES);
+        nameRefs = grow(nameRefs, newCapacity * Long.BYTES);
+        emailRefs = grow(emailRefs, newCapacity * Long.BYTES);
+        phoneRefs = grow(phoneRefs, newCapacity * Long.BYTES);
+        capacity = newCapacity;
+    }
+
+    private void reset() {
+        capacity = INITIAL_CAPACITY;
+        flags = allocate(capacity);
+        ids = allocate(capacity * Long.BYTES);
+        birthDays = allocate(capacity * Integer.BYTES);
+        createdAts = allocate(capacity * Long.BYTES);
+        updatedAts = allocate(capacity * Long.BYTES);
+        emailHashes = allocate(capacity * Integer.BYTES);
+        nameRefs = allocate(capacity * Long.BYTES);
+        emailRefs = allocate(capacity * Long.BYTES);
+        phoneRefs = allocate(capacity * Long.BYTES);
+        highWater = 1;
+        freeSlots = NO_SLOT;
+        orderedIds = allocate(capacity * Long.BYTES);
+        orderedCount = 0;
+        orderedDead = 0;
+        strings = allocate(INITIAL_STRING_BYTES);
+        stringsUsed = 0;
+        stringsLive = 0;
+        slotsById = new SlotTable(slot -> LongObjectMap.hash(ids.getAtIndex(LONG, slot)));
+        slotsByEmail = new SlotTable(slot -> spread(emailHashes.getAtIndex(INT, slot)));
+        nextId = 1;
+        count = 0;
+    }
+
+    /**
+     * Segments are owned by automatic arenas, so replaced columns are freed once unreachable
+     */
+    private static MemorySegment allocate(long bytes) {
+        return Arena.ofAuto().allocate(bytes, Long.BYTES);
+    }
+
+    private static MemorySegment grow(MemorySegment segment, long bytes) {
+        MemorySegment grown = allocate(bytes);
+        MemorySegment.copy(segment, 0, grown, 0, segment.byteSize());
+        return grown;
+    }
+}
@@ -8,6 +8,8 @@ import java.util.Objects;
  * Simple Patient entity class - core data model
  */
 public class Patient {
+    public static final int SENIOR_AGE = 65;
+
     private Long id;
     private String name;
     private String email;
@@ -27,6 +29,26 @@ public class Patient {
         this.updatedAt = builder.updatedAt;
     }
 
+    private Patient(Long id, String name, String email, String phone, LocalDate birthDate,
+                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.birthDate = birthDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Rebuild a patient that was validated when first stored (database rows, log and
+     * snapshot records), skipping Builder validation and its now() timestamp defaults
+     */
+    static Patient fromStorage(Long id, String name, String email, String phone, LocalDate birthDate,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new Patient(id, name, email, phone, birthDate, createdAt, updatedAt);
+    }
+
     // Getters
     public Long getId() { return id; }
     public String getName() { return name; }
@@ -51,7 +73,7 @@ public class Patient {
     }
 
     public boolean isSenior() {
-        return getAge() >= 65;
+        return getAge() >= SENIOR_AGE;
     }
 
     // Builder pattern
@@ -0,0 +1,12 @@
+package com.healthcare.java.patient;
+
+/**
+ * One captured mutation, numbered in the order it was applied
+ * SAVED carries an immutable copy of the patient as written; DELETED only the ID;
+ * CLEARED neither (patientId 0). Replaying changes in sequence order onto a copy of the
+ * data reproduces the store, and replaying one twice is harmless.
+ */
+public record PatientChange(long sequence, Type type, long patientId, Patient patient) {
+
+    public enum Type { SAVED, DELETED, CLEARED }
+}
@@ -0,0 +1,72 @@
+package com.healthcare.java.patient;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of Patient rows shared by the write-ahead log and snapshots
+ * Layout: id, name, email, phone, birth epoch day, created/updated epoch micros.
+ * Strings are [int byteLength][UTF-8 bytes] with length -1 for null.
+ */
+final class PatientCodec {
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private PatientCodec() {}
+
+    static void write(DataOutput out, Patient patient) throws IOException {
+        out.writeLong(patient.getId());
+        writeString(out, patient.getName());
+        writeString(out, patient.getEmail());
+        writeString(out, patient.getPhone());
+        out.writeLong(patient.getBirthDate().toEpochDay());
+        out.writeLong(toMicros(patient.getCreatedAt()));
+        out.writeLong(toMicros(patient.getUpdatedAt()));
+    }
+
+    static Patient read(DataInput in) throws IOException {
+        return Patient.fromStorage(in.readLong(), readString(in), readString(in), readString(in),
+                LocalDate.ofEpochDay(in.readLong()), fromMicros(in.readLong()), fromMicros(in.readLong()));
+    }
+
+    static byte[] encode(Patient patient) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, patient);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) return NO_TIMESTAMP;
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
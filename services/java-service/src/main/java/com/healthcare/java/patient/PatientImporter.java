@@ -0,0 +1,442 @@
+package com.healthcare.java.patient;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Patient Importer - parallel streaming bulk import from CSV or NDJSON files
+ * A reader thread cuts the file into chunks of chunkRows lines. A pool of decoder threads
+ * parses chunks in parallel and validates each row through Patient.Builder. The calling
+ * thread commits decoded chunks in file order through insertAllIfEmailAbsent, so the
+ * first occurrence of an email wins and later ones are rejected, whether they repeat a
+ * row of the same chunk or one already in the store.
+ *
+ * Memory stays bounded: at most 2 x threads chunks are queued or being decoded while one
+ * is committed, however large the file. Every rejected row (bad syntax, failed validation,
+ * duplicate email) is reported with its line number; the first maxErrors are kept in the
+ * ImportReport and all of them go to errorReport when set.
+ *
+ * CSV needs a header naming name, email, birth_date and optionally phone, in any order;
+ * quoted fields may contain commas and "" but not line breaks. NDJSON rows are objects
+ * with the same fields (birthDate also accepted). Birth dates are ISO yyyy-MM-dd.
+ *
+ * Usage:
+ *   ImportReport report = PatientImporter.builder(repository)
+ *           .onProgress(progress -> log.info("{} rows", progress.rows()))
+ *           .build()
+ *           .importFile(Path.of("clinic.csv"));
+ */
+public class PatientImporter {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Format from the file extension: .csv, or .ndjson / .jsonl / .json
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) return NDJSON;
+            throw new IllegalArgumentException("Unknown import format: " + file.getFileName());
+        }
+    }
+
+    /**
+     * Running totals after each committed chunk
+     */
+    public record Progress(long rows, long imported, long rejected, Duration elapsed) {
+
+        public double rowsPerSecond() {
+            return elapsed.isZero() ? 0.0 : rows * 1e9 / elapsed.toNanos();
+        }
+    }
+
+    private record Chunk(long firstLine, List<String> lines) {}
+
+    private record Decoded(List<Patient> patients, List<Long> lines, List<ImportReport.RowError> errors, int rows) {}
+
+    private static final Decoded END = new Decoded(List.of(), List.of(), List.of(), 0);
+
+    private final PatientRepository repository;
+    private final int threads;
+    private final int chunkRows;
+    private final int maxErrors;
+    private final Path errorReport;
+    private final Consumer<Progress> onProgress;
+
+    private PatientImporter(Builder builder) {
+        this.repository = builder.repository;
+        this.threads = builder.threads;
+        this.chunkRows = builder.chunkRows;
+        this.maxErrors = builder.maxErrors;
+        this.errorReport = builder.errorReport;
+        this.onProgress = builder.onProgress;
+    }
+
+    public static Builder builder(PatientRepository repository) {
+        return new Builder(repository);
+    }
+
+    public static class Builder {
+        private final PatientRepository repository;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int chunkRows = 5_000;
+        private int maxErrors = 1_000;
+        private Path errorReport;
+        private Consumer<Progress> onProgress = progress -> { };
+
+        private Builder(PatientRepository repository) {
+            this.repository = repository;
+        }
+
+        /** Decoder threads */
+        public Builder threads(int threads) { this.threads = threads; return this; }
+        /** Lines per decoded chunk, and per insertAllIfEmailAbsent call */
+        public Builder chunkRows(int rows) { this.chunkRows = rows; return this; }
+        /** Rejected rows kept in the ImportReport; the rest are only counted */
+        public Builder maxErrors(int errors) { this.maxErrors = errors; return this; }
+        /** CSV file (line,reason) receiving every rejected row */
+        public Builder errorReport(Path file) { this.errorReport = file; return this; }
+        /** Called on the importing thread after each committed chunk */
+        public Builder onProgress(Consumer<Progress> listener) { this.onProgress = listener; return this; }
+
+        public PatientImporter build() {
+            if (repository == null) throw new IllegalArgumentException("Repository required");
+            if (threads < 1) throw new IllegalArgumentException("Thread count must be positive");
+            if (chunkRows < 1) throw new IllegalArgumentException("Chunk size must be positive");
+            if (maxErrors < 0) throw new IllegalArgumentException("Error limit cannot be negative");
+            return new PatientImporter(this);
+        }
+    }
+
+    public ImportReport importFile(Path file) throws IOException {
+        return importFile(file, Format.of(file));
+    }
+
+    public ImportReport importFile(Path file, Format format) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        BufferedWriter errors = null;
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService decoders = Executors.newFixedThreadPool(threads, runnable -> Thread.ofPlatform()
+                .name("patient-import-" + counter.incrementAndGet()).daemon().unstarted(runnable));
+        BlockingQueue<CompletableFuture<Decoded>> pending = new ArrayBlockingQueue<>(threads * 2);
+        Thread chunker = null;
+        try {
+            RowDecoder decoder = format == Format.CSV ? csvDecoder(reader.readLine()) : PatientImporter::decodeJson;
+            long firstLine = format == Format.CSV ? 2 : 1;
+            if (errorReport != null) {
+                errors = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8);
+                errors.write("line,reason");
+                errors.newLine();
+            }
+
+            chunker = Thread.ofPlatform().name("patient-import-reader").daemon()
+                    .start(() -> readChunks(reader, firstLine, decoder, decoders, pending));
+
+            long rows = 0;
+            long imported = 0;
+            long rejected = 0;
+            List<ImportReport.RowError> kept = new ArrayList<>();
+            while (true) {
+                Decoded decoded = await(take(pending));
+                if (decoded == END) break;
+
+                List<ImportReport.RowError> chunkErrors = new ArrayList<>(decoded.errors());
+                int inserted = commit(decoded, chunkErrors);
+                chunkErrors.sort(Comparator.comparingLong(ImportReport.RowError::line));
+                for (ImportReport.RowError error : chunkErrors) {
+                    if (kept.size() < maxErrors) kept.add(error);
+                    if (errors != null) {
+                        errors.write(error.line() + ",\"" + error.reason().replace("\"", "\"\"") + "\"");
+                        errors.newLine();
+                    }
+                }
+                rows += decoded.rows();
+                imported += inserted;
+                rejected += chunkErrors.size();
+                onProgress.accept(new Progress(rows, imported, rejected, Duration.ofNanos(System.nanoTime() - start)));
+            }
+            return new ImportReport(rows, imported, rejected, List.copyOf(kept),
+                    Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            if (chunker != null) {
+                chunker.interrupt();
+                try {
+                    chunker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            decoders.shutdownNow();
+            reader.close();
+            if (errors != null) errors.close();
+        }
+    }
+
+    /**
+     * Dedupe a chunk's emails, insert the survivors, and record every row the store
+     * turned away; returns how many were inserted
+     */
+    private int commit(Decoded decoded, List<ImportReport.RowError> errors) {
+        List<Patient> batch = new ArrayList<>(decoded.patients().size());
+        List<Long> batchLines = new ArrayList<>(decoded.patients().size());
+        Map<String, Long> firstLines = new HashMap<>();
+        for (int i = 0; i < decoded.patients().size(); i++) {
+            Patient patient = decoded.patients().get(i);
+            long line = decoded.lines().get(i);
+            Long first = firstLines.putIfAbsent(EmailIndex.normalize(patient.getEmail()), line);
+            if (first != null) {
+                errors.add(new ImportReport.RowError(line, "Duplicate email " + patient.getEmail() + " (first on line " + first + ")"));
+            } else {
+                batch.add(patient);
+                batchLines.add(line);
+            }
+        }
+        if (batch.isEmpty()) return 0;
+
+        // Inserted patients come back in batch order and batch emails are now unique, so one
+        // pass pairs them up
+        List<Patient> inserted = repository.insertAllIfEmailAbsent(batch);
+        int next = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Patient patient = batch.get(i);
+            if (next < inserted.size() && EmailIndex.normalize(inserted.get(next).getEmail())
+                    .equals(EmailIndex.normalize(patient.getEmail()))) {
+                next++;
+            } else {
+                errors.add(new ImportReport.RowError(batchLines.get(i), "Email already exists: " + patient.getEmail()));
+            }
+        }
+        return inserted.size();
+    }
+
+    /**
+     * Reader thread: cut the file into chunks and queue their decoding in file order; the
+     * bounded queue holds it back while the committer catches up
+     */
+    private void readChunks(BufferedReader reader, long firstLine, RowDecoder decoder, ExecutorService decoders,
+                            BlockingQueue<CompletableFuture<Decoded>> pending) {
+        try {
+            long lineNumber = firstLine;
+            long chunkStart = firstLine;
+            List<String> lines = new ArrayList<>(chunkRows);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                lineNumber++;
+                if (lines.size() == chunkRows) {
+                    Chunk chunk = new Chunk(chunkStart, lines);
+                    pending.put(CompletableFuture.supplyAsync(() -> decode(chunk, decoder), decoders));
+                    lines = new ArrayList<>(chunkRows);
+                    chunkStart = lineNumber;
+                }
+            }
+            if (!lines.isEmpty()) {
+                Chunk chunk = new Chunk(chunkStart, lines);
+                pending.put(CompletableFuture.supplyAsync(() -> decode(chunk, decoder), decoders));
+            }
+            pending.put(CompletableFuture.completedFuture(END));
+        } catch (InterruptedException e) {
+            // The committer stopped early and no longer reads the queue
+        } catch (IOException | RuntimeException e) {
+            try {
+                pending.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException stopped) {
+                // As above
+            }
+        }
+    }
+
+    private static Decoded decode(Chunk chunk, RowDecoder decoder) {
+        List<Patient> patients = new ArrayList<>(chunk.lines().size());
+        List<Long> lines = new ArrayList<>(chunk.lines().size());
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        int rows = 0;
+        for (int i = 0; i < chunk.lines().size(); i++) {
+            String text = chunk.lines().get(i);
+            if (text.isBlank()) continue;
+            rows++;
+            long line = chunk.firstLine() + i;
+            try {
+                patients.add(decoder.decode(text));
+                lines.add(line);
+            } catch (IllegalArgumentException | IllegalStateException | JsonParseException e) {
+                errors.add(new ImportReport.RowError(line, e.getMessage()));
+            }
+        }
+        return new Decoded(patients, lines, errors, rows);
+    }
+
+    @FunctionalInterface
+    private interface RowDecoder {
+        Patient decode(String line);
+    }
+
+    /**
+     * Decoder for rows laid out as the header names them
+     */
+    private static RowDecoder csvDecoder(String header) {
+        if (header == null) throw new IllegalArgumentException("CSV file is empty");
+        List<String> columns = splitCsv(header).stream()
+                .map(column -> column.strip().toLowerCase(Locale.ROOT).replace("_", ""))
+                .toList();
+        int name = columns.indexOf("name");
+        int email = columns.indexOf("email");
+        int phone = columns.indexOf("phone");
+        int birthDate = columns.indexOf("birthdate");
+        if (name < 0 || email < 0 || birthDate < 0) {
+            throw new IllegalArgumentException("CSV header must name name, email and birth_date columns");
+        }
+        int width = columns.size();
+        return line -> {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != width) {
+                throw new IllegalArgumentException("Expected " + width + " fields but found " + fields.size());
+            }
+            return toPatient(fields.get(name), fields.get(email), phone < 0 ? null : fields.get(phone),
+                    fields.get(birthDate));
+        };
+    }
+
+    /**
+     * Split one CSV line; quoted fields may contain commas and doubled quotes
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Patient decodeJson(String line) {
+        JsonObject row = JsonParser.parseString(line).getAsJsonObject();
+        String birthDate = jsonString(row, "birthDate");
+        return toPatient(jsonString(row, "name"), jsonString(row, "email"), jsonString(row, "phone"),
+                birthDate != null ? birthDate : jsonString(row, "birth_date"));
+    }
+
+    private static String jsonString(JsonObject row, String field) {
+        JsonElement value = row.get(field);
+        if (value == null || value.isJsonNull()) return null;
+        if (!value.isJsonPrimitive()) throw new IllegalArgumentException("Field " + field + " must be a string");
+        return value.getAsString();
+    }
+
+    private static Patient toPatient(String name, String email, String phone, String birthDate) {
+        return Patient.builder()
+                .name(name == null ? null : name.strip())
+                .email(email == null ? null : email.strip())
+                .phone(phone == null || phone.isBlank() ? null : phone.strip())
+                .birthDate(parseDate(birthDate))
+                .build();
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDate.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid birth date: " + value);
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        }
+    }
+
+    /**
+     * Wait for a decoded chunk; a read failure on the reader thread comes through as IOException
+     */
+    private static Decoded await(CompletableFuture<Decoded> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Import a file into a SQLite database: PatientImporter <database.db> <file.csv|.ndjson> [errors.csv]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PatientImporter <database.db> <file.csv|file.ndjson> [errors.csv]");
+            System.exit(2);
+        }
+        long[] lastPrinted = {0};
+        try (SQLitePatientRepository repository = SQLitePatientRepository.builder(args[0]).tuned().build()) {
+            Builder builder = builder(repository).onProgress(progress -> {
+                long now = System.nanoTime();
+                if (now - lastPrinted[0] >= TimeUnit.SECONDS.toNanos(1)) {
+                    lastPrinted[0] = now;
+                    System.out.printf("%,d rows, %,d imported, %,d rejected (%,.0f rows/s)%n", progress.rows(),
+                            progress.imported(), progress.rejected(), progress.rowsPerSecond());
+                }
+            });
+            if (args.length > 2) builder.errorReport(Path.of(args[2]));
+            ImportReport report = builder.build().importFile(Path.of(args[1]));
+            System.out.printf("Imported %,d of %,d rows in %.1f s (%,.0f rows/s), %,d rejected%n", report.imported(),
+                    report.rows(), report.elapsed().toMillis() / 1e3, report.rowsPerSecond(), report.rejected());
+            report.errors().stream().limit(20).forEach(error ->
+                    System.out.printf("  line %d: %s%n", error.line(), error.reason()));
+        }
+    }
+}
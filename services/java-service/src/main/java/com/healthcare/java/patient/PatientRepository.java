@@ -1,18 +1,95 @@
 package com.healthcare.java.patient;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Patient Repository Interface - data access layer
  */
 public interface PatientRepository {
+
+    /**
+     * Insert or update; throws DuplicateEmailException if another patient uses the email
+     */
     Patient save(Patient patient);
+
+    /**
+     * Save many patients in one bulk operation; returns them (with IDs) in input order
+     */
+    List<Patient> saveAll(Collection<Patient> patients);
+
+    /**
+     * Atomically insert a new patient (any ID it carries is replaced) unless another patient
+     * already uses its email. Returns the saved patient, or empty if the email was taken.
+     */
+    Optional<Patient> insertIfEmailAbsent(Patient patient);
+
+    /**
+     * Replace the stored patient with this one's ID in a single write, keeping the stored
+     * createdAt. Returns the saved patient, or empty if no patient has the ID. Throws
+     * DuplicateEmailException if another patient uses the email.
+     */
+    Optional<Patient> updateIfPresent(Patient patient);
+
+    /**
+     * insertIfEmailAbsent for each patient in order; returns the ones inserted. Stores that
+     * can write in bulk override this to insert in a few transactions.
+     */
+    default List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        List<Patient> inserted = new ArrayList<>(patients.size());
+        for (Patient patient : patients) {
+            insertIfEmailAbsent(patient).ifPresent(inserted::add);
+        }
+        return inserted;
+    }
     Optional<Patient> findById(Long id);
     List<Patient> findAll();
+
+    /**
+     * Keyset page: up to limit patients with an ID above afterId (null starts at the
+     * beginning), in ID order. Pass the last ID of a page to fetch the next one.
+     */
+    List<Patient> findPage(Long afterId, int limit);
     void delete(Long id);
+    void deleteAll(Collection<Long> ids);
     boolean existsByEmail(String email);
     List<Patient> findByNameContaining(String name);
+
+    /**
+     * Patients born within [from, to] inclusive, in birth-date order; a null bound is open
+     */
+    List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Lazy counterparts of findAll, findByNameContaining and findByBirthDateBetween:
+     * patients are produced as the stream is consumed, so memory does not grow with the
+     * result. Close the stream (try-with-resources) to release any cursor it holds.
+     * Name matches come in no particular order; birth-date matches keep birth-date order.
+     */
+    Stream<Patient> streamAll();
+    Stream<Patient> streamByNameContaining(String name);
+    Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Summary forms of findAll, findPage and findByNameContaining (same order and matches)
+     * for list responses; stores that can project columns override these to skip loading
+     * whole patients
+     */
+    default List<PatientSummary> findAllSummaries() {
+        return findAll().stream().map(PatientSummary::of).toList();
+    }
+
+    default List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+        return findPage(afterId, limit).stream().map(PatientSummary::of).toList();
+    }
+
+    default List<PatientSummary> findSummariesByNameContaining(String name) {
+        return findByNameContaining(name).stream().map(PatientSummary::of).toList();
+    }
     long count();
     void clear();
 }
@@ -1,14 +1,17 @@
 package com.healthcare.java.patient;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Patient Service - delegates to repository for persistence
  * Handles business logic and validation
  */
 public class PatientService {
+    public static final int MAX_PAGE_SIZE = 1_000;
+
     private final PatientRepository repository;
 
     public PatientService(PatientRepository repository) {
@@ -16,14 +19,38 @@ public class PatientService {
     }
 
     // CRUD Operations
+
+    /**
+     * One atomic repository call: the email check and the insert cannot interleave with
+     * another create. Throws DuplicateEmailException if the email is taken.
+     */
     public Patient create(Patient patient) {
         if (patient == null) throw new IllegalArgumentException("Patient cannot be null");
-        if (repository.existsByEmail(patient.getEmail())) 
-            throw new IllegalArgumentException("Email already exists: " + patient.getEmail());
 
         patient.setCreatedAt(LocalDateTime.now());
         patient.setUpdatedAt(LocalDateTime.now());
-        return repository.save(patient);
+        return repository.insertIfEmailAbsent(patient)
+                .orElseThrow(() -> new DuplicateEmailException(patient.getEmail()));
+    }
+
+    /**
+     * Bulk create: every email is checked against the batch and the store in one pass
+     * before anything is written, then the batch goes to the repository's saveAll
+     */
+    public List<Patient> createAll(Collection<Patient> patients) {
+        Set<String> emails = new HashSet<>();
+        for (Patient patient : patients) {
+            if (patient == null) throw new IllegalArgumentException("Patient cannot be null");
+            if (!emails.add(EmailIndex.normalize(patient.getEmail())) || repository.existsByEmail(patient.getEmail()))
+                throw new DuplicateEmailException(patient.getEmail());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Patient patient : patients) {
+            patient.setCreatedAt(now);
+            patient.setUpdatedAt(now);
+        }
+        return repository.saveAll(patients);
     }
 
     public Patient getById(Long id) {
@@ -35,18 +62,31 @@ public class PatientService {
         return repository.findAll();
     }
 
-    public Patient update(Long id, Patient updated) {
-        Patient existing = getById(id);
-        
-        if (!existing.getEmail().equals(updated.getEmail()) && repository.existsByEmail(updated.getEmail())) 
-            throw new IllegalArgumentException("Email already exists: " + updated.getEmail());
+    /**
+     * Keyset pagination by ID: pass the last ID of the previous page (null for the first)
+     */
+    public List<Patient> getPage(Long afterId, int limit) {
+        checkPageSize(limit);
+        return repository.findPage(afterId, limit);
+    }
 
-        existing.setName(updated.getName());
-        existing.setEmail(updated.getEmail());
-        existing.setPhone(updated.getPhone());
-        existing.setBirthDate(updated.getBirthDate());
-        existing.setUpdatedAt(LocalDateTime.now());
-        return repository.save(existing);
+    /**
+     * One write: the repository checks the patient exists, keeps its createdAt and enforces
+     * email uniqueness (no separate getById or existsByEmail round trip); throws
+     * DuplicateEmailException if another patient has the new email
+     */
+    public Patient update(Long id, Patient updated) {
+        // Save a new instance: stored patients may be shared with repository snapshots
+        Patient replacement = Patient.builder()
+                .id(id)
+                .name(updated.getName())
+                .email(updated.getEmail())
+                .phone(updated.getPhone())
+                .birthDate(updated.getBirthDate())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        return repository.updateIfPresent(replacement)
+                .orElseThrow(() -> new NoSuchElementException("Patient not found: " + id));
     }
 
     public void delete(Long id) {
@@ -54,21 +94,62 @@ public class PatientService {
         repository.delete(id);
     }
 
+    /**
+     * Summary forms of getAll, getPage and findByName for list responses
+     */
+    public List<PatientSummary> getAllSummaries() {
+        return repository.findAllSummaries();
+    }
+
+    public List<PatientSummary> getSummaryPage(Long afterId, int limit) {
+        checkPageSize(limit);
+        return repository.findSummaryPage(afterId, limit);
+    }
+
+    public List<PatientSummary> findSummariesByName(String name) {
+        return repository.findSummariesByNameContaining(name);
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+
     // Search & Filter
     public List<Patient> findByName(String name) {
         return repository.findByNameContaining(name);
     }
 
+    /**
+     * Age is calendar-year based (see Patient.getAge), so an age range maps to
+     * whole birth years and is pushed down to the repository's birth-date index
+     */
     public List<Patient> findByAgeRange(int minAge, int maxAge) {
-        return getAll().stream()
-                .filter(p -> p.getAge() >= minAge && p.getAge() <= maxAge)
-                .collect(Collectors.toList());
+        try (Stream<Patient> patients = streamByAgeRange(minAge, maxAge)) {
+            return patients.toList();
+        }
     }
 
     public List<Patient> getSeniors() {
-        return getAll().stream()
-                .filter(Patient::isSenior)
-                .collect(Collectors.toList());
+        try (Stream<Patient> patients = streamSeniors()) {
+            return patients.toList();
+        }
+    }
+
+    /**
+     * Streaming forms of findByAgeRange and getSeniors for cohorts too large to hold in
+     * memory; the caller must close the stream
+     */
+    public Stream<Patient> streamByAgeRange(int minAge, int maxAge) {
+        if (minAge > maxAge) return Stream.empty();
+        int year = LocalDate.now().getYear();
+        return repository.streamByBirthDateBetween(
+                LocalDate.of(year - maxAge, 1, 1), LocalDate.of(year - minAge, 12, 31));
+    }
+
+    public Stream<Patient> streamSeniors() {
+        int year = LocalDate.now().getYear();
+        return repository.streamByBirthDateBetween(null, LocalDate.of(year - Patient.SENIOR_AGE, 12, 31));
     }
 
     public boolean patientExistsByEmail(String email) {
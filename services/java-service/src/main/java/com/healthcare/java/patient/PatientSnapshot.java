@@ -0,0 +1,229 @@
+package com.healthcare.java.patient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact, memory-mapped binary snapshot of a patient set
+ *
+ * Layout (little-endian, sections 8-byte aligned):
+ *   header (64 bytes)  magic "PSNP", version, row count, next ID, last log sequence,
+ *                      string heap size, CRC32C of everything after the header
+ *   columns            id long[n], birth epoch day int[n], created/updated epoch micros long[n],
+ *                      name/email/phone offsets into the string heap long[n] (-1 = null)
+ *   string heap        [int byteLength][UTF-8 bytes] entries
+ *
+ * Files are written and read through FileChannel.map, so loading is one sequential pass
+ * over mapped pages with no stream decoding or per-field parsing.
+ */
+public final class PatientSnapshot {
+    static final int MAGIC = 0x50534E50; // "PSNP"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 64;
+    private static final long NO_STRING = -1L;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Header fields of a snapshot file
+     */
+    public record Info(long rowCount, long nextId, long lastSequence) {}
+
+    private PatientSnapshot() {}
+
+    // ============ Entry points ============
+
+    /**
+     * Export every patient in the repository to a snapshot file
+     */
+    public static Info export(PatientRepository repository, Path file) {
+        List<Patient> patients = repository.findAll();
+        long nextId = repository instanceof InMemoryPatientRepository memory
+                ? memory.nextId()
+                : patients.stream().mapToLong(Patient::getId).max().orElse(0) + 1;
+        try {
+            return write(file, patients, nextId, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export snapshot to " + file, e);
+        }
+    }
+
+    /**
+     * Load a snapshot into a fresh in-memory repository
+     */
+    public static InMemoryPatientRepository load(Path file) {
+        InMemoryPatientRepository repository = new InMemoryPatientRepository();
+        importInto(file, repository);
+        return repository;
+    }
+
+    /**
+     * Save every row of a snapshot into the given repository, preserving IDs
+     */
+    public static Info importInto(Path file, PatientRepository repository) {
+        try {
+            Info info = read(file, repository::save);
+            if (repository instanceof InMemoryPatientRepository memory) {
+                memory.advanceNextId(info.nextId());
+            }
+            return info;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import snapshot from " + file, e);
+        }
+    }
+
+    // ============ Format ============
+
+    static Info write(Path file, List<Patient> patients, long nextId, long lastSequence) throws IOException {
+        long rows = patients.size();
+        long heapBytes = 0;
+        for (Patient patient : patients) {
+            heapBytes += entryBytes(patient.getName()) + entryBytes(patient.getEmail()) + entryBytes(patient.getPhone());
+        }
+
+        long ids = HEADER_BYTES;
+        long birthDays = ids + rows * Long.BYTES;
+        long createdAts = align(birthDays + rows * Integer.BYTES);
+        long updatedAts = createdAts + rows * Long.BYTES;
+        long nameRefs = updatedAts + rows * Long.BYTES;
+        long emailRefs = nameRefs + rows * Long.BYTES;
+        long phoneRefs = emailRefs + rows * Long.BYTES;
+        long heap = phoneRefs + rows * Long.BYTES;
+        long size = heap + heapBytes;
+
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+
+            long heapUsed = 0;
+            long row = 0;
+            for (Patient patient : patients) {
+                segment.set(LONG, ids + row * Long.BYTES, patient.getId());
+                segment.set(INT, birthDays + row * Integer.BYTES, (int) patient.getBirthDate().toEpochDay());
+                segment.set(LONG, createdAts + row * Long.BYTES, PatientCodec.toMicros(patient.getCreatedAt()));
+                segment.set(LONG, updatedAts + row * Long.BYTES, PatientCodec.toMicros(patient.getUpdatedAt()));
+                heapUsed = putString(segment, nameRefs + row * Long.BYTES, heap, heapUsed, patient.getName());
+                heapUsed = putString(segment, emailRefs + row * Long.BYTES, heap, heapUsed, patient.getEmail());
+                heapUsed = putString(segment, phoneRefs + row * Long.BYTES, heap, heapUsed, patient.getPhone());
+                row++;
+            }
+
+            segment.set(INT, 0, MAGIC);
+            segment.set(INT, 4, VERSION);
+            segment.set(LONG, 8, rows);
+            segment.set(LONG, 16, nextId);
+            segment.set(LONG, 24, lastSequence);
+            segment.set(LONG, 32, heapBytes);
+            segment.set(INT, 40, checksum(segment, HEADER_BYTES, size));
+            segment.force();
+        }
+        return new Info(rows, nextId, lastSequence);
+    }
+
+    static Info read(Path file, Consumer<Patient> consumer) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Truncated snapshot: " + file);
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+
+            if (segment.get(INT, 0) != MAGIC) throw new IOException("Not a patient snapshot: " + file);
+            int version = segment.get(INT, 4);
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            long rows = segment.get(LONG, 8);
+            long nextId = segment.get(LONG, 16);
+            long lastSequence = segment.get(LONG, 24);
+            long heapBytes = segment.get(LONG, 32);
+
+            long ids = HEADER_BYTES;
+            long birthDays = ids + rows * Long.BYTES;
+            long createdAts = align(birthDays + rows * Integer.BYTES);
+            long updatedAts = createdAts + rows * Long.BYTES;
+            long nameRefs = updatedAts + rows * Long.BYTES;
+            long emailRefs = nameRefs + rows * Long.BYTES;
+            long phoneRefs = emailRefs + rows * Long.BYTES;
+            long heap = phoneRefs + rows * Long.BYTES;
+            if (rows < 0 || heap + heapBytes != size) throw new IOException("Corrupt snapshot layout: " + file);
+            if (segment.get(INT, 40) != checksum(segment, HEADER_BYTES, size)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            for (long row = 0; row < rows; row++) {
+                consumer.accept(Patient.fromStorage(
+                        segment.get(LONG, ids + row * Long.BYTES),
+                        getString(segment, heap, segment.get(LONG, nameRefs + row * Long.BYTES)),
+                        getString(segment, heap, segment.get(LONG, emailRefs + row * Long.BYTES)),
+                        getString(segment, heap, segment.get(LONG, phoneRefs + row * Long.BYTES)),
+                        LocalDate.ofEpochDay(segment.get(INT, birthDays + row * Integer.BYTES)),
+                        PatientCodec.fromMicros(segment.get(LONG, createdAts + row * Long.BYTES)),
+                        PatientCodec.fromMicros(segment.get(LONG, updatedAts + row * Long.BYTES))));
+            }
+            return new Info(rows, nextId, lastSequence);
+        }
+    }
+
+    private static long putString(MemorySegment segment, long refOffset, long heap, long heapUsed, String value) {
+        if (value == null) {
+            segment.set(LONG, refOffset, NO_STRING);
+            return heapUsed;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        segment.set(LONG, refOffset, heapUsed);
+        segment.set(INT, heap + heapUsed, bytes.length);
+        MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, heap + heapUsed + Integer.BYTES, bytes.length);
+        return heapUsed + Integer.BYTES + bytes.length;
+    }
+
+    private static String getString(MemorySegment segment, long heap, long ref) {
+        if (ref == NO_STRING) return null;
+        int length = segment.get(INT, heap + ref);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, heap + ref + Integer.BYTES, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long entryBytes(String value) {
+        return value == null ? 0 : Integer.BYTES + utf8Length(value);
+    }
+
+    private static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length += 1;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else length += 3;
+        }
+        return length;
+    }
+
+    private static int checksum(MemorySegment segment, long from, long to) {
+        CRC32C crc = new CRC32C();
+        long chunk = 1L << 30;
+        for (long offset = from; offset < to; offset += chunk) {
+            crc.update(segment.asSlice(offset, Math.min(chunk, to - offset)).asByteBuffer());
+        }
+        return (int) crc.getValue();
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,23 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only list view of a patient: the fields LIST and SEARCH responses carry
+ * Repositories that can project columns (SQLite) build these straight from the row,
+ * without fetching timestamps or going through Patient.Builder.
+ */
+public record PatientSummary(long id, String name, String email, String phone, LocalDate birthDate) {
+
+    public static PatientSummary of(Patient patient) {
+        return new PatientSummary(patient.getId(), patient.getName(), patient.getEmail(),
+                patient.getPhone(), patient.getBirthDate());
+    }
+
+    /**
+     * Calendar-year age, as Patient.getAge
+     */
+    public int age() {
+        return LocalDate.now().getYear() - birthDate.getYear();
+    }
+}
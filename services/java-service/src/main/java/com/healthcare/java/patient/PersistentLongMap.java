@@ -0,0 +1,327 @@
+package com.healthcare.java.patient;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Immutable, persistent long-keyed map (hash array mapped trie)
+ * Every put/remove returns a new version that shares all untouched nodes with the old
+ * one (path copying, O(log32 n) nodes per write), so any version can be handed to
+ * readers as a point-in-time snapshot in O(1) and iterated without copying or locking.
+ *
+ * Keys are spread with a bijective 64-bit mix, so two distinct keys never share a full
+ * hash and no collision nodes are needed. Each node records its subtree size, which
+ * makes size() O(1) and positional access O(log n).
+ */
+final class PersistentLongMap<V> implements Iterable<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentLongMap<?> EMPTY = new PersistentLongMap<>(new Node(0, new Object[0], 0));
+
+    private final Node root;
+
+    private PersistentLongMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> PersistentLongMap<V> empty() {
+        return (PersistentLongMap<V>) EMPTY;
+    }
+
+    private record Leaf(long key, long hash, Object value) {}
+
+    private record Node(int bitmap, Object[] children, int size) {
+        int position(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    int size() {
+        return root.size;
+    }
+
+    boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        long hash = hash(key);
+        Node node = root;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) return null;
+            Object child = node.children[node.position(bit)];
+            if (child instanceof Leaf leaf) {
+                return leaf.key == key ? (V) leaf.value : null;
+            }
+            node = (Node) child;
+        }
+    }
+
+    PersistentLongMap<V> put(long key, V value) {
+        Node updated = put(root, new Leaf(key, hash(key), value), 0);
+        return updated == root ? this : new PersistentLongMap<>(updated);
+    }
+
+    PersistentLongMap<V> remove(long key) {
+        Object updated = remove(root, key, hash(key), 0);
+        if (updated == root) return this;
+        if (updated == null) return empty();
+        if (updated instanceof Leaf leaf) {
+            return new PersistentLongMap<>(new Node(bitFor(leaf.hash, 0), new Object[]{leaf}, 1));
+        }
+        return new PersistentLongMap<>((Node) updated);
+    }
+
+    /**
+     * Read-only List view of this version; iteration is allocation-free apart from the iterator
+     */
+    List<V> asList() {
+        return new AbstractList<>() {
+            @Override
+            public V get(int index) {
+                return PersistentLongMap.this.getAt(index);
+            }
+
+            @Override
+            public int size() {
+                return root.size;
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return PersistentLongMap.this.iterator();
+            }
+        };
+    }
+
+    /**
+     * Read-only List view over several versions in order, e.g. one per lock stripe; built
+     * in O(versions) and iterated without copying
+     */
+    static <V> List<V> concat(List<PersistentLongMap<V>> versions) {
+        int[] ends = new int[versions.size()];
+        int total = 0;
+        for (int i = 0; i < ends.length; i++) {
+            total += versions.get(i).size();
+            ends[i] = total;
+        }
+        int size = total;
+        return new AbstractList<>() {
+            @Override
+            public V get(int index) {
+                if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+                int part = 0;
+                while (ends[part] <= index) part++;
+                return versions.get(part).getAt(index - (part == 0 ? 0 : ends[part - 1]));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return new Iterator<>() {
+                    private int part;
+                    private Iterator<V> current = Collections.emptyIterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!current.hasNext() && part < versions.size()) {
+                            current = versions.get(part++).iterator();
+                        }
+                        return current.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return current.next();
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                return Spliterators.spliterator(iterator(), size,
+                        Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private final Deque<Object[]> nodes = new ArrayDeque<>();
+            private final Deque<Integer> positions = new ArrayDeque<>();
+            private Leaf next;
+
+            {
+                nodes.push(root.children);
+                positions.push(0);
+                advance();
+            }
+
+            private void advance() {
+                next = null;
+                while (!nodes.isEmpty()) {
+                    Object[] children = nodes.peek();
+                    int position = positions.pop();
+                    if (position == children.length) {
+                        nodes.pop();
+                        continue;
+                    }
+                    positions.push(position + 1);
+                    Object child = children[position];
+                    if (child instanceof Leaf leaf) {
+                        next = leaf;
+                        return;
+                    }
+                    nodes.push(((Node) child).children);
+                    positions.push(0);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (next == null) throw new NoSuchElementException();
+                V value = (V) next.value;
+                advance();
+                return value;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getAt(int index) {
+        if (index < 0 || index >= root.size) throw new IndexOutOfBoundsException(index);
+        Node node = root;
+        while (true) {
+            for (Object child : node.children) {
+                int childSize = child instanceof Node inner ? inner.size : 1;
+                if (index < childSize) {
+                    if (child instanceof Leaf leaf) return (V) leaf.value;
+                    node = (Node) child;
+                    break;
+                }
+                index -= childSize;
+            }
+        }
+    }
+
+    private static Node put(Node node, Leaf leaf, int shift) {
+        int bit = bitFor(leaf.hash, shift);
+        int position = node.position(bit);
+
+        if ((node.bitmap & bit) == 0) {
+            Object[] children = new Object[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, position);
+            children[position] = leaf;
+            System.arraycopy(node.children, position, children, position + 1, node.children.length - position);
+            return new Node(node.bitmap | bit, children, node.size + 1);
+        }
+
+        Object child = node.children[position];
+        Object replacement;
+        int delta;
+        if (child instanceof Leaf existing) {
+            if (existing.key == leaf.key) {
+                if (existing.value == leaf.value) return node;
+                replacement = leaf;
+                delta = 0;
+            } else {
+                replacement = merge(existing, leaf, shift + BITS);
+                delta = 1;
+            }
+        } else {
+            Node inner = (Node) child;
+            Node updated = put(inner, leaf, shift + BITS);
+            if (updated == inner) return node;
+            replacement = updated;
+            delta = updated.size - inner.size;
+        }
+
+        Object[] children = node.children.clone();
+        children[position] = replacement;
+        return new Node(node.bitmap, children, node.size + delta);
+    }
+
+    private static Node merge(Leaf first, Leaf second, int shift) {
+        int firstBit = bitFor(first.hash, shift);
+        int secondBit = bitFor(second.hash, shift);
+        if (firstBit == secondBit) {
+            return new Node(firstBit, new Object[]{merge(first, second, shift + BITS)}, 2);
+        }
+        Object[] children = Integer.compareUnsigned(firstBit, secondBit) < 0
+                ? new Object[]{first, second}
+                : new Object[]{second, first};
+        return new Node(firstBit | secondBit, children, 2);
+    }
+
+    /**
+     * Returns the same node if unchanged, null if emptied, or a lone Leaf to be inlined by the parent
+     */
+    private static Object remove(Node node, long key, long hash, int shift) {
+        int bit = bitFor(hash, shift);
+        if ((node.bitmap & bit) == 0) return node;
+        int position = node.position(bit);
+        Object child = node.children[position];
+
+        Object replacement;
+        if (child instanceof Leaf leaf) {
+            if (leaf.key != key) return node;
+            replacement = null;
+        } else {
+            replacement = remove((Node) child, key, hash, shift + BITS);
+            if (replacement == child) return node;
+        }
+
+        if (replacement == null) {
+            if (node.children.length == 1) return null;
+            Object[] children = new Object[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, position);
+            System.arraycopy(node.children, position + 1, children, position, children.length - position);
+            if (children.length == 1 && children[0] instanceof Leaf only && shift > 0) return only;
+            return new Node(node.bitmap & ~bit, children, node.size - 1);
+        }
+
+        Object[] children = node.children.clone();
+        children[position] = replacement;
+        if (children.length == 1 && replacement instanceof Leaf only && shift > 0) return only;
+        return new Node(node.bitmap, children, node.size - 1);
+    }
+
+    private static int bitFor(long hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Bijective 64-bit mix (same finalizer as LongObjectMap)
+     */
+    private static long hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,34 +1,246 @@
 package com.healthcare.java.patient;
 
 import java.sql.*;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.sql.Date;
 import java.sql.Timestamp;
 
 /**
  * SQLite Patient Repository - persistent storage
  * Requires SQLite JDBC driver in pom.xml
+ *
+ * Connections come from a bounded ConnectionPool instead of a DriverManager open per call;
+ * use builder() to size it (poolSize 0 restores the unpooled behaviour).
+ *
+ * In WAL mode reads go to a pool of query-only connections and every write goes through
+ * one dedicated writer connection, so readers never wait on the writer and writers never
+ * race each other for the database lock (no SQLITE_BUSY between our own connections).
+ *
+ * Name search runs against an FTS5 trigram index (patients_fts) that triggers keep in step
+ * with the patients table; databases created before it existed are migrated on open.
+ *
+ * With groupCommit enabled, single-patient writes (save, insertIfEmailAbsent, updateIfPresent,
+ * delete) from concurrent threads are queued and committed together by one writer thread
+ * (see GroupCommitWriter), one fsync per batch. The bulk writes (saveAll, deleteAll,
+ * insertAllIfEmailAbsent) and clear bypass the queue: they already commit once per batchSize
+ * rows, and take the writer connection directly.
+ *
+ * The stream* queries read through a forward-only cursor (see fetchSize), so a scan of a
+ * large table never holds more than one fetch of rows on the heap.
+ *
+ * Usage:
+ *   SQLitePatientRepository repo = SQLitePatientRepository.builder("data/patients.db")
+ *           .poolSize(8).idleTimeout(Duration.ofMinutes(5)).build();
+ *   SQLitePatientRepository tuned = SQLitePatientRepository.builder("data/patients.db")
+ *           .tuned().poolSize(8).build();
  */
-public class SQLitePatientRepository implements PatientRepository {
+public class SQLitePatientRepository implements PatientRepository, AutoCloseable {
+    private static final List<String> NAME_SEARCH_SCHEMA = List.of(
+            "CREATE VIRTUAL TABLE patients_fts USING fts5(name, content='patients', content_rowid='id', tokenize='trigram')",
+            """
+            CREATE TRIGGER IF NOT EXISTS patients_fts_insert AFTER INSERT ON patients BEGIN
+                INSERT INTO patients_fts (rowid, name) VALUES (new.id, new.name);
+            END""",
+            """
+            CREATE TRIGGER IF NOT EXISTS patients_fts_delete AFTER DELETE ON patients BEGIN
+                INSERT INTO patients_fts (patients_fts, rowid, name) VALUES ('delete', old.id, old.name);
+            END""",
+            """
+            CREATE TRIGGER IF NOT EXISTS patients_fts_update AFTER UPDATE OF name ON patients BEGIN
+                INSERT INTO patients_fts (patients_fts, rowid, name) VALUES ('delete', old.id, old.name);
+                INSERT INTO patients_fts (rowid, name) VALUES (new.id, new.name);
+            END""",
+            "INSERT INTO patients_fts (patients_fts) VALUES ('rebuild')");
+    // Column lists in the order mapPatient and mapSummary read them (by index, not by name)
+    private static final String PATIENT_COLUMNS = "id, name, email, phone, birth_date, created_at, updated_at";
+    private static final String SUMMARY_COLUMNS = "id, name, email, phone, birth_date";
+    private static final String NAME_MATCH_FILTER =
+            " FROM patients WHERE id IN (SELECT rowid FROM patients_fts WHERE patients_fts MATCH ?)";
+    private static final String NAME_LIKE_FILTER = " FROM patients WHERE LOWER(name) LIKE ?";
+    private static final String UPSERT_SQL = """
+            INSERT INTO patients (id, name, email, phone, birth_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET name = excluded.name, email = excluded.email, phone = excluded.phone,
+                birth_date = excluded.birth_date, updated_at = excluded.updated_at""";
+    private static final String INSERT_IF_EMAIL_ABSENT_SQL = """
+            INSERT INTO patients (name, email, phone, birth_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(email) DO NOTHING RETURNING id""";
+    private static final String UPDATE_IF_PRESENT_SQL = """
+            UPDATE patients SET name = ?, email = ?, phone = ?, birth_date = ?, updated_at = ? WHERE id = ?
+            RETURNING created_at""";
+    // Bulk inserts bind this many rows per statement (6 parameters each, well under SQLite's limit)
+    private static final int INSERT_ROWS_PER_STATEMENT = 250;
+    private static final String NEXT_ID_SQL = """
+            SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'patients'), 0),
+                       COALESCE((SELECT MAX(id) FROM patients), 0)) + 1""";
+    private static final String DEFAULT_DB_PATH = "data/patient_records.db";
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
     private final String dbUrl;
-    private final String dbPath = "data/patient_records.db";
+    private final int batchSize;
+    private final int fetchSize;
+    private final List<String> pragmas;
+    private final ConnectionPool readers;
+    private final ConnectionPool writer;
+    private final GroupCommitWriter groupCommit;
+    private final int maxConnections;
 
     public SQLitePatientRepository() {
-        this.dbUrl = "jdbc:sqlite:" + dbPath;
-        initDatabase();
+        this(builder(DEFAULT_DB_PATH));
     }
 
     public SQLitePatientRepository(String customPath) {
-        this.dbUrl = "jdbc:sqlite:" + customPath;
-        initDatabase();
+        this(builder(customPath));
+    }
+
+    private SQLitePatientRepository(Builder builder) {
+        this.dbUrl = "jdbc:sqlite:" + builder.path;
+        this.batchSize = builder.batchSize;
+        this.fetchSize = builder.fetchSize;
+        this.pragmas = builder.pragmas();
+        if (builder.poolSize == 0) {
+            this.readers = null;
+            this.writer = null;
+        } else if (builder.walMode) {
+            List<String> readOnly = new ArrayList<>(pragmas);
+            readOnly.add("PRAGMA query_only = ON");
+            this.writer = new ConnectionPool(() -> openConnection(pragmas), 1,
+                    builder.acquireTimeout, builder.validateAfter, builder.idleTimeout, builder.statementCacheSize);
+            this.readers = new ConnectionPool(() -> openConnection(readOnly), builder.poolSize,
+                    builder.acquireTimeout, builder.validateAfter, builder.idleTimeout, builder.statementCacheSize);
+        } else {
+            this.readers = new ConnectionPool(() -> openConnection(pragmas), builder.poolSize,
+                    builder.acquireTimeout, builder.validateAfter, builder.idleTimeout, builder.statementCacheSize);
+            this.writer = readers;
+        }
+        this.maxConnections = builder.poolSize == 0 ? 0 : builder.poolSize + (writer != readers ? 1 : 0);
+        initDatabase(builder.walMode);
+        this.groupCommit = builder.groupCommitWindow == null ? null
+                : new GroupCommitWriter(this::writeConnection, builder.groupCommitWindow, builder.groupCommitMaxBatch);
+    }
+
+    public static Builder builder(String path) {
+        return new Builder(path);
+    }
+
+    public static class Builder {
+        private final String path;
+        private int poolSize = 4;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+        private Duration validateAfter = Duration.ofSeconds(5);
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private int statementCacheSize = 64;
+        private int batchSize = 1_000;
+        private int fetchSize = 256;
+        private boolean walMode;
+        private Duration groupCommitWindow;
+        private int groupCommitMaxBatch = 256;
+        private String synchronous;
+        private Long mmapSize;
+        private Integer cacheSize;
+        private String tempStore;
+        private Duration busyTimeout;
+
+        private Builder(String path) {
+            this.path = path;
+        }
+
+        /** Maximum open connections (0 = open a new connection per call); the reader pool in WAL mode */
+        public Builder poolSize(int size) { this.poolSize = size; return this; }
+        /** How long a caller waits for a free connection before failing */
+        public Builder acquireTimeout(Duration timeout) { this.acquireTimeout = timeout; return this; }
+        /** Validate connections that sat idle longer than this before handing them out */
+        public Builder validateAfter(Duration idle) { this.validateAfter = idle; return this; }
+        /** Close connections idle longer than this (zero keeps them forever) */
+        public Builder idleTimeout(Duration timeout) { this.idleTimeout = timeout; return this; }
+        /** Prepared statements cached per pooled connection (0 disables the cache) */
+        public Builder statementCacheSize(int size) { this.statementCacheSize = size; return this; }
+        /** Rows per transaction in saveAll/deleteAll */
+        public Builder batchSize(int rows) { this.batchSize = rows; return this; }
+        /** Rows fetched per round trip by the streaming cursors */
+        public Builder fetchSize(int rows) { this.fetchSize = rows; return this; }
+        /**
+         * Queue single-patient writes and commit up to maxBatch of them per transaction, waiting
+         * at most window for a batch to fill; concurrent writers then share one fsync per commit.
+         * Bulk writes and clear are not queued.
+         */
+        public Builder groupCommit(Duration window, int maxBatch) {
+            this.groupCommitWindow = window;
+            this.groupCommitMaxBatch = maxBatch;
+            return this;
+        }
+        /** journal_mode=WAL with query-only reader connections and a single writer connection */
+        public Builder walMode(boolean enabled) { this.walMode = enabled; return this; }
+        /** PRAGMA synchronous: OFF, NORMAL, FULL or EXTRA */
+        public Builder synchronous(String mode) { this.synchronous = mode; return this; }
+        /** PRAGMA mmap_size in bytes */
+        public Builder mmapSize(long bytes) { this.mmapSize = bytes; return this; }
+        /** PRAGMA cache_size: pages if positive, KiB if negative */
+        public Builder cacheSize(int size) { this.cacheSize = size; return this; }
+        /** PRAGMA temp_store: DEFAULT, FILE or MEMORY */
+        public Builder tempStore(String store) { this.tempStore = store; return this; }
+        /** PRAGMA busy_timeout: how long SQLite retries a locked database before SQLITE_BUSY */
+        public Builder busyTimeout(Duration timeout) { this.busyTimeout = timeout; return this; }
+
+        /**
+         * WAL mode with synchronous=NORMAL, 256 MB mmap, 64 MB page cache, in-memory temp
+         * tables and a 5 second busy timeout; individual settings can still be overridden
+         */
+        public Builder tuned() {
+            return walMode(true).synchronous("NORMAL").mmapSize(256L << 20).cacheSize(-64 * 1024)
+                    .tempStore("MEMORY").busyTimeout(Duration.ofSeconds(5));
+        }
+
+        public SQLitePatientRepository build() {
+            if (poolSize < 0) throw new IllegalArgumentException("Pool size cannot be negative");
+            if (statementCacheSize < 0) throw new IllegalArgumentException("Statement cache size cannot be negative");
+            if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+            if (fetchSize < 1) throw new IllegalArgumentException("Fetch size must be positive");
+            if (groupCommitWindow != null && (groupCommitWindow.isNegative() || groupCommitMaxBatch < 1)) {
+                throw new IllegalArgumentException("Group commit needs a non-negative window and a positive batch size");
+            }
+            if (walMode && poolSize == 0) throw new IllegalArgumentException("WAL mode requires a connection pool");
+            if (acquireTimeout.isNegative() || validateAfter.isNegative() || idleTimeout.isNegative()) {
+                throw new IllegalArgumentException("Pool timeouts cannot be negative");
+            }
+            if (synchronous != null && !SYNCHRONOUS_MODES.contains(synchronous.toUpperCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Invalid synchronous mode: " + synchronous);
+            }
+            if (tempStore != null && !TEMP_STORES.contains(tempStore.toUpperCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Invalid temp_store: " + tempStore);
+            }
+            if (mmapSize != null && mmapSize < 0) throw new IllegalArgumentException("mmap_size cannot be negative");
+            if (busyTimeout != null && busyTimeout.isNegative()) {
+                throw new IllegalArgumentException("Busy timeout cannot be negative");
+            }
+            return new SQLitePatientRepository(this);
+        }
+
+        /**
+         * Per-connection pragmas; journal_mode is persistent and set once in initDatabase
+         */
+        private List<String> pragmas() {
+            List<String> pragmas = new ArrayList<>();
+            if (busyTimeout != null) pragmas.add("PRAGMA busy_timeout = " + busyTimeout.toMillis());
+            if (synchronous != null) pragmas.add("PRAGMA synchronous = " + synchronous.toUpperCase(Locale.ROOT));
+            if (mmapSize != null) pragmas.add("PRAGMA mmap_size = " + mmapSize);
+            if (cacheSize != null) pragmas.add("PRAGMA cache_size = " + cacheSize);
+            if (tempStore != null) pragmas.add("PRAGMA temp_store = " + tempStore.toUpperCase(Locale.ROOT));
+            return List.copyOf(pragmas);
+        }
     }
 
     /**
      * Initialize database schema
      */
-    private void initDatabase() {
+    private void initDatabase(boolean walMode) {
         String createTableSQL = """
                 CREATE TABLE IF NOT EXISTS patients (
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -41,41 +253,281 @@ public class SQLitePatientRepository implements PatientRepository {
                 );
                 CREATE INDEX IF NOT EXISTS idx_email ON patients(email);
                 CREATE INDEX IF NOT EXISTS idx_name ON patients(name);
+                CREATE INDEX IF NOT EXISTS idx_birth_date ON patients(birth_date);
+                CREATE INDEX IF NOT EXISTS idx_created_at ON patients(created_at);
                 """;
 
-        try (Connection conn = getConnection();
+        try (Connection conn = writeConnection();
              Statement stmt = conn.createStatement()) {
+            if (walMode) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+            }
             for (String sql : createTableSQL.split(";")) {
                 if (!sql.trim().isEmpty()) {
                     stmt.execute(sql.trim());
                 }
             }
+            migrateNameSearch(stmt);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to initialize database", e);
         }
     }
 
     /**
-     * Get database connection
+     * Create the FTS5 name index and its sync triggers on first open, indexing existing rows
+     * in the same transaction
      */
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(dbUrl);
+    private static void migrateNameSearch(Statement stmt) throws SQLException {
+        stmt.execute("BEGIN IMMEDIATE");
+        try {
+            boolean exists;
+            try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE name = 'patients_fts'")) {
+                exists = rs.next();
+            }
+            if (!exists) {
+                for (String sql : NAME_SEARCH_SCHEMA) {
+                    stmt.execute(sql);
+                }
+            }
+            stmt.execute("COMMIT");
+        } catch (SQLException e) {
+            stmt.execute("ROLLBACK");
+            throw e;
+        }
+    }
+
+    /**
+     * Connection for queries; closing it returns it to the pool
+     */
+    private Connection readConnection() throws SQLException {
+        return readers != null ? readers.borrow() : openConnection(pragmas);
+    }
+
+    /**
+     * Connection for inserts, updates and deletes; the single writer in WAL mode
+     */
+    private Connection writeConnection() throws SQLException {
+        return writer != null ? writer.borrow() : openConnection(pragmas);
+    }
+
+    private Connection openConnection(List<String> pragmas) throws SQLException {
+        Connection conn = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Connections that can be open at once, the writer included (0 when unpooled: no limit)
+     */
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Prepared-statement cache counters across all pooled connections
+     */
+    public CacheStats statementCacheStats() {
+        if (readers == null) return new CacheStats(0, 0, 0);
+        CacheStats stats = readers.statementCacheStats();
+        return writer == readers ? stats : stats.plus(writer.statementCacheStats());
+    }
+
+    /**
+     * Group-commit counters: transactions committed and writes they carried (0, 0 when disabled)
+     */
+    public long groupCommits() {
+        return groupCommit == null ? 0 : groupCommit.commits();
+    }
+
+    public long groupCommitWrites() {
+        return groupCommit == null ? 0 : groupCommit.writes();
+    }
+
+    /**
+     * Commit any queued writes, then close pooled connections
+     */
+    @Override
+    public void close() {
+        if (groupCommit != null) groupCommit.close();
+        if (readers != null) readers.close();
+        if (writer != null && writer != readers) writer.close();
     }
 
     @Override
     public Patient save(Patient patient) {
-        if (patient.getId() == null) {
-            return insert(patient);
-        } else {
-            return update(patient);
+        String failure = patient.getId() == null ? "Failed to insert patient" : "Failed to update patient";
+        patient.setId(write(conn -> {
+            try {
+                return saveRow(conn, patient);
+            } catch (SQLException e) {
+                if (isDuplicateEmail(e)) throw new DuplicateEmailException(patient.getEmail());
+                throw e;
+            }
+        }, failure));
+        return patient;
+    }
+
+    /**
+     * One statement: the UNIQUE index on email arbitrates, and RETURNING yields no row when
+     * the insert was skipped
+     */
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        Long id = write(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_IF_EMAIL_ABSENT_SQL)) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                pstmt.setString(1, patient.getName());
+                pstmt.setString(2, patient.getEmail());
+                pstmt.setString(3, patient.getPhone());
+                pstmt.setDate(4, Date.valueOf(patient.getBirthDate()));
+                pstmt.setTimestamp(5, now);
+                pstmt.setTimestamp(6, now);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            }
+        }, "Failed to insert patient");
+        if (id == null) return Optional.empty();
+        patient.setId(id);
+        return Optional.of(patient);
+    }
+
+    /**
+     * One statement: RETURNING yields the stored createdAt, or no row when the ID is absent
+     */
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        if (patient.getId() == null) return Optional.empty();
+        LocalDateTime createdAt = write(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_IF_PRESENT_SQL)) {
+                pstmt.setString(1, patient.getName());
+                pstmt.setString(2, patient.getEmail());
+                pstmt.setString(3, patient.getPhone());
+                pstmt.setDate(4, Date.valueOf(patient.getBirthDate()));
+                pstmt.setTimestamp(5, Timestamp.valueOf(patient.getUpdatedAt()));
+                pstmt.setLong(6, patient.getId());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getTimestamp(1).toLocalDateTime() : null;
+                }
+            } catch (SQLException e) {
+                if (isDuplicateEmail(e)) throw new DuplicateEmailException(patient.getEmail());
+                throw e;
+            }
+        }, "Failed to update patient");
+        if (createdAt == null) return Optional.empty();
+        patient.setCreatedAt(createdAt);
+        return Optional.of(patient);
+    }
+
+    /**
+     * Inserts in chunks of batchSize rows, each chunk in its own transaction. As with
+     * saveAll, a failing chunk is rolled back and rethrown and earlier chunks stay committed.
+     * Not queued for group commit.
+     */
+    @Override
+    public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        List<Patient> batch = new ArrayList<>(patients);
+        boolean[] inserted = new boolean[batch.size()];
+
+        try (Connection conn = writeConnection()) {
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, batch.size());
+                execute(conn, "BEGIN IMMEDIATE");
+                try {
+                    insertChunk(conn, batch, from, to, inserted);
+                    execute(conn, "COMMIT");
+                } catch (SQLException | RuntimeException e) {
+                    execute(conn, "ROLLBACK");
+                    for (int i = from; i < to; i++) {
+                        if (inserted[i]) batch.get(i).setId(null);
+                        inserted[i] = false;
+                    }
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert patients", e);
+        }
+
+        List<Patient> saved = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i]) saved.add(batch.get(i));
+        }
+        return saved;
+    }
+
+    /**
+     * Insert batch[from, to) with multi-row INSERT ... ON CONFLICT(email) DO NOTHING statements,
+     * which cost far less per row than one statement each
+     */
+    private static void insertChunk(Connection conn, List<Patient> batch, int from, int to, boolean[] inserted)
+            throws SQLException {
+        Map<String, Integer> firstByEmail = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            firstByEmail.putIfAbsent(batch.get(i).getEmail(), i);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int start = from; start < to; start += INSERT_ROWS_PER_STATEMENT) {
+            int end = Math.min(start + INSERT_ROWS_PER_STATEMENT, to);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertRowsSql(end - start))) {
+                int column = 1;
+                for (int i = start; i < end; i++) {
+                    Patient patient = batch.get(i);
+                    pstmt.setString(column++, patient.getName());
+                    pstmt.setString(column++, patient.getEmail());
+                    pstmt.setString(column++, patient.getPhone());
+                    pstmt.setDate(column++, Date.valueOf(patient.getBirthDate()));
+                    pstmt.setTimestamp(column++, now);
+                    pstmt.setTimestamp(column++, now);
+                }
+                // RETURNING order is unspecified, so rows are matched back by email; within one
+                // statement only the first of equal emails can have been inserted
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int index = firstByEmail.get(rs.getString(2));
+                        batch.get(index).setId(rs.getLong(1));
+                        inserted[index] = true;
+                    }
+                }
+            }
         }
     }
 
-    private Patient insert(Patient patient) {
-        String sql = "INSERT INTO patients (name, email, phone, birth_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static String insertRowsSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO patients (name, email, phone, birth_date, created_at, updated_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        return sql.append(" ON CONFLICT(email) DO NOTHING RETURNING id, email").toString();
+    }
+
+    private static boolean isDuplicateEmail(SQLException e) {
+        return e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed: patients.email");
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Update the row, or insert it if the patient is new or its explicit ID is not stored yet;
+     * returns the patient's ID
+     */
+    private long saveRow(Connection conn, Patient patient) throws SQLException {
+        if (patient.getId() != null && updateRow(conn, patient)) {
+            return patient.getId();
+        }
+        return insertRow(conn, patient);
+    }
+
+    private long insertRow(Connection conn, Patient patient) throws SQLException {
+        // RETURNING instead of getGeneratedKeys, which sqlite-jdbc no longer implements
+        String sql = "INSERT INTO patients (name, email, phone, birth_date, created_at, updated_at, id) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, patient.getName());
             pstmt.setString(2, patient.getEmail());
@@ -83,25 +535,20 @@ public class SQLitePatientRepository implements PatientRepository {
             pstmt.setDate(4, java.sql.Date.valueOf(patient.getBirthDate()));
             pstmt.setTimestamp(5, java.sql.Timestamp.valueOf(LocalDateTime.now()));
             pstmt.setTimestamp(6, java.sql.Timestamp.valueOf(LocalDateTime.now()));
+            // NULL lets SQLite assign the next ID; an explicit ID comes from a restore or a shard allocator
+            pstmt.setObject(7, patient.getId());
 
-            pstmt.executeUpdate();
-
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    patient.setId(generatedKeys.getLong(1));
-                }
+            try (ResultSet generatedKeys = pstmt.executeQuery()) {
+                if (!generatedKeys.next()) throw new SQLException("Insert returned no ID");
+                return generatedKeys.getLong(1);
             }
-            return patient;
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert patient", e);
         }
     }
 
-    private Patient update(Patient patient) {
+    private boolean updateRow(Connection conn, Patient patient) throws SQLException {
         String sql = "UPDATE patients SET name = ?, email = ?, phone = ?, birth_date = ?, updated_at = ? WHERE id = ?";
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, patient.getName());
             pstmt.setString(2, patient.getEmail());
@@ -109,26 +556,119 @@ public class SQLitePatientRepository implements PatientRepository {
             pstmt.setDate(4, java.sql.Date.valueOf(patient.getBirthDate()));
             pstmt.setTimestamp(5, java.sql.Timestamp.valueOf(LocalDateTime.now()));
             pstmt.setLong(6, patient.getId());
+            return pstmt.executeUpdate() > 0;
+        }
+    }
 
-            pstmt.executeUpdate();
-            return patient;
+    /**
+     * Run one write: queued for the next group commit when enabled, otherwise auto-committed
+     * on the writer connection
+     */
+    private <T> T write(GroupCommitWriter.Write<T> write, String failure) {
+        if (groupCommit == null) {
+            try (Connection conn = writeConnection()) {
+                return write.apply(conn);
+            } catch (SQLException e) {
+                throw new RuntimeException(failure, e);
+            }
+        }
+        try {
+            return groupCommit.submit(write).join();
+        } catch (CompletionException e) {
+            // Runtime errors raised by the write itself (say, DuplicateEmailException) pass through as on the direct path
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(failure, e.getCause());
+        }
+    }
+
+    /**
+     * Upserts in chunks of batchSize rows, each chunk one prepared statement inside its own
+     * transaction. New patients get IDs assigned inside the transaction, above both MAX(id)
+     * and the AUTOINCREMENT sequence. A failing chunk is rolled back and rethrown (a taken
+     * email as DuplicateEmailException, as in save); earlier chunks stay committed.
+     * Not queued for group commit.
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> saved = new ArrayList<>(patients);
+
+        try (Connection conn = writeConnection()) {
+            for (int from = 0; from < saved.size(); from += batchSize) {
+                List<Patient> chunk = saved.subList(from, Math.min(from + batchSize, saved.size()));
+                List<Patient> assigned = new ArrayList<>();
+                execute(conn, "BEGIN IMMEDIATE");
+                try {
+                    long nextId = nextId(conn, chunk);
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+                        for (Patient patient : chunk) {
+                            if (patient.getId() == null) {
+                                patient.setId(nextId++);
+                                assigned.add(patient);
+                            }
+                            pstmt.setLong(1, patient.getId());
+                            pstmt.setString(2, patient.getName());
+                            pstmt.setString(3, patient.getEmail());
+                            pstmt.setString(4, patient.getPhone());
+                            pstmt.setDate(5, java.sql.Date.valueOf(patient.getBirthDate()));
+                            pstmt.setTimestamp(6, now);
+                            pstmt.setTimestamp(7, now);
+                            // Row by row rather than executeBatch (which sqlite-jdbc also steps row
+                            // by row), so a unique-email failure names the patient that caused it
+                            try {
+                                pstmt.executeUpdate();
+                            } catch (SQLException e) {
+                                if (isDuplicateEmail(e)) throw new DuplicateEmailException(patient.getEmail());
+                                throw e;
+                            }
+                        }
+                    }
+                    execute(conn, "COMMIT");
+                } catch (SQLException | RuntimeException e) {
+                    execute(conn, "ROLLBACK");
+                    assigned.forEach(patient -> patient.setId(null));
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to update patient", e);
+            throw new RuntimeException("Failed to save patients", e);
+        }
+        return saved;
+    }
+
+    /**
+     * First free ID for this chunk, also clearing any explicit IDs the chunk itself uses
+     */
+    private static long nextId(Connection conn, List<Patient> chunk) throws SQLException {
+        long next;
+        try (PreparedStatement pstmt = conn.prepareStatement(NEXT_ID_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            next = rs.next() ? rs.getLong(1) : 1;
+        }
+        for (Patient patient : chunk) {
+            if (patient.getId() != null) next = Math.max(next, patient.getId() + 1);
+        }
+        return next;
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
         }
     }
 
     @Override
     public Optional<Patient> findById(Long id) {
-        String sql = "SELECT * FROM patients WHERE id = ?";
+        String sql = "SELECT " + PATIENT_COLUMNS + " FROM patients WHERE id = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = readConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setLong(1, id);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(mapResultSetToPatient(rs));
+                return Optional.of(mapPatient(rs));
             }
             return Optional.empty();
         } catch (SQLException e) {
@@ -138,34 +678,82 @@ public class SQLitePatientRepository implements PatientRepository {
 
     @Override
     public List<Patient> findAll() {
-        String sql = "SELECT * FROM patients ORDER BY created_at DESC";
-        List<Patient> patients = new ArrayList<>();
+        return query("SELECT " + PATIENT_COLUMNS + " FROM patients ORDER BY created_at DESC",
+                pstmt -> { }, SQLitePatientRepository::mapPatient, "Failed to fetch all patients");
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
+    @Override
+    public List<PatientSummary> findAllSummaries() {
+        return query("SELECT " + SUMMARY_COLUMNS + " FROM patients ORDER BY created_at DESC",
+                pstmt -> { }, SQLitePatientRepository::mapSummary, "Failed to fetch all patients");
+    }
 
-            while (rs.next()) {
-                patients.add(mapResultSetToPatient(rs));
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to fetch all patients", e);
-        }
+    /**
+     * Seeks the INTEGER PRIMARY KEY (rowid) b-tree, so a deep page costs the same as the first
+     */
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        return query("SELECT " + PATIENT_COLUMNS + " FROM patients WHERE id > ? ORDER BY id LIMIT ?",
+                pstmt -> bindPage(pstmt, afterId, limit), SQLitePatientRepository::mapPatient,
+                "Failed to fetch patient page");
+    }
+
+    @Override
+    public List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+        return query("SELECT " + SUMMARY_COLUMNS + " FROM patients WHERE id > ? ORDER BY id LIMIT ?",
+                pstmt -> bindPage(pstmt, afterId, limit), SQLitePatientRepository::mapSummary,
+                "Failed to fetch patient page");
+    }
 
-        return patients;
+    private static void bindPage(PreparedStatement pstmt, Long afterId, int limit) throws SQLException {
+        pstmt.setLong(1, afterId == null ? 0 : afterId);
+        pstmt.setInt(2, limit);
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return stream("SELECT " + PATIENT_COLUMNS + " FROM patients ORDER BY created_at DESC", pstmt -> { },
+                "Failed to fetch all patients");
     }
 
     @Override
     public void delete(Long id) {
         String sql = "DELETE FROM patients WHERE id = ?";
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        write(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, id);
+                return pstmt.executeUpdate();
+            }
+        }, "Failed to delete patient");
+    }
 
-            pstmt.setLong(1, id);
-            pstmt.executeUpdate();
+    /**
+     * Deletes in chunks of batchSize IDs, one transaction each; not queued for group commit
+     */
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        List<Long> remaining = new ArrayList<>(ids);
+        String sql = "DELETE FROM patients WHERE id = ?";
+
+        try (Connection conn = writeConnection()) {
+            for (int from = 0; from < remaining.size(); from += batchSize) {
+                List<Long> chunk = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+                execute(conn, "BEGIN IMMEDIATE");
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (Long id : chunk) {
+                        pstmt.setLong(1, id);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    execute(conn, "COMMIT");
+                } catch (SQLException | RuntimeException e) {
+                    execute(conn, "ROLLBACK");
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to delete patient", e);
+            throw new RuntimeException("Failed to delete patients", e);
         }
     }
 
@@ -173,7 +761,7 @@ public class SQLitePatientRepository implements PatientRepository {
     public boolean existsByEmail(String email) {
         String sql = "SELECT 1 FROM patients WHERE email = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = readConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, email);
@@ -183,32 +771,83 @@ public class SQLitePatientRepository implements PatientRepository {
         }
     }
 
+    /**
+     * Name search: an FTS5 trigram phrase match, falling back to a LIKE scan for queries
+     * shorter than a trigram
+     */
     @Override
     public List<Patient> findByNameContaining(String name) {
-        String sql = "SELECT * FROM patients WHERE LOWER(name) LIKE ? ORDER BY name";
-        List<Patient> patients = new ArrayList<>();
+        return findByName(PATIENT_COLUMNS, name, SQLitePatientRepository::mapPatient);
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    @Override
+    public List<PatientSummary> findSummariesByNameContaining(String name) {
+        return findByName(SUMMARY_COLUMNS, name, SQLitePatientRepository::mapSummary);
+    }
 
-            pstmt.setString(1, "%" + name.toLowerCase() + "%");
-            ResultSet rs = pstmt.executeQuery();
+    private <T> List<T> findByName(String columns, String name, RowMapper<T> mapper) {
+        boolean indexed = TrigramIndex.supports(name);
+        return query("SELECT " + columns + (indexed ? NAME_MATCH_FILTER : NAME_LIKE_FILTER) + " ORDER BY name",
+                pstmt -> bindName(pstmt, name, indexed), mapper, "Failed to find patients by name");
+    }
 
-            while (rs.next()) {
-                patients.add(mapResultSetToPatient(rs));
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to find patients by name", e);
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        boolean indexed = TrigramIndex.supports(name);
+        return stream("SELECT " + PATIENT_COLUMNS + (indexed ? NAME_MATCH_FILTER : NAME_LIKE_FILTER + " ORDER BY name"),
+                pstmt -> bindName(pstmt, name, indexed), "Failed to find patients by name");
+    }
+
+    private static void bindName(PreparedStatement pstmt, String name, boolean indexed) throws SQLException {
+        pstmt.setString(1, indexed ? phrase(name) : "%" + name.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    /**
+     * Quote the query as one FTS5 phrase: with the trigram tokenizer that is a
+     * case-insensitive substring match, and the query's own syntax is not interpreted
+     */
+    private static String phrase(String name) {
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return query(birthDateQuery(from, to), pstmt -> bindBirthDates(pstmt, from, to),
+                SQLitePatientRepository::mapPatient, "Failed to find patients by birth date");
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return stream(birthDateQuery(from, to), pstmt -> bindBirthDates(pstmt, from, to),
+                "Failed to find patients by birth date");
+    }
+
+    /**
+     * Range over idx_birth_date; ties are broken by ID so shards can merge their results
+     */
+    private static String birthDateQuery(LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder("SELECT " + PATIENT_COLUMNS + " FROM patients");
+        if (from != null && to != null) {
+            sql.append(" WHERE birth_date BETWEEN ? AND ?");
+        } else if (from != null) {
+            sql.append(" WHERE birth_date >= ?");
+        } else if (to != null) {
+            sql.append(" WHERE birth_date <= ?");
         }
+        return sql.append(" ORDER BY birth_date, id").toString();
+    }
 
-        return patients;
+    private static void bindBirthDates(PreparedStatement pstmt, LocalDate from, LocalDate to) throws SQLException {
+        int index = 1;
+        if (from != null) pstmt.setDate(index++, java.sql.Date.valueOf(from));
+        if (to != null) pstmt.setDate(index, java.sql.Date.valueOf(to));
     }
 
     @Override
     public long count() {
         String sql = "SELECT COUNT(*) as total FROM patients";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = readConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
 
@@ -222,11 +861,14 @@ public class SQLitePatientRepository implements PatientRepository {
         return 0;
     }
 
+    /**
+     * One DELETE on the writer connection; not queued for group commit
+     */
     @Override
     public void clear() {
         String sql = "DELETE FROM patients";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = writeConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.executeUpdate();
@@ -235,18 +877,127 @@ public class SQLitePatientRepository implements PatientRepository {
         }
     }
 
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Run a read query and map every row
+     */
+    private <T> List<T> query(String sql, Binder binder, RowMapper<T> mapper, String failure) {
+        List<T> rows = new ArrayList<>();
+
+        try (Connection conn = readConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            binder.bind(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(failure, e);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Forward-only cursor over a query, fetchSize rows per round trip. The connection stays
+     * borrowed until the stream is closed or exhausted; without WAL mode an open cursor
+     * also holds SQLite's shared lock, so writers wait until it is closed.
+     */
+    private Stream<Patient> stream(String sql, Binder binder, String failure) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = readConnection();
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            binder.bind(pstmt);
+            Cursor cursor = new Cursor(conn, pstmt, pstmt.executeQuery(), failure);
+            return StreamSupport.stream(cursor, false).onClose(cursor::close);
+        } catch (SQLException e) {
+            closeQuietly(pstmt);
+            closeQuietly(conn);
+            throw new RuntimeException(failure, e);
+        }
+    }
+
+    private final class Cursor extends Spliterators.AbstractSpliterator<Patient> {
+        private final Connection conn;
+        private final PreparedStatement pstmt;
+        private final ResultSet rs;
+        private final String failure;
+        private boolean closed;
+
+        Cursor(Connection conn, PreparedStatement pstmt, ResultSet rs, String failure) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.pstmt = pstmt;
+            this.rs = rs;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Patient> action) {
+            if (closed) return false;
+            Patient patient;
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                patient = mapPatient(rs);
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException(failure, e);
+            }
+            action.accept(patient);
+            return true;
+        }
+
+        /**
+         * Release the cursor and return the connection as soon as the last row is read
+         */
+        void close() {
+            if (closed) return;
+            closed = true;
+            closeQuietly(rs);
+            closeQuietly(pstmt);
+            closeQuietly(conn);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) return;
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // Nothing to recover while releasing a cursor
+        }
+    }
+
+    /**
+     * Map a PATIENT_COLUMNS row by index; rows were validated on insert, so no Builder
+     */
+    private static Patient mapPatient(ResultSet rs) throws SQLException {
+        return Patient.fromStorage(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getDate(5).toLocalDate(), rs.getTimestamp(6).toLocalDateTime(), rs.getTimestamp(7).toLocalDateTime());
+    }
+
     /**
-     * Map ResultSet row to Patient object
+     * Map a SUMMARY_COLUMNS row by index
      */
-    private Patient mapResultSetToPatient(ResultSet rs) throws SQLException {
-        return Patient.builder()
-                .id(rs.getLong("id"))
-                .name(rs.getString("name"))
-                .email(rs.getString("email"))
-                .phone(rs.getString("phone"))
-                .birthDate(rs.getDate("birth_date").toLocalDate())
-                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
-                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
-                .build();
+    private static PatientSummary mapSummary(ResultSet rs) throws SQLException {
+        return new PatientSummary(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getDate(5).toLocalDate());
     }
 }
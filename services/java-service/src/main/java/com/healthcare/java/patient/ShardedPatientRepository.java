@@ -0,0 +1,445 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sharded Patient Repository - partitions patients across N repositories by ID hash
+ * Each patient lives in exactly one shard, so writers to different shards never contend
+ * on the same structure or SQLite file lock.
+ *
+ * IDs come from one global allocator and a global EmailIndex routes email -> ID -> shard,
+ * which keeps email uniqueness global and answers existsByEmail without touching any shard.
+ * Scans (findAll, name and birth-date queries, count) fan out to every shard in parallel
+ * on virtual threads and merge the results.
+ *
+ * Every write holds its ID's StripedLocks stripe across the routing claim, the shard write
+ * and any release or undo, so a racing write to the same ID cannot leave the index
+ * pointing at an email the shard does not hold. New IDs are allocated before the stripe
+ * is taken, so they are covered too.
+ *
+ * Usage:
+ *   PatientRepository repo = ShardedPatientRepository.inMemory(8);
+ *   PatientRepository repo = new ShardedPatientRepository(List.of(
+ *           new SQLitePatientRepository("data/shard-0.db"), new SQLitePatientRepository("data/shard-1.db")));
+ */
+public class ShardedPatientRepository implements PatientRepository {
+    private static final int STRIPES = 256;
+
+    private final List<PatientRepository> shards;
+    private final AtomicLong nextId;
+    private final EmailIndex emailIndex = new EmailIndex();
+    private final StripedLocks stripes = new StripedLocks(STRIPES);
+
+    /**
+     * Wrap existing shards; their current rows seed the allocator and the email routing index
+     */
+    public ShardedPatientRepository(List<? extends PatientRepository> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+        this.shards = List.copyOf(shards);
+
+        long maxId = 0;
+        for (PatientRepository shard : this.shards) {
+            for (Patient patient : shard.findAll()) {
+                emailIndex.claim(patient.getEmail(), patient.getId());
+                maxId = Math.max(maxId, patient.getId());
+            }
+        }
+        this.nextId = new AtomicLong(maxId + 1);
+    }
+
+    public static ShardedPatientRepository inMemory(int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("Shard count must be positive");
+        List<PatientRepository> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new InMemoryPatientRepository());
+        }
+        return new ShardedPatientRepository(shards);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // ============ Routed by ID ============
+
+    @Override
+    public Patient save(Patient patient) {
+        long id = idFor(patient);
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            Runnable undo = claim(patient, id);
+            try {
+                return shardFor(id).save(patient);
+            } catch (RuntimeException e) {
+                undo.run();
+                throw e;
+            }
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    /**
+     * Claims every email first (all-or-nothing), then saves each shard's group in parallel.
+     * A shard whose saveAll fails may still have stored part of its group, so its rows are
+     * read back: stored ones keep routing to the email they were stored with, the rest are
+     * undone.
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> saved = new ArrayList<>(patients);
+        List<Long> ids = new ArrayList<>(saved.size());
+        for (Patient patient : saved) {
+            ids.add(idFor(patient));
+        }
+        List<ReentrantLock> held = stripes.lockAll(ids);
+        try {
+            List<Runnable> undos = new ArrayList<>(saved.size());
+            try {
+                for (int i = 0; i < saved.size(); i++) {
+                    undos.add(claim(saved.get(i), ids.get(i)));
+                }
+            } catch (RuntimeException e) {
+                for (int i = undos.size() - 1; i >= 0; i--) {
+                    undos.get(i).run();
+                }
+                throw e;
+            }
+
+            Map<Integer, List<Integer>> groups = new TreeMap<>();
+            for (int i = 0; i < saved.size(); i++) {
+                groups.computeIfAbsent(shardIndex(ids.get(i), shards.size()), k -> new ArrayList<>()).add(i);
+            }
+            runInParallel(groups.entrySet().stream().<Runnable>map(group -> () -> {
+                PatientRepository shard = shards.get(group.getKey());
+                List<Integer> positions = group.getValue();
+                List<Patient> batch = new ArrayList<>(positions.size());
+                positions.forEach(i -> batch.add(saved.get(i)));
+                try {
+                    List<Patient> stored = shard.saveAll(batch);
+                    for (int i = 0; i < positions.size(); i++) {
+                        saved.set(positions.get(i), stored.get(i));
+                    }
+                } catch (RuntimeException e) {
+                    for (int i : positions) {
+                        Optional<Patient> stored = shard.findById(ids.get(i));
+                        if (stored.isPresent()) {
+                            emailIndex.claim(stored.get().getEmail(), ids.get(i));
+                        } else {
+                            undos.get(i).run();
+                        }
+                    }
+                    throw e;
+                }
+            }).toList());
+            return saved;
+        } finally {
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    /**
+     * The global email index decides; the shard only sees patients whose email was claimed
+     */
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        if (emailIndex.contains(patient.getEmail())) return Optional.empty();
+        long id = nextId.getAndIncrement();
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            if (!emailIndex.claim(patient.getEmail(), id)) return Optional.empty();
+            patient.setId(id);
+            try {
+                return Optional.of(shardFor(id).save(patient));
+            } catch (RuntimeException e) {
+                emailIndex.release(id);
+                patient.setId(null);
+                throw e;
+            }
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    /**
+     * Claims the new email for the ID first; releases it again if the shard has no such patient
+     */
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        if (patient.getId() == null) return Optional.empty();
+        long id = idFor(patient);
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            Runnable undo = claim(patient, id);
+            try {
+                Optional<Patient> updated = shardFor(id).updateIfPresent(patient);
+                if (updated.isEmpty()) undo.run();
+                return updated;
+            } catch (RuntimeException e) {
+                undo.run();
+                throw e;
+            }
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        return id == null ? Optional.empty() : shardFor(id).findById(id);
+    }
+
+    @Override
+    public void delete(Long id) {
+        if (id == null) return;
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            shardFor(id).delete(id);
+            emailIndex.release(id);
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    /**
+     * Null IDs are skipped, as in delete
+     */
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long id : ids) {
+            if (id != null) groups.computeIfAbsent(shardIndex(id, shards.size()), k -> new ArrayList<>()).add(id);
+        }
+        if (groups.isEmpty()) return;
+        List<ReentrantLock> held = stripes.lockAll(ids);
+        try {
+            runInParallel(groups.entrySet().stream().<Runnable>map(group -> () -> {
+                shards.get(group.getKey()).deleteAll(group.getValue());
+                group.getValue().forEach(emailIndex::release);
+            }).toList());
+        } finally {
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return emailIndex.contains(email);
+    }
+
+    // ============ Scatter-gather ============
+
+    @Override
+    public List<Patient> findAll() {
+        List<Patient> patients = gather(PatientRepository::findAll);
+        patients.sort(Comparator.comparing(Patient::getId));
+        return patients;
+    }
+
+    /**
+     * Every shard returns its own first page after the key; the merged page is the lowest IDs
+     */
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        List<Patient> patients = gather(shard -> shard.findPage(afterId, limit));
+        patients.sort(Comparator.comparing(Patient::getId));
+        return patients.size() > limit ? new ArrayList<>(patients.subList(0, limit)) : patients;
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        List<Patient> patients = gather(shard -> shard.findByNameContaining(name));
+        patients.sort(Comparator.comparing(Patient::getName).thenComparing(Patient::getId));
+        return patients;
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        List<Patient> patients = gather(shard -> shard.findByBirthDateBetween(from, to));
+        patients.sort(Comparator.comparing(Patient::getBirthDate).thenComparing(Patient::getId));
+        return patients;
+    }
+
+    /**
+     * Shards are walked one after another, so patients come in shard order rather than ID order
+     */
+    @Override
+    public Stream<Patient> streamAll() {
+        return shards.stream().flatMap(PatientRepository::streamAll);
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        return shards.stream().flatMap(shard -> shard.streamByNameContaining(name));
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return merge(shards.stream().map(shard -> shard.streamByBirthDateBetween(from, to)).toList(),
+                Comparator.comparing(Patient::getBirthDate).thenComparing(Patient::getId));
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (Long count : scatter(PatientRepository::count)) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        List<ReentrantLock> held = stripes.lockEvery();
+        try {
+            scatter(shard -> {
+                shard.clear();
+                return null;
+            });
+            emailIndex.clear();
+            nextId.set(1L);
+        } finally {
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    /**
+     * The patient's ID, or a newly allocated one for a new patient (not yet set on it)
+     */
+    private long idFor(Patient patient) {
+        long id = patient.getId() != null ? patient.getId() : nextId.getAndIncrement();
+        if (id <= 0) throw new IllegalArgumentException("Patient ID must be positive");
+        nextId.accumulateAndGet(id + 1, Math::max);
+        return id;
+    }
+
+    /**
+     * Claim the email for id in the routing index and set the ID on the patient; returns an
+     * undo action that gives the ID its previous email back. Called with id's stripe held.
+     */
+    private Runnable claim(Patient patient, long id) {
+        // The index already knows the ID's current email; no need to read the shard for it
+        String previous = emailIndex.emailOf(id);
+        if (!emailIndex.claim(patient.getEmail(), id)) {
+            throw new DuplicateEmailException(patient.getEmail());
+        }
+        boolean assigned = patient.getId() == null;
+        patient.setId(id);
+        return () -> {
+            emailIndex.release(id);
+            if (previous != null) emailIndex.claim(previous, id);
+            if (assigned) patient.setId(null);
+        };
+    }
+
+    PatientRepository shardFor(long id) {
+        return shards.get(shardIndex(id, shards.size()));
+    }
+
+    static int shardIndex(long id, int shardCount) {
+        return (int) Long.remainderUnsigned(LongObjectMap.hash(id), shardCount);
+    }
+
+    private List<Patient> gather(Function<PatientRepository, List<Patient>> query) {
+        List<Patient> merged = new ArrayList<>();
+        for (List<Patient> patients : scatter(query)) {
+            merged.addAll(patients);
+        }
+        return merged;
+    }
+
+    /**
+     * Lazy k-way merge of per-shard streams that are each already sorted by the given order;
+     * holds one patient per shard
+     */
+    private static Stream<Patient> merge(List<Stream<Patient>> streams, Comparator<Patient> order) {
+        record Head(Patient patient, Iterator<Patient> rest) {}
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::patient, order));
+        Iterator<Patient> merged = new Iterator<>() {
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                if (!started) {
+                    started = true;
+                    for (Stream<Patient> stream : streams) {
+                        advance(stream.iterator());
+                    }
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Patient next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Head head = heads.poll();
+                advance(head.rest());
+                return head.patient();
+            }
+
+            private void advance(Iterator<Patient> rest) {
+                if (rest.hasNext()) heads.add(new Head(rest.next(), rest));
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    /**
+     * Run the query on every shard, one virtual thread per shard, results in shard order
+     */
+    private <T> List<T> scatter(Function<PatientRepository, T> query) {
+        return inParallel(shards.stream().<Callable<T>>map(shard -> () -> query.apply(shard)).toList());
+    }
+
+    private static void runInParallel(List<Runnable> tasks) {
+        inParallel(tasks.stream().<Callable<Void>>map(task -> () -> {
+            task.run();
+            return null;
+        }).toList());
+    }
+
+    /**
+     * Run the tasks on virtual threads and wait for all of them; the first failure is rethrown
+     */
+    private static <T> List<T> inParallel(List<Callable<T>> tasks) {
+        if (tasks.size() == 1) {
+            try {
+                return Collections.singletonList(tasks.get(0).call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException("Shard query failed", e);
+            }
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException("Shard query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while querying shards", e);
+        }
+    }
+}
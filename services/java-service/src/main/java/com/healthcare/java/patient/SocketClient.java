@@ -16,7 +16,7 @@ import java.util.Scanner;
  *   GET id
  *   UPDATE id name email phone birthDate(yyyy-MM-dd)
  *   DELETE id
- *   LIST
+ *   LIST [afterId limit]
  *   SEARCH name
  *   COUNT
  *   HELP
@@ -64,6 +64,13 @@ public class SocketClient {
         return in.readLine();
     }
 
+    /**
+     * Request one keyset page; the last patient ID in the response is the next afterId
+     */
+    public String listPage(long afterId, int limit) throws IOException {
+        return sendCommand("LIST|" + afterId + "|" + limit);
+    }
+
     /**
      * Parse and display response
      */
@@ -154,8 +161,9 @@ public class SocketClient {
             DELETE <id>
               Example: DELETE 1
               
-            LIST
-              Display all patients
+            LIST [<afterId> <limit>]
+              Display all patients, or one page of patients with ID above afterId
+              Example: LIST 0 20, then LIST <last ID shown> 20
               
             SEARCH <name>
               Example: SEARCH John
@@ -228,7 +236,7 @@ public class SocketClient {
                         break;
 
                     case "LIST":
-                        handleList();
+                        handleList(args);
                         break;
 
                     case "SEARCH":
@@ -291,9 +299,21 @@ public class SocketClient {
         displayResponse(response);
     }
 
-    private void handleList() throws IOException {
-        String response = sendCommand("LIST");
-        displayResponse(response);
+    private void handleList(String args) throws IOException {
+        if (args.isEmpty()) {
+            displayResponse(sendCommand("LIST"));
+            return;
+        }
+        String[] parts = args.split("\\s+");
+        if (parts.length != 2) {
+            System.out.println("✗ Usage: LIST [afterId limit]");
+            return;
+        }
+        try {
+            displayResponse(listPage(Long.parseLong(parts[0]), Integer.parseInt(parts[1])));
+        } catch (NumberFormatException e) {
+            System.out.println("✗ afterId and limit must be numbers");
+        }
     }
 
     private void handleSearch(String name) throws IOException {
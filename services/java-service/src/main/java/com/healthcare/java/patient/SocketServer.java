@@ -2,6 +2,8 @@ package com.healthcare.java.patient;
 
 import java.io.*;
 import java.net.*;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -17,6 +19,7 @@ import java.util.NoSuchElementException;
  *   UPDATE|id|name|email|phone|birthDate
  *   DELETE|id
  *   LIST
+ *   LIST|afterId|limit   (keyset page in ID order; afterId 0 for the first page)
  *   SEARCH|name
  */
 public class SocketServer {
@@ -93,7 +96,7 @@ public class SocketServer {
                 case "GET" -> handleGet(parts);
                 case "UPDATE" -> handleUpdate(parts);
                 case "DELETE" -> handleDelete(parts);
-                case "LIST" -> handleList();
+                case "LIST" -> handleList(parts);
                 case "SEARCH" -> handleSearch(parts);
                 case "COUNT" -> handleCount();
                 default -> "ERROR|Unknown command: " + operation;
@@ -197,19 +200,28 @@ public class SocketServer {
 
     /**
      * LIST - returns all patients
+     * LIST|afterId|limit - returns the next page; the last ID in it is the next afterId
      */
-    private String handleList() {
+    private String handleList(String[] parts) {
+        if (parts.length != 1 && parts.length != 3) {
+            return "ERROR|LIST takes no parameters or 2 parameters: afterId|limit";
+        }
+
         try {
-            List<Patient> patients = patientService.getAll();
+            List<PatientSummary> patients = parts.length == 1
+                    ? patientService.getAllSummaries()
+                    : patientService.getSummaryPage(Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
             if (patients.isEmpty()) {
                 return "SUCCESS|0|No patients";
             }
 
             StringBuilder sb = new StringBuilder("SUCCESS|").append(patients.size());
-            for (Patient p : patients) {
+            for (PatientSummary p : patients) {
                 sb.append("|").append(formatPatient(p));
             }
             return sb.toString();
+        } catch (NumberFormatException e) {
+            return "ERROR|Invalid afterId or limit";
         } catch (Exception e) {
             return "ERROR|" + e.getMessage();
         }
@@ -224,13 +236,13 @@ public class SocketServer {
         }
 
         try {
-            List<Patient> results = patientService.findByName(parts[1]);
+            List<PatientSummary> results = patientService.findSummariesByName(parts[1]);
             if (results.isEmpty()) {
                 return "SUCCESS|0|No results";
             }
 
             StringBuilder sb = new StringBuilder("SUCCESS|").append(results.size());
-            for (Patient p : results) {
+            for (PatientSummary p : results) {
                 sb.append("|").append(formatPatient(p));
             }
             return sb.toString();
@@ -255,14 +267,36 @@ public class SocketServer {
      * Format patient data for transmission
      */
     private String formatPatient(Patient p) {
-        return p.getId() + ":" + p.getName() + ":" + p.getEmail() + ":" + p.getPhone() + ":" + 
-               p.getBirthDate().format(dateFormatter) + ":" + p.getAge();
+        return formatPatient(PatientSummary.of(p));
+    }
+
+    private String formatPatient(PatientSummary p) {
+        return p.id() + ":" + p.name() + ":" + p.email() + ":" + p.phone() + ":" +
+               p.birthDate().format(dateFormatter) + ":" + p.age();
     }
 
+    /**
+     * Usage: java SocketServer [port] [dataDir | database.db]
+     * With a data directory the in-memory store is made durable (write-ahead log + snapshots);
+     * a .db file is served from SQLite, with JDBC calls offloaded from the connection
+     * handlers' virtual threads to a platform pool (see AsyncPatientRepository)
+     */
     public static void main(String[] args) throws IOException {
-        PatientRepository repository = new InMemoryPatientRepository();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9999;
+        PatientRepository repository;
+        if (args.length > 1 && args[1].endsWith(".db")) {
+            repository = AsyncPatientRepository.forStorage(
+                    SQLitePatientRepository.builder(args[1]).tuned().build()).blocking();
+        } else if (args.length > 1) {
+            repository = DurablePatientRepository.builder(Path.of(args[1]))
+                    .syncEvery(64)
+                    .syncInterval(Duration.ofMillis(10))
+                    .open();
+        } else {
+            repository = new InMemoryPatientRepository();
+        }
         PatientService service = new PatientService(repository);
-        SocketServer server = new SocketServer(service, 9999);
+        SocketServer server = new SocketServer(service, port);
         server.start();
     }
 }
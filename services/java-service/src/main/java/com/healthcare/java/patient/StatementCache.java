@@ -0,0 +1,157 @@
+package com.healthcare.java.patient;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of prepared statements for one physical connection, keyed by SQL text
+ * Callers keep the usual try-with-resources pattern: closing a cached statement closes its
+ * open ResultSet and clears its parameters instead of discarding the compiled statement.
+ * Evicted statements are closed (once their current user is done with them).
+ *
+ * Not thread-safe: a pooled connection has one borrower at a time.
+ */
+final class StatementCache {
+
+    /**
+     * Counters shared by every connection of a pool
+     */
+    static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        CacheStats snapshot() {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    private static final class Entry {
+        final PreparedStatement statement;
+        ResultSet results;
+        boolean inUse;
+        boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    private final int capacity;
+    private final Stats stats;
+    private final LinkedHashMap<String, Entry> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(int capacity, Stats stats) {
+        this.capacity = capacity;
+        this.stats = stats;
+    }
+
+    PreparedStatement prepare(Connection physical, String sql) throws SQLException {
+        Entry entry = statements.get(sql);
+        if (entry != null && !entry.inUse) {
+            stats.hits.increment();
+        } else {
+            stats.misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            if (entry != null) {
+                // Same SQL already checked out on this connection: hand out an uncached one
+                return statement;
+            }
+            entry = new Entry(statement);
+            statements.put(sql, entry);
+            evictOverflow();
+        }
+        entry.inUse = true;
+        return lease(entry);
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    void close() {
+        for (Entry entry : statements.values()) {
+            closeQuietly(entry.statement);
+        }
+        statements.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> eldest = statements.values().iterator();
+        while (statements.size() > capacity && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            stats.evictions.increment();
+            if (entry.inUse) {
+                entry.evicted = true;
+            } else {
+                closeQuietly(entry.statement);
+            }
+        }
+    }
+
+    private void release(Entry entry) throws SQLException {
+        entry.inUse = false;
+        if (entry.evicted) {
+            entry.statement.close();
+            return;
+        }
+        if (entry.results != null) {
+            entry.results.close();
+            entry.results = null;
+        }
+        entry.statement.clearParameters();
+    }
+
+    private PreparedStatement lease(Entry entry) {
+        boolean[] returned = new boolean[1];
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!returned[0]) {
+                                returned[0] = true;
+                                release(entry);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return returned[0];
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                            if (returned[0]) throw new SQLException("Statement has been closed");
+                        }
+                    }
+                    try {
+                        Object result = method.invoke(entry.statement, args);
+                        if (result instanceof ResultSet results) {
+                            entry.results = results;
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Closing a statement of a broken connection
+        }
+    }
+}
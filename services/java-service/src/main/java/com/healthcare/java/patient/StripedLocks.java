@@ -0,0 +1,83 @@
+package com.healthcare.java.patient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks picked by patient ID
+ * Decorators hold an ID's stripe across a write to the wrapped repository and their own
+ * bookkeeping, so writes to one patient are seen in the order they were applied while
+ * writes to different patients still run concurrently. Batches lock their stripes in
+ * ascending order, so they never deadlock with each other.
+ */
+final class StripedLocks {
+    private final ReentrantLock[] stripes;
+
+    StripedLocks(int count) {
+        if (Integer.bitCount(count) != 1) throw new IllegalArgumentException("Stripe count must be a power of two");
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    int count() {
+        return stripes.length;
+    }
+
+    int stripe(long id) {
+        return (int) LongObjectMap.hash(id) & (stripes.length - 1);
+    }
+
+    /**
+     * Lock the stripe of an existing ID and return it, or null for a new patient, which has no
+     * ID to lock yet. Its ID becomes visible to other writers as soon as the wrapped write
+     * stores it, so callers must not assume nothing touched it before they act on it.
+     */
+    ReentrantLock lock(Long id) {
+        if (id == null) return null;
+        ReentrantLock stripe = stripes[stripe(id)];
+        stripe.lock();
+        return stripe;
+    }
+
+    /**
+     * Lock the stripes of every non-null ID, in ascending stripe order
+     */
+    List<ReentrantLock> lockAll(Collection<Long> ids) {
+        boolean[] needed = new boolean[stripes.length];
+        for (Long id : ids) {
+            if (id != null) needed[stripe(id)] = true;
+        }
+        List<ReentrantLock> held = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            if (needed[i]) {
+                stripes[i].lock();
+                held.add(stripes[i]);
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Lock every stripe, for writes such as clear that touch all patients
+     */
+    List<ReentrantLock> lockEvery() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        return List.of(stripes);
+    }
+
+    static void unlock(ReentrantLock stripe) {
+        if (stripe != null) stripe.unlock();
+    }
+
+    static void unlockAll(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+}
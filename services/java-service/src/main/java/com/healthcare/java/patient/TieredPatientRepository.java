@@ -0,0 +1,356 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Tiered Patient Repository - memory-bounded hot tier over a durable cold store
+ * The cold store (normally SQLite) holds every patient. The hot tier keeps recently and
+ * frequently used patients on the heap in a TinyLfuCache weighted by each patient's
+ * estimated footprint, so it evicts to stay within a byte budget rather than an entry
+ * count; hotBytes() is the live total.
+ *
+ * Writes go to the cold store first and then replace the hot copy, so a read after a
+ * write is served hot. findById misses load from the cold store and promote the patient,
+ * unless a write to it landed meanwhile. Scans, pages, searches, email checks and count
+ * always go to the cold store, which has the full data set, and never promote.
+ *
+ * Hot patients are copied on the way in and out, so callers may mutate what they get back.
+ *
+ * Usage:
+ *   TieredPatientRepository repo = new TieredPatientRepository(
+ *           SQLitePatientRepository.builder("data/patients.db").tuned().build(), 64L << 20);
+ *   repo.hotBytes();   // live footprint of the hot tier, at most 64 MiB
+ */
+public class TieredPatientRepository implements PatientRepository, AutoCloseable {
+    private static final int STRIPES = 256;
+
+    // Rough 64-bit compressed-oops layouts: Patient (40), Long id (16), LocalDate (24),
+    // two LocalDateTimes (72 each) and the cache's map node, entry and key (88)
+    private static final long FIXED_BYTES = 40 + 16 + 24 + 2 * 72 + 88;
+    private static final long STRING_BYTES = 24 + 16;
+    private static final long TYPICAL_BYTES = 512;
+
+    private final PatientRepository cold;
+    private final TinyLfuCache<Long, Patient> hot;
+    private final StripedLocks stripes = new StripedLocks(STRIPES);
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    /**
+     * Keep up to hotBudgetBytes of patients hot in front of cold
+     */
+    public TieredPatientRepository(PatientRepository cold, long hotBudgetBytes) {
+        this.cold = cold;
+        this.hot = new TinyLfuCache<>(hotBudgetBytes, (int) Math.min(Integer.MAX_VALUE, hotBudgetBytes / TYPICAL_BYTES),
+                TieredPatientRepository::estimateBytes);
+    }
+
+    // ============ Hot reads ============
+
+    @Override
+    public Optional<Patient> findById(Long id) {
+        if (id == null) return Optional.empty();
+        Patient cached = hot.get(id);
+        if (cached != null) return Optional.of(copy(cached));
+
+        int stripe = stripes.stripe(id);
+        long version = versions.get(stripe);
+        Optional<Patient> loaded = cold.findById(id);
+        loaded.ifPresent(patient -> promote(id, copy(patient), stripe, version));
+        return loaded;
+    }
+
+    /**
+     * Live estimated heap footprint of the hot tier
+     */
+    public long hotBytes() {
+        return hot.weightedSize();
+    }
+
+    public long hotBudgetBytes() {
+        return hot.maximumWeight();
+    }
+
+    public int hotSize() {
+        return hot.size();
+    }
+
+    /**
+     * Hot-tier hits, misses (cold reads) and evictions
+     */
+    public CacheStats stats() {
+        return hot.stats();
+    }
+
+    // ============ Write-through ============
+
+    @Override
+    public Patient save(Patient patient) {
+        if (patient.getId() == null) {
+            long[] before = versions();
+            Patient saved = cold.save(patient);
+            admitInserted(saved, before);
+            return saved;
+        }
+        ReentrantLock stripe = stripes.lock(patient.getId());
+        try {
+            Patient saved = write(patient.getId(), () -> cold.save(patient));
+            admit(saved);
+            return saved;
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    @Override
+    public Optional<Patient> insertIfEmailAbsent(Patient patient) {
+        long[] before = versions();
+        Optional<Patient> inserted = cold.insertIfEmailAbsent(patient);
+        inserted.ifPresent(saved -> admitInserted(saved, before));
+        return inserted;
+    }
+
+    @Override
+    public Optional<Patient> updateIfPresent(Patient patient) {
+        ReentrantLock stripe = stripes.lock(patient.getId());
+        try {
+            Optional<Patient> updated = write(patient.getId(), () -> cold.updateIfPresent(patient));
+            updated.ifPresent(this::admit);
+            return updated;
+        } finally {
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    @Override
+    public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+        long[] before = versions();
+        List<Patient> inserted = cold.insertAllIfEmailAbsent(patients);
+        inserted.forEach(saved -> admitInserted(saved, before));
+        return inserted;
+    }
+
+    /**
+     * Existing patients are admitted under their stripes; new ones after the stripes are
+     * released, as in insertAllIfEmailAbsent
+     */
+    @Override
+    public List<Patient> saveAll(Collection<Patient> patients) {
+        List<Patient> batch = new ArrayList<>(patients);
+        List<Long> ids = batch.stream().map(Patient::getId).toList();
+        long[] before = versions();
+        List<Patient> saved;
+        List<ReentrantLock> held = stripes.lockAll(ids);
+        try {
+            try {
+                saved = cold.saveAll(batch);
+            } catch (RuntimeException e) {
+                ids.forEach(this::evict);
+                throw e;
+            }
+            for (int i = 0; i < saved.size(); i++) {
+                if (ids.get(i) != null) admit(saved.get(i));
+            }
+        } finally {
+            StripedLocks.unlockAll(held);
+        }
+        for (int i = 0; i < saved.size(); i++) {
+            if (ids.get(i) == null) admitInserted(saved.get(i), before);
+        }
+        return saved;
+    }
+
+    @Override
+    public void delete(Long id) {
+        ReentrantLock stripe = stripes.lock(id);
+        try {
+            cold.delete(id);
+        } finally {
+            evict(id);
+            StripedLocks.unlock(stripe);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> ids) {
+        List<Long> batch = new ArrayList<>(ids);
+        List<ReentrantLock> held = stripes.lockAll(batch);
+        try {
+            cold.deleteAll(batch);
+        } finally {
+            batch.forEach(this::evict);
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    @Override
+    public void clear() {
+        List<ReentrantLock> held = stripes.lockEvery();
+        try {
+            cold.clear();
+        } finally {
+            hot.clear();
+            for (int i = 0; i < STRIPES; i++) {
+                versions.incrementAndGet(i);
+            }
+            StripedLocks.unlockAll(held);
+        }
+    }
+
+    // ============ Cold pass-through ============
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return cold.existsByEmail(email);
+    }
+
+    @Override
+    public List<Patient> findAll() {
+        return cold.findAll();
+    }
+
+    @Override
+    public List<Patient> findPage(Long afterId, int limit) {
+        return cold.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Patient> findByNameContaining(String name) {
+        return cold.findByNameContaining(name);
+    }
+
+    @Override
+    public List<Patient> findByBirthDateBetween(LocalDate from, LocalDate to) {
+        return cold.findByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public List<PatientSummary> findAllSummaries() {
+        return cold.findAllSummaries();
+    }
+
+    @Override
+    public List<PatientSummary> findSummaryPage(Long afterId, int limit) {
+        return cold.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByNameContaining(String name) {
+        return cold.findSummariesByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamAll() {
+        return cold.streamAll();
+    }
+
+    @Override
+    public Stream<Patient> streamByNameContaining(String name) {
+        return cold.streamByNameContaining(name);
+    }
+
+    @Override
+    public Stream<Patient> streamByBirthDateBetween(LocalDate from, LocalDate to) {
+        return cold.streamByBirthDateBetween(from, to);
+    }
+
+    @Override
+    public long count() {
+        return cold.count();
+    }
+
+    /**
+     * Closes the cold store if it holds resources
+     */
+    @Override
+    public void close() {
+        if (cold instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to close cold store", e);
+            }
+        }
+    }
+
+    /**
+     * Estimated heap bytes one hot patient costs, strings stored as Latin-1 where possible
+     */
+    static long estimateBytes(Patient patient) {
+        return FIXED_BYTES + stringBytes(patient.getName()) + stringBytes(patient.getEmail())
+                + stringBytes(patient.getPhone());
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) return 0;
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        long payload = (long) value.length() * (latin1 ? 1 : 2);
+        return STRING_BYTES + (payload + 7 & ~7L);
+    }
+
+    /**
+     * Run a cold write; if it fails the hot copy may no longer match, so drop it
+     */
+    private <T> T write(Long id, Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            evict(id);
+            throw e;
+        }
+    }
+
+    private void admit(Patient saved) {
+        hot.put(saved.getId(), copy(saved));
+        versions.incrementAndGet(stripes.stripe(saved.getId()));
+    }
+
+    private void evict(Long id) {
+        if (id == null) return;
+        hot.invalidate(id);
+        versions.incrementAndGet(stripes.stripe(id));
+    }
+
+    /**
+     * Admit a patient the cold tier just gave a new ID. That ID was visible to scans from the
+     * cold commit on, so a delete or update of it may already have run: admit only if its
+     * stripe saw no write since before the insert, like promote.
+     */
+    private void admitInserted(Patient inserted, long[] before) {
+        int stripe = stripes.stripe(inserted.getId());
+        promote(inserted.getId(), copy(inserted), stripe, before[stripe]);
+    }
+
+    private long[] versions() {
+        long[] snapshot = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            snapshot[i] = versions.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Promote a cold read under its stripe, unless a write to that stripe happened since
+     * the read began
+     */
+    private void promote(Long id, Patient patient, int stripe, long version) {
+        ReentrantLock lock = stripes.lock(id);
+        try {
+            if (versions.get(stripe) == version) hot.put(id, patient);
+        } finally {
+            StripedLocks.unlock(lock);
+        }
+    }
+
+    private static Patient copy(Patient patient) {
+        return Patient.fromStorage(patient.getId(), patient.getName(), patient.getEmail(), patient.getPhone(),
+                patient.getBirthDate(), patient.getCreatedAt(), patient.getUpdatedAt());
+    }
+}
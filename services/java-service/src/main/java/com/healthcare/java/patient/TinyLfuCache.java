@@ -0,0 +1,236 @@
+package com.healthcare.java.patient;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded W-TinyLFU cache
+ * New entries land in a small LRU window (1% of capacity). An entry pushed out of the
+ * window only enters the main segmented LRU if the FrequencySketch says it is more popular
+ * than the main region's eviction victim; otherwise the newcomer is the one dropped. That
+ * keeps one-off lookups and long scans from flushing the hot set.
+ *
+ * The main region is a segmented LRU: entries start in probation and move to the protected
+ * segment (80% of main) on their next hit; protected overflow is demoted back to probation.
+ *
+ * Capacity is a total weight: one per entry by default, or whatever a weigher assigns
+ * (e.g. estimated bytes). Each entry's weight is taken once, when it is put. A newcomer
+ * heavier than the victims it would displace must beat each of them on frequency.
+ *
+ * Values must not be null. One lock guards the structure; it is held only for map
+ * operations, never while loading a value.
+ */
+final class TinyLfuCache<K, V> {
+    private record Entry<V>(V value, long weight) {}
+
+    private final long maximumWeight;
+    private final long windowCapacity;
+    private final long mainCapacity;
+    private final long protectedCapacity;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    TinyLfuCache(int maximumSize) {
+        this(maximumSize, maximumSize, value -> 1);
+    }
+
+    /**
+     * Bound the summed weight of the entries; expectedSize sizes the frequency sketch
+     */
+    TinyLfuCache(long maximumWeight, int expectedSize, ToLongFunction<V> weigher) {
+        if (maximumWeight < 1) throw new IllegalArgumentException("Cache size must be positive");
+        this.maximumWeight = maximumWeight;
+        this.windowCapacity = Math.max(1, maximumWeight / 100);
+        this.mainCapacity = maximumWeight - windowCapacity;
+        this.protectedCapacity = mainCapacity * 8 / 10;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(Math.max(1, expectedSize));
+    }
+
+    /**
+     * Cached value, or null on a miss; every lookup counts toward the key's popularity
+     */
+    V get(K key) {
+        lock.lock();
+        try {
+            sketch.increment(hash(key));
+            Entry<V> entry = window.get(key);
+            if (entry == null) {
+                entry = protectedSegment.get(key);
+            }
+            if (entry == null) {
+                entry = probation.remove(key);
+                if (entry != null) {
+                    probationWeight -= entry.weight();
+                    promote(key, entry);
+                }
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, Math.max(0, weigher.applyAsLong(value)));
+        lock.lock();
+        try {
+            if (window.containsKey(key)) {
+                windowWeight += entry.weight() - window.put(key, entry).weight();
+            } else if (protectedSegment.containsKey(key)) {
+                protectedWeight += entry.weight() - protectedSegment.put(key, entry).weight();
+                while (protectedWeight > protectedCapacity && protectedSegment.size() > 1) {
+                    demoteEldestProtected();
+                }
+            } else if (probation.containsKey(key)) {
+                probationWeight += entry.weight() - probation.put(key, entry).weight();
+            } else {
+                window.put(key, entry);
+                windowWeight += entry.weight();
+            }
+            while (windowWeight > windowCapacity && !window.isEmpty()) {
+                admitEldestOfWindow();
+            }
+            while (probationWeight + protectedWeight > mainCapacity && !probation.isEmpty()) {
+                probationWeight -= removeEldest(probation).getValue().weight();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the key's entry; returns the value it held, or null if none was cached
+     */
+    V invalidate(K key) {
+        lock.lock();
+        try {
+            Entry<V> removed;
+            if ((removed = window.remove(key)) != null) {
+                windowWeight -= removed.weight();
+            } else if ((removed = protectedSegment.remove(key)) != null) {
+                protectedWeight -= removed.weight();
+            } else if ((removed = probation.remove(key)) != null) {
+                probationWeight -= removed.weight();
+            }
+            return removed == null ? null : removed.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowWeight = 0;
+            probationWeight = 0;
+            protectedWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return window.size() + probation.size() + protectedSegment.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Summed weight of the cached entries; never above maximumWeight once a put returns
+     */
+    long weightedSize() {
+        lock.lock();
+        try {
+            return windowWeight + probationWeight + protectedWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long maximumWeight() {
+        return maximumWeight;
+    }
+
+    CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void promote(K key, Entry<V> entry) {
+        protectedSegment.put(key, entry);
+        protectedWeight += entry.weight();
+        while (protectedWeight > protectedCapacity && protectedSegment.size() > 1) {
+            demoteEldestProtected();
+        }
+    }
+
+    private void demoteEldestProtected() {
+        Map.Entry<K, Entry<V>> demoted = removeEldest(protectedSegment);
+        protectedWeight -= demoted.getValue().weight();
+        probation.put(demoted.getKey(), demoted.getValue());
+        probationWeight += demoted.getValue().weight();
+    }
+
+    /**
+     * The window's LRU entry competes with probation's LRU entries for a place in main;
+     * it displaces them, least recent first, only while it is used more often than each
+     */
+    private void admitEldestOfWindow() {
+        Map.Entry<K, Entry<V>> candidate = removeEldest(window);
+        long weight = candidate.getValue().weight();
+        windowWeight -= weight;
+
+        long candidateFrequency = sketch.frequency(hash(candidate.getKey()));
+        while (probationWeight + protectedWeight + weight > mainCapacity) {
+            if (probation.isEmpty() || weight > mainCapacity) {
+                evictions.increment();
+                return;
+            }
+            Map.Entry<K, Entry<V>> victim = probation.entrySet().iterator().next();
+            evictions.increment();
+            if (candidateFrequency <= sketch.frequency(hash(victim.getKey()))) return;
+            probation.remove(victim.getKey());
+            probationWeight -= victim.getValue().weight();
+        }
+        probation.put(candidate.getKey(), candidate.getValue());
+        probationWeight += weight;
+    }
+
+    private static <K, E> Map.Entry<K, E> removeEldest(LinkedHashMap<K, E> segment) {
+        Iterator<Map.Entry<K, E>> eldest = segment.entrySet().iterator();
+        Map.Entry<K, E> entry = eldest.next();
+        Map.Entry<K, E> removed = Map.entry(entry.getKey(), entry.getValue());
+        eldest.remove();
+        return removed;
+    }
+
+    private static long hash(Object key) {
+        return LongObjectMap.hash(key.hashCode());
+    }
+}
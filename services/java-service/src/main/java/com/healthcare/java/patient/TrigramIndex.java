@@ -0,0 +1,132 @@
+package com.healthcare.java.patient;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Trigram inverted index for case-insensitive substring search over patient names
+ * Each lower-cased name is split into overlapping 3-character grams; a query is answered
+ * by intersecting the posting lists of its grams (smallest first) and verifying the
+ * surviving candidates against the indexed name.
+ */
+final class TrigramIndex {
+    static final int GRAM = 3;
+
+    private final ConcurrentMap<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, String> names = new ConcurrentHashMap<>();
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether the query is long enough to be answered from the index
+     */
+    static boolean supports(String query) {
+        return query != null && normalize(query).length() >= GRAM;
+    }
+
+    /**
+     * Index (or re-index) the name of the given patient ID
+     */
+    void index(long id, String name) {
+        String normalized = normalize(name);
+        names.compute(id, (key, previous) -> {
+            if (previous != null) {
+                if (previous.equals(normalized)) return previous;
+                for (long gram : grams(previous)) {
+                    unpost(gram, key);
+                }
+            }
+            for (long gram : grams(normalized)) {
+                // Add inside compute so it cannot land in a set unpost is dropping
+                postings.compute(gram, (g, ids) -> {
+                    Set<Long> posted = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    posted.add(key);
+                    return posted;
+                });
+            }
+            return normalized;
+        });
+    }
+
+    void remove(long id) {
+        names.computeIfPresent(id, (key, previous) -> {
+            for (long gram : grams(previous)) {
+                unpost(gram, key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Remove the ID from a gram's posting set, dropping the set once it is empty
+     */
+    private void unpost(long gram, Long id) {
+        postings.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Grams with at least one posting
+     */
+    int gramCount() {
+        return postings.size();
+    }
+
+    /**
+     * IDs whose indexed name contains the query; requires supports(query)
+     */
+    List<Long> search(String query) {
+        String normalized = normalize(query);
+        List<Set<Long>> lists = new ArrayList<>();
+        for (long gram : grams(normalized)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) return List.of();
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> matches = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        List<Set<Long>> rest = lists.subList(1, lists.size());
+        for (Long id : smallest) {
+            if (!containsAll(rest, id)) continue;
+            String name = names.get(id);
+            if (name != null && name.contains(normalized)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    void clear() {
+        names.clear();
+        postings.clear();
+    }
+
+    private static boolean containsAll(List<Set<Long>> lists, Long id) {
+        for (Set<Long> ids : lists) {
+            if (!ids.contains(id)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Distinct grams of a normalized string, three UTF-16 chars packed into one long
+     */
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,124 @@
+package com.healthcare.java.patient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped, checksummed write-ahead log
+ * Records are laid out back to back as [int bodyLength][int crc32c(body)][body] where
+ * body = [byte type][long sequence][payload]. The file is pre-sized and mapped once;
+ * a zero length marks the end of the log and a CRC mismatch marks a torn tail.
+ *
+ * Not thread-safe: callers serialize append/force/reset.
+ */
+final class WriteAheadLog implements Closeable {
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+    static final int BODY_PREFIX_BYTES = 1 + Long.BYTES;
+    private static final byte[] ZEROS = new byte[8192];
+
+    record Entry(byte type, long sequence, byte[] payload) {}
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    WriteAheadLog(Path file, int capacityBytes) throws IOException {
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+    }
+
+    /**
+     * Scan valid records from the start, positioning the log after the last intact one
+     */
+    void replay(Consumer<Entry> consumer) {
+        CRC32C crc = new CRC32C();
+        int offset = 0;
+        long previous = Long.MIN_VALUE;
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length < BODY_PREFIX_BYTES || offset + HEADER_BYTES + length > buffer.capacity()) break;
+
+            int checksum = buffer.getInt(offset + Integer.BYTES);
+            byte[] body = new byte[length];
+            buffer.get(offset + HEADER_BYTES, body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) break;
+
+            long sequence = ByteBuffer.wrap(body).getLong(1);
+            if (sequence <= previous) break;
+            previous = sequence;
+            byte[] payload = new byte[length - BODY_PREFIX_BYTES];
+            System.arraycopy(body, BODY_PREFIX_BYTES, payload, 0, payload.length);
+            consumer.accept(new Entry(body[0], sequence, payload));
+            offset += HEADER_BYTES + length;
+        }
+        position = offset;
+        // Wipe a torn tail so stale bytes can never be read back after newer appends
+        if (offset + Integer.BYTES <= buffer.capacity() && buffer.getInt(offset) != 0) {
+            zero(offset, buffer.capacity());
+            buffer.force();
+        }
+    }
+
+    /**
+     * Append one record; returns false (writing nothing) if the log is full
+     */
+    boolean append(byte type, long sequence, byte[] payload) {
+        int length = BODY_PREFIX_BYTES + payload.length;
+        if (position + HEADER_BYTES + length + HEADER_BYTES > buffer.capacity()) return false;
+
+        int bodyOffset = position + HEADER_BYTES;
+        buffer.put(bodyOffset, type);
+        buffer.putLong(bodyOffset + 1, sequence);
+        buffer.put(bodyOffset + BODY_PREFIX_BYTES, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(bodyOffset, length));
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        // Length last: a record only becomes visible once it is complete
+        buffer.putInt(position, length);
+        position += HEADER_BYTES + length;
+        return true;
+    }
+
+    /**
+     * Flush appended records to the storage device
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Discard every record (after a snapshot has made them redundant)
+     */
+    void reset() {
+        zero(0, position);
+        buffer.force();
+        position = 0;
+    }
+
+    int sizeBytes() {
+        return position;
+    }
+
+    private void zero(int from, int to) {
+        for (int i = from; i < to; i += ZEROS.length) {
+            buffer.put(i, ZEROS, 0, Math.min(ZEROS.length, to - i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Virtual threads calling a monitor-bound repository directly and through the async facade:
+ * pinned events and how late a 1 ms heartbeat wakes up while the load runs
+ */
+public class AsyncPatientRepositoryBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = Runtime.getRuntime().availableProcessors() * 8;
+        AsyncPatientRepositoryTest.MonitorBoundRepository store = new AsyncPatientRepositoryTest.MonitorBoundRepository();
+        for (int i = 0; i < 100; i++) {
+            store.save(patient(i));
+        }
+
+        Path jfr = Files.createTempFile("pinning", ".jfr");
+        try {
+            AsyncPatientRepositoryTest.Load direct = AsyncPatientRepositoryTest.load(store, clients, jfr);
+            AsyncPatientRepositoryTest.Load offloaded;
+            try (AsyncPatientRepository async = new AsyncPatientRepository(store, 64)) {
+                offloaded = AsyncPatientRepositoryTest.load(async.blocking(), clients, jfr);
+            }
+            System.out.printf("Monitor-bound lookups, %d virtual-thread clients: direct %d pinned events, "
+                            + "heartbeat late by up to %.1f ms; async %d pinned events, heartbeat late by up to %.1f ms%n",
+                    clients, direct.pinnedEvents(), direct.heartbeatLateMillis(),
+                    offloaded.pinnedEvents(), offloaded.heartbeatLateMillis());
+        } finally {
+            Files.deleteIfExists(jfr);
+        }
+    }
+}
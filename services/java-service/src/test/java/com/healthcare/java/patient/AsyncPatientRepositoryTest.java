@@ -0,0 +1,167 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for the async facade, including a JFR check that virtual threads calling a
+ * monitor-bound repository through it are never pinned (AsyncPatientRepositoryBenchmark
+ * compares how promptly their carriers free up with and without the facade)
+ */
+@DisplayName("Async Repository Tests")
+public class AsyncPatientRepositoryTest {
+    private static final int BLOCK_MILLIS = 20;
+    private static final int CALLS_PER_CLIENT = 5;
+
+    /**
+     * Stands in for sqlite-jdbc: each lookup blocks while holding a monitor, as its native calls do
+     */
+    static final class MonitorBoundRepository extends InMemoryPatientRepository {
+        private final Object[] monitors = new Object[64];
+        private final AtomicInteger calls = new AtomicInteger();
+
+        MonitorBoundRepository() {
+            for (int i = 0; i < monitors.length; i++) {
+                monitors[i] = new Object();
+            }
+        }
+
+        @Override
+        public Optional<Patient> findById(Long id) {
+            synchronized (monitors[calls.getAndIncrement() & (monitors.length - 1)]) {
+                try {
+                    Thread.sleep(BLOCK_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findById(id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete futures on the pool and unwrap errors in the blocking view")
+    public void testFuturesAndBlockingView() {
+        try (AsyncPatientRepository async = new AsyncPatientRepository(new InMemoryPatientRepository(), 2)) {
+            Patient saved = async.save(patient(1)).join();
+            assertEquals(async.findById(saved.getId()).join().orElseThrow().getName(), "Patient 1");
+            assertEquals(async.count().join(), 1L);
+            assertEquals(async.submit(repository -> Thread.currentThread().isVirtual()).join(), false);
+
+            PatientService service = new PatientService(async.blocking());
+            service.create(patient(2));
+            assertThrows(DuplicateEmailException.class, () -> service.create(patient(2)));
+            assertEquals(service.getSummaryPage(null, 10).size(), 2);
+            assertTrue(async.insertIfEmailAbsent(patient(1)).join().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject calls once the work queue is full")
+    public void testBoundedQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (AsyncPatientRepository async = new AsyncPatientRepository(new InMemoryPatientRepository(), 1, 1)) {
+            CompletableFuture<Object> running = async.submit(repository -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            while (async.queuedCalls() > 0) {
+                Thread.onSpinWait();
+            }
+            CompletableFuture<Long> queued = async.count();
+            CompletionException rejected = assertThrows(CompletionException.class, () -> async.count().join());
+            assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+
+            release.countDown();
+            running.join();
+            assertEquals(queued.join(), 0L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should never pin a virtual thread while the storage blocks")
+    public void testNoPinningUnderLoad() throws Exception {
+        MonitorBoundRepository store = new MonitorBoundRepository();
+        for (int i = 0; i < 100; i++) {
+            store.save(patient(i));
+        }
+
+        Path jfr = Files.createTempFile("pinning", ".jfr");
+        try (AsyncPatientRepository async = new AsyncPatientRepository(store, 64)) {
+            assertEquals(load(async.blocking(), Runtime.getRuntime().availableProcessors() * 8, jfr).pinnedEvents(), 0L);
+        } finally {
+            Files.deleteIfExists(jfr);
+        }
+    }
+
+    record Load(long pinnedEvents, double heartbeatLateMillis) {}
+
+    /**
+     * GET load from virtual threads under a JFR recording, while one more virtual thread
+     * measures how late its 1 ms sleeps wake up
+     */
+    static Load load(PatientRepository repository, int clients, Path jfr) throws Exception {
+        PatientService service = new PatientService(repository);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong maxLateNanos = new AtomicLong();
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            Thread heartbeat = Thread.ofVirtual().start(() -> {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    maxLateNanos.accumulateAndGet(System.nanoTime() - start - 1_000_000, Math::max);
+                }
+            });
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int client = 0; client < clients; client++) {
+                    long id = client % 100 + 1;
+                    executor.submit(() -> {
+                        for (int i = 0; i < CALLS_PER_CLIENT; i++) {
+                            assertEquals(service.getById(id).getId(), id);
+                        }
+                        return null;
+                    });
+                }
+            }
+            running.set(false);
+            heartbeat.join();
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<?> pinned = RecordingFile.readAllEvents(jfr).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .toList();
+        return new Load(pinned.size(), maxLateNanos.get() / 1e6);
+    }
+}
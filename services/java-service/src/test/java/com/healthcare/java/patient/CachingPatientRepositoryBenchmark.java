@@ -0,0 +1,30 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.*;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Skewed GET throughput (80% of reads on 10% of IDs) against SQLite with and without
+ * a 1,000-entry cache
+ */
+public class CachingPatientRepositoryBenchmark {
+    public static void main(String[] args) throws Exception {
+        Path directory = tempDirectory("patients-cache-bench");
+        try (SQLitePatientRepository sqlite = new SQLitePatientRepository(directory.resolve("patients.db").toString())) {
+            sqlite.saveAll(IntStream.range(0, 10_000).mapToObj(PatientFixtures::patient).toList());
+            long gets = (long) SKEWED_CLIENTS * SKEWED_GETS_PER_CLIENT;
+
+            long uncached = time(() -> skewedGets(sqlite));
+            CachingPatientRepository cached = new CachingPatientRepository(sqlite, 1_000);
+            long withCache = time(() -> skewedGets(cached));
+            System.out.printf("SQLite GET by ID (80%% of reads on 10%% of IDs), %d clients: uncached %,.0f ops/s, "
+                            + "cached %,.0f ops/s (hit rate %.3f)%n", SKEWED_CLIENTS, perSecond(gets, uncached),
+                    perSecond(gets, withCache), cached.stats().hitRate());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for the caching decorator over the in-memory and SQLite repositories
+ * The skewed GET throughput comparison is in CachingPatientRepositoryBenchmark
+ */
+@DisplayName("Caching Repository Tests")
+public class CachingPatientRepositoryTest {
+    private Path directory;
+    private SQLitePatientRepository sqlite;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("patients-cache");
+        sqlite = new SQLitePatientRepository(directory.resolve("patients.db").toString());
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        sqlite.close();
+        try (var files = Files.list(directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache and hand out copies")
+    public void testHitsAndCopies() {
+        CachingPatientRepository repository = new CachingPatientRepository(sqlite, 100);
+        Patient saved = repository.save(patient(1));
+
+        Patient first = repository.findById(saved.getId()).orElseThrow();
+        first.setName("Mutated");
+        Patient second = repository.findById(saved.getId()).orElseThrow();
+
+        assertEquals(second.getName(), "Patient 1");
+        assertEquals(repository.idCacheStats().misses(), 1L);
+        assertEquals(repository.idCacheStats().hits(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should cache misses and drop them when the patient is created")
+    public void testNegativeCaching() {
+        CachingPatientRepository repository = new CachingPatientRepository(sqlite, 100);
+
+        assertFalse(repository.existsByEmail("patient1@test.com"));
+        assertFalse(repository.existsByEmail("patient1@test.com"));
+        assertTrue(repository.findById(1L).isEmpty());
+        assertTrue(repository.findById(1L).isEmpty());
+        assertEquals(repository.stats(), new CacheStats(2, 2, 0));
+
+        new PatientService(repository).create(patient(1));
+
+        assertTrue(repository.existsByEmail("patient1@test.com"));
+        assertEquals(repository.findById(1L).orElseThrow().getEmail(), "patient1@test.com");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the old and new email when an update changes it")
+    public void testUpdateInvalidatesEmails() {
+        CachingPatientRepository repository = new CachingPatientRepository(sqlite, 100);
+        PatientService service = new PatientService(repository);
+        Patient created = service.create(patient(1));
+        assertTrue(service.patientExistsByEmail("patient1@test.com"));
+        assertFalse(service.patientExistsByEmail("renamed@test.com"));
+
+        Patient changes = patient(1);
+        changes.setEmail("renamed@test.com");
+        service.update(created.getId(), changes);
+
+        assertFalse(service.patientExistsByEmail("patient1@test.com"));
+        assertTrue(service.patientExistsByEmail("renamed@test.com"));
+        assertEquals(service.getById(created.getId()).getEmail(), "renamed@test.com");
+
+        service.delete(created.getId());
+        assertFalse(service.patientExistsByEmail("renamed@test.com"));
+        assertTrue(repository.findById(created.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should answer each email spelling as the wrapped repository does")
+    public void testEmailSpelling() {
+        CachingPatientRepository caseSensitive = new CachingPatientRepository(sqlite, 100);
+        caseSensitive.save(patient("Bob", "Bob@test.com"));
+        assertTrue(caseSensitive.existsByEmail("Bob@test.com"));
+        assertFalse(caseSensitive.existsByEmail("bob@test.com"));
+        assertTrue(caseSensitive.existsByEmail("Bob@test.com"));
+
+        CachingPatientRepository caseInsensitive = new CachingPatientRepository(new InMemoryPatientRepository(), 100);
+        assertFalse(caseInsensitive.existsByEmail("ann@test.com"));
+        caseInsensitive.save(patient("Ann", "ANN@test.com"));
+        assertTrue(caseInsensitive.existsByEmail("ann@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate writes without reading the patient first")
+    public void testWritesSkipLookups() {
+        AtomicInteger reads = new AtomicInteger();
+        CachingPatientRepository repository = new CachingPatientRepository(new InMemoryPatientRepository() {
+            @Override
+            public Optional<Patient> findById(Long id) {
+                reads.incrementAndGet();
+                return super.findById(id);
+            }
+        }, 100);
+        List<Patient> saved = repository.saveAll(List.of(patient(1), patient(2), patient(3)));
+        assertTrue(repository.existsByEmail("patient1@test.com"));
+        assertTrue(repository.existsByEmail("patient2@test.com"));
+
+        Patient renamed = patient(1);
+        renamed.setId(saved.get(0).getId());
+        renamed.setEmail("renamed@test.com");
+        repository.save(renamed);
+        repository.delete(saved.get(1).getId());
+        repository.deleteAll(List.of(saved.get(2).getId()));
+        assertEquals(reads.get(), 0);
+
+        // Neither ID was cached, so the old emails' hits must not be trusted
+        assertFalse(repository.existsByEmail("patient1@test.com"));
+        assertFalse(repository.existsByEmail("patient2@test.com"));
+        assertTrue(repository.existsByEmail("renamed@test.com"));
+
+        assertEquals(repository.findById(renamed.getId()).orElseThrow().getEmail(), "renamed@test.com");
+        assertTrue(repository.existsByEmail("renamed@test.com"));
+        renamed.setEmail("again@test.com");
+        repository.updateIfPresent(renamed);
+        assertEquals(reads.get(), 1);
+        assertFalse(repository.existsByEmail("renamed@test.com"));
+        assertTrue(repository.existsByEmail("again@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate bulk writes and clear")
+    public void testBulkInvalidation() {
+        CachingPatientRepository repository = new CachingPatientRepository(new InMemoryPatientRepository(), 100);
+        List<Patient> saved = repository.saveAll(List.of(patient(1), patient(2), patient(3)));
+        saved.forEach(patient -> assertTrue(repository.findById(patient.getId()).isPresent()));
+
+        repository.deleteAll(List.of(saved.get(0).getId(), saved.get(1).getId()));
+        assertTrue(repository.findById(saved.get(0).getId()).isEmpty());
+        assertFalse(repository.existsByEmail("patient2@test.com"));
+        assertTrue(repository.existsByEmail("patient3@test.com"));
+
+        repository.clear();
+        assertTrue(repository.findById(saved.get(2).getId()).isEmpty());
+        assertFalse(repository.existsByEmail("patient3@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should keep a frequently used working set through a one-off scan")
+    public void testScanResistance() {
+        InMemoryPatientRepository store = new InMemoryPatientRepository();
+        for (int i = 0; i < 2_000; i++) {
+            store.save(patient(i));
+        }
+        CachingPatientRepository repository = new CachingPatientRepository(store, 100);
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 50; id++) {
+                repository.findById(id);
+            }
+        }
+        for (long id = 51; id <= 2_000; id++) {
+            repository.findById(id);
+        }
+
+        CacheStats before = repository.idCacheStats();
+        for (long id = 1; id <= 50; id++) {
+            repository.findById(id);
+        }
+        CacheStats after = repository.idCacheStats();
+
+        // An LRU of 100 entries would have lost every hot ID to the 1,950-ID scan
+        assertTrue(before.evictions() > 0);
+        assertTrue(after.hits() - before.hits() >= 45, "Hot IDs should survive the scan");
+    }
+
+    @Test
+    @DisplayName("Should serve most of a skewed GET load from the cache")
+    public void testSkewedGetHitRate() {
+        sqlite.saveAll(IntStream.range(0, 10_000).mapToObj(PatientFixtures::patient).toList());
+        CachingPatientRepository cached = new CachingPatientRepository(sqlite, 1_000);
+        PatientFixtures.skewedGets(cached);
+        assertTrue(cached.stats().hitRate() > 0.5);
+    }
+}
@@ -0,0 +1,30 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+/**
+ * In-memory update throughput with and without change capture (best of three rounds)
+ */
+public class ChangeCapturingPatientRepositoryBenchmark {
+    private static final int UPDATES = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        InMemoryPatientRepository plain = new InMemoryPatientRepository();
+        ChangeCapturingPatientRepository captured =
+                new ChangeCapturingPatientRepository(new InMemoryPatientRepository(), 65_536);
+        long plainNanos = bestOf(3, () -> updates(plain));
+        long capturedNanos = bestOf(3, () -> updates(captured));
+        System.out.printf("In-memory updates: %,.0f/s plain, %,.0f/s with change capture%n",
+                perSecond(UPDATES, plainNanos), perSecond(UPDATES, capturedNanos));
+    }
+
+    private static void updates(PatientRepository repository) {
+        repository.clear();
+        Patient saved = repository.save(patient(1));
+        for (int i = 0; i < UPDATES; i++) {
+            saved.setPhone("555-" + (i & 1023));
+            repository.save(saved);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for change-data-capture: sequencing, tailing, overflow resync, and a replica kept
+ * in step with concurrent writers purely from the change log
+ */
+@DisplayName("Change Capture Tests")
+public class ChangeCapturingPatientRepositoryTest {
+    private static final int WRITERS = 8;
+    private static final int WRITES_PER_WRITER = 20_000;
+
+    @Test
+    @DisplayName("Should number every successful write and skip failed ones")
+    public void testSequencing() {
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository(), 16);
+        Patient saved = repository.save(patient(1));
+        saved.setName("Renamed");
+        repository.save(saved);
+        assertThrows(DuplicateEmailException.class, () -> repository.save(patient(1)));
+        assertTrue(repository.insertIfEmailAbsent(patient(1)).isEmpty());
+        Patient other = repository.insertIfEmailAbsent(patient(2)).orElseThrow();
+        repository.delete(saved.getId());
+        repository.clear();
+
+        ChangeBatch batch = repository.changes().read(0, 100);
+        assertFalse(batch.resyncRequired());
+        assertEquals(batch.lastSequence(), 5L);
+        assertEquals(batch.changes().stream().map(PatientChange::sequence).toList(), List.of(1L, 2L, 3L, 4L, 5L));
+        assertEquals(batch.changes().stream().map(PatientChange::type).toList(), List.of(
+                PatientChange.Type.SAVED, PatientChange.Type.SAVED, PatientChange.Type.SAVED,
+                PatientChange.Type.DELETED, PatientChange.Type.CLEARED));
+        assertEquals(batch.changes().get(0).patient().getName(), "Patient 1");
+        assertEquals(batch.changes().get(1).patient().getName(), "Renamed");
+        assertEquals(batch.changes().get(2).patientId(), (long) other.getId());
+        assertEquals(batch.changes().get(3).patientId(), (long) saved.getId());
+
+        saved.setName("Mutated after save");
+        assertEquals(repository.changes().read(1, 1).changes().get(0).patient().getName(), "Renamed");
+        assertEquals(repository.changes().read(3, 100).changes().size(), 2);
+        assertTrue(repository.changes().read(5, 100).changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should capture only the patients a bulk insert actually inserted")
+    public void testInsertAll() {
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository(), 16);
+        repository.save(patient(1));
+        List<Patient> inserted = repository.insertAllIfEmailAbsent(List.of(patient(1), patient(2), patient(3)));
+
+        ChangeBatch batch = repository.changes().read(1, 100);
+        assertEquals(batch.changes().stream().map(PatientChange::patientId).toList(),
+                inserted.stream().map(Patient::getId).toList());
+        assertEquals(batch.changes().get(1).patient().getEmail(), "patient3@test.com");
+    }
+
+    @Test
+    @DisplayName("Should not capture a new patient that was deleted before its insert returned")
+    public void testInsertRacingDelete() {
+        ChangeCapturingPatientRepository[] capturing = new ChangeCapturingPatientRepository[1];
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository() {
+            // Another client finds the committed row in a scan and deletes it before the capture
+            @Override
+            public Patient save(Patient patient) {
+                Patient saved = super.save(patient);
+                capturing[0].delete(saved.getId());
+                return saved;
+            }
+        }, 16);
+        capturing[0] = repository;
+
+        Patient saved = repository.save(patient(1));
+        ChangeBatch batch = repository.changes().read(0, 100);
+        assertEquals(batch.changes().stream().map(PatientChange::type).toList(), List.of(PatientChange.Type.DELETED));
+        assertEquals(batch.changes().get(0).patientId(), (long) saved.getId());
+    }
+
+    @Test
+    @DisplayName("Should capture the rows a failing saveAll stored")
+    public void testPartialSaveAll() {
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository() {
+            @Override
+            public List<Patient> saveAll(Collection<Patient> patients) {
+                super.save(patients.iterator().next());
+                throw new IllegalStateException("Failed mid-batch");
+            }
+        }, 16);
+        assertThrows(IllegalStateException.class, () -> repository.saveAll(List.of(patient(1), patient(2))));
+
+        ChangeBatch batch = repository.changes().read(0, 100);
+        assertEquals(batch.changes().size(), 1);
+        assertEquals(batch.changes().get(0).patient().getEmail(), "patient1@test.com");
+        assertEquals(names(repository), Map.of(batch.changes().get(0).patientId(), "Patient 1"));
+    }
+
+    @Test
+    @DisplayName("Should wake a tailing reader when a change is published")
+    public void testTailing() throws Exception {
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository(), 16);
+        ChangeLog changes = repository.changes();
+        assertTrue(changes.await(0, 10, Duration.ofMillis(20)).changes().isEmpty());
+
+        CompletableFuture<ChangeBatch> tail = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changes.await(0, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        repository.save(patient(1));
+        ChangeBatch batch = tail.get();
+        assertEquals(batch.changes().size(), 1);
+        assertEquals(batch.lastSequence(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should signal resync to a reader that fell behind the ring")
+    public void testOverflow() {
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(new InMemoryPatientRepository(), 10);
+        assertEquals(repository.changes().capacity(), 16);
+        for (int i = 0; i < 40; i++) {
+            repository.save(patient(i));
+        }
+        ChangeBatch behind = repository.changes().read(5, 100);
+        assertTrue(behind.resyncRequired());
+        assertTrue(behind.changes().isEmpty());
+        assertEquals(behind.lastSequence(), 40L);
+
+        ChangeBatch oldest = repository.changes().read(24, 100);
+        assertFalse(oldest.resyncRequired());
+        assertEquals(oldest.changes().size(), 16);
+        assertEquals(oldest.changes().get(0).sequence(), 25L);
+    }
+
+    @Test
+    @DisplayName("Should keep a replica identical to the store under concurrent writers")
+    public void testReplicaUnderConcurrentWrites() throws Exception {
+        InMemoryPatientRepository store = new InMemoryPatientRepository();
+        ChangeCapturingPatientRepository repository = new ChangeCapturingPatientRepository(store, 256);
+        List<Long> ids = repository.saveAll(IntStream.range(0, 500).mapToObj(
+                PatientFixtures::patient).toList()).stream().map(Patient::getId).toList();
+
+        Replica replica = new Replica(repository);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread tailer = Thread.ofPlatform().start(() -> replica.tail(writing));
+
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                        int index = random.nextInt(ids.size());
+                        long id = ids.get(index);
+                        if (random.nextInt(10) == 0) {
+                            repository.delete(id);
+                        } else {
+                            Patient update = patient(index);
+                            update.setId(id);
+                            update.setName("Patient " + id + " v" + random.nextInt(1_000));
+                            repository.save(update);
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        tailer.join();
+
+        assertEquals(replica.patients, names(store));
+        assertEquals(replica.lastSequence, repository.changes().lastSequence());
+    }
+
+    private static Map<Long, String> names(PatientRepository repository) {
+        return repository.findAll().stream().collect(Collectors.toMap(Patient::getId, Patient::getName));
+    }
+
+    /**
+     * Tails the log into a map, reloading from the store whenever it falls too far behind
+     */
+    private static final class Replica {
+        private final ChangeCapturingPatientRepository repository;
+        private Map<Long, String> patients = new HashMap<>();
+        private long lastSequence;
+
+        Replica(ChangeCapturingPatientRepository repository) {
+            this.repository = repository;
+            this.lastSequence = repository.changes().lastSequence();
+            this.patients = names(repository);
+        }
+
+        void tail(AtomicBoolean writing) {
+            ChangeLog changes = repository.changes();
+            try {
+                while (writing.get() || lastSequence < changes.lastSequence()) {
+                    ChangeBatch batch = changes.await(lastSequence, 512, Duration.ofMillis(10));
+                    if (batch.resyncRequired()) {
+                        patients = names(repository);
+                    }
+                    for (PatientChange change : batch.changes()) {
+                        switch (change.type()) {
+                            case SAVED -> patients.put(change.patientId(), change.patient().getName());
+                            case DELETED -> patients.remove(change.patientId());
+                            case CLEARED -> patients.clear();
+                        }
+                    }
+                    lastSequence = batch.lastSequence();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
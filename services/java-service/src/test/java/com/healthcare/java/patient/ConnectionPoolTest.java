@@ -0,0 +1,234 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the bounded JDBC connection pool, using proxy connections so no driver is needed
+ */
+@DisplayName("Connection Pool Tests")
+public class ConnectionPoolTest {
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    /**
+     * Minimal Connection state behind a dynamic proxy
+     */
+    private static final class FakeConnection {
+        boolean closed;
+        boolean valid = true;
+        boolean autoCommit = true;
+        int rollbacks;
+        int prepares;
+        int statementsClosed;
+        final List<String> executed = new ArrayList<>();
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> { closed = true; yield null; }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid && !closed;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> { autoCommit = (Boolean) args[0]; yield null; }
+                        case "rollback" -> { rollbacks++; yield null; }
+                        case "prepareStatement" -> { prepares++; yield statement(); }
+                        case "createStatement" -> statement();
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+
+        PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> { statementsClosed++; yield null; }
+                        case "execute" -> { executed.add((String) args[0]); yield false; }
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    });
+        }
+    }
+
+    private ConnectionPool pool(int size, Duration validateAfter, Duration idleTimeout) {
+        return pool(size, validateAfter, idleTimeout, 0);
+    }
+
+    private ConnectionPool pool(int size, Duration validateAfter, Duration idleTimeout, int statementCacheSize) {
+        pool = new ConnectionPool(() -> {
+            FakeConnection connection = new FakeConnection();
+            synchronized (opened) {
+                opened.add(connection);
+            }
+            return connection.proxy();
+        }, size, Duration.ofMillis(200), validateAfter, idleTimeout, statementCacheSize);
+        return pool;
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (pool != null) pool.close();
+    }
+
+    @Test
+    @DisplayName("Should reuse a returned connection instead of opening another")
+    public void testReuse() throws SQLException {
+        ConnectionPool pool = pool(2, Duration.ofSeconds(5), Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            try (Connection connection = pool.borrow()) {
+                assertFalse(connection.isClosed());
+            }
+        }
+        assertEquals(opened.size(), 1);
+        assertEquals(pool.openCount(), 1);
+        assertEquals(pool.idleCount(), 1);
+        assertFalse(opened.get(0).closed);
+    }
+
+    @Test
+    @DisplayName("Should never exceed the pool size and time out when exhausted")
+    public void testBounded() throws Exception {
+        ConnectionPool pool = pool(3, Duration.ofSeconds(5), Duration.ZERO);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                executor.submit(() -> {
+                    try (Connection connection = pool.borrow()) {
+                        peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        Thread.sleep(2);
+                        inUse.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        assertTrue(peak.get() <= 3);
+        assertTrue(opened.size() <= 3);
+
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        Connection c = pool.borrow();
+        assertThrows(SQLException.class, pool::borrow);
+        a.close();
+        pool.borrow().close();
+        b.close();
+        c.close();
+    }
+
+    @Test
+    @DisplayName("Should roll back open transactions and reject use after return")
+    public void testResetOnReturn() throws SQLException {
+        ConnectionPool pool = pool(1, Duration.ofSeconds(5), Duration.ZERO);
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        connection.close();
+        connection.close(); // second close is a no-op
+
+        assertEquals(opened.get(0).rollbacks, 1);
+        assertTrue(opened.get(0).autoCommit);
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+    }
+
+    @Test
+    @DisplayName("Should roll back a transaction begun with SQL under auto-commit")
+    public void testResetRawTransaction() throws SQLException {
+        ConnectionPool pool = pool(1, Duration.ofSeconds(5), Duration.ZERO);
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("BEGIN IMMEDIATE");
+            stmt.execute("SAVEPOINT write");
+            stmt.execute("ROLLBACK TO write");
+        }
+        assertEquals(opened.get(0).executed, List.of("BEGIN IMMEDIATE", "SAVEPOINT write", "ROLLBACK TO write", "ROLLBACK"));
+
+        opened.get(0).executed.clear();
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("begin");
+            stmt.execute("COMMIT");
+        }
+        assertEquals(opened.get(0).executed, List.of("begin", "COMMIT"));
+        assertEquals(opened.size(), 1);
+    }
+
+    @Test
+    @DisplayName("Should replace connections that fail validation")
+    public void testValidation() throws SQLException {
+        ConnectionPool pool = pool(1, Duration.ZERO, Duration.ZERO);
+        pool.borrow().close();
+        opened.get(0).valid = false;
+
+        pool.borrow().close();
+        assertEquals(opened.size(), 2);
+        assertTrue(opened.get(0).closed);
+        assertEquals(pool.openCount(), 1);
+    }
+
+    @Test
+    @DisplayName("Should evict idle connections in the background")
+    public void testIdleEviction() throws Exception {
+        ConnectionPool pool = pool(2, Duration.ofSeconds(5), Duration.ofMillis(20));
+        Connection a = pool.borrow();
+        Connection b = pool.borrow();
+        a.close();
+        b.close();
+        assertEquals(pool.idleCount(), 2);
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (pool.idleCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(pool.idleCount(), 0);
+        assertEquals(pool.openCount(), 0);
+        assertTrue(opened.stream().allMatch(connection -> connection.closed));
+    }
+
+    @Test
+    @DisplayName("Should reuse prepared statements per connection and close them on eviction")
+    public void testStatementCache() throws SQLException {
+        ConnectionPool pool = pool(1, Duration.ofSeconds(5), Duration.ZERO, 2);
+        for (int i = 0; i < 10; i++) {
+            try (Connection connection = pool.borrow();
+                 PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                assertFalse(statement.isClosed());
+            }
+        }
+        FakeConnection physical = opened.get(0);
+        assertEquals(physical.prepares, 1);
+        assertEquals(physical.statementsClosed, 0);
+        assertEquals(pool.statementCacheStats(), new CacheStats(9, 1, 0));
+
+        try (Connection connection = pool.borrow()) {
+            // The same SQL twice at once: the second copy is not cached
+            try (PreparedStatement first = connection.prepareStatement("SELECT 1");
+                 PreparedStatement second = connection.prepareStatement("SELECT 1")) {
+                assertNotSame(first, second);
+            }
+            assertEquals(physical.statementsClosed, 1);
+
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 3").close(); // evicts SELECT 1
+        }
+        assertEquals(physical.statementsClosed, 2);
+        assertEquals(pool.statementCacheStats().evictions(), 1L);
+
+        pool.close();
+        assertEquals(physical.statementsClosed, 4);
+    }
+}
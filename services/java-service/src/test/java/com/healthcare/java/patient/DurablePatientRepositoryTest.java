@@ -0,0 +1,243 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the write-ahead-logged in-memory repository
+ * Each test reopens the repository from the same directory to simulate a restart
+ */
+@DisplayName("Durable Repository Tests")
+public class DurablePatientRepositoryTest {
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("patients-durable");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private DurablePatientRepository open(long snapshotEvery) {
+        return DurablePatientRepository.builder(directory)
+                .logCapacityBytes(64 * 1024)
+                .snapshotEvery(snapshotEvery)
+                .open();
+    }
+
+    @Test
+    @DisplayName("Should recover saves, updates and deletes from the log")
+    public void testRecoverFromLog() throws IOException {
+        try (DurablePatientRepository repo = open(1_000)) {
+            PatientService service = new PatientService(repo);
+            Patient p1 = service.create(patient(1));
+            Patient p2 = service.create(patient(2));
+            service.create(patient(3));
+            service.update(p1.getId(), Patient.builder()
+                    .name("Renamed").email("renamed@test.com").phone("555-0").birthDate(LocalDate.of(1960, 1, 1)).build());
+            service.delete(p2.getId());
+        }
+
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 2);
+            assertEquals(repo.findById(1L).orElseThrow().getName(), "Renamed");
+            assertTrue(repo.existsByEmail("renamed@test.com"));
+            assertFalse(repo.existsByEmail("patient1@test.com"));
+            assertTrue(repo.findById(2L).isEmpty());
+            assertEquals(repo.save(patient(4)).getId(), 4L, "IDs must not be reused after restart");
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover from snapshot plus log tail")
+    public void testRecoverFromSnapshotAndLog() throws IOException {
+        try (DurablePatientRepository repo = open(10)) {
+            for (int i = 0; i < 25; i++) {
+                repo.save(patient(i));
+            }
+            repo.delete(25L);
+        }
+        assertTrue(Files.exists(directory.resolve(DurablePatientRepository.SNAPSHOT_FILE)));
+
+        try (DurablePatientRepository repo = open(10)) {
+            assertEquals(repo.count(), 24);
+            assertTrue(repo.findById(25L).isEmpty());
+            assertEquals(repo.findByNameContaining("Patient 13").size(), 1);
+            assertEquals(repo.save(patient(99)).getId(), 26L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover bulk saves and deletes")
+    public void testRecoverBatch() throws IOException {
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.saveAll(List.of(patient(1), patient(2), patient(3)));
+            repo.deleteAll(List.of(1L, 3L));
+            assertTrue(repo.insertIfEmailAbsent(patient(2)).isEmpty());
+            assertEquals(repo.insertIfEmailAbsent(patient(4)).orElseThrow().getId(), 4L);
+        }
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 2);
+            assertTrue(repo.existsByEmail("patient2@test.com"));
+            assertTrue(repo.existsByEmail("patient4@test.com"));
+            assertEquals(repo.save(patient(5)).getId(), 5L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore null IDs in delete and deleteAll")
+    public void testDeleteNullId() throws IOException {
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.saveAll(List.of(patient(1), patient(2)));
+            repo.delete(null);
+            repo.deleteAll(Arrays.asList(1L, null));
+        }
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 1);
+            assertTrue(repo.findById(2L).isPresent());
+        }
+    }
+
+    @Test
+    @DisplayName("Should snapshot automatically when the log fills up")
+    public void testLogFullTriggersCheckpoint() throws IOException {
+        try (DurablePatientRepository repo = open(Long.MAX_VALUE)) {
+            for (int i = 0; i < 2_000; i++) {
+                repo.save(patient(i));
+            }
+        }
+        try (DurablePatientRepository repo = open(Long.MAX_VALUE)) {
+            assertEquals(repo.count(), 2_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep writes made while a checkpoint is being written")
+    public void testCheckpointDuringWrites() throws Exception {
+        int writers = 4;
+        int perWriter = 500;
+        try (DurablePatientRepository repo = open(50)) {
+            try (ExecutorService executor = Executors.newFixedThreadPool(writers + 1)) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    int offset = w * perWriter;
+                    tasks.add(executor.submit(() -> {
+                        for (int i = 0; i < perWriter; i++) {
+                            repo.save(patient(offset + i));
+                        }
+                        return null;
+                    }));
+                }
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        repo.checkpoint();
+                    }
+                    return null;
+                }));
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            }
+        }
+        try (DurablePatientRepository repo = open(50)) {
+            assertEquals(repo.count(), (long) writers * perWriter);
+            assertEquals(repo.save(patient(writers * perWriter)).getId(), writers * perWriter + 1L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should finish a checkpoint interrupted before the old log was emptied")
+    public void testInterruptedCheckpoint() throws IOException {
+        Path saved = directory.resolve("saved.wal");
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.save(patient(1));
+            repo.save(patient(2));
+        }
+        Files.copy(directory.resolve(DurablePatientRepository.LOG_FILE), saved);
+
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.save(patient(3));
+            repo.checkpoint();
+            repo.save(patient(4));
+        }
+        // As if the crash hit after the snapshot was swapped in but before its log was emptied
+        Files.copy(saved, directory.resolve(DurablePatientRepository.LOG_FILE), StandardCopyOption.REPLACE_EXISTING);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try (DurablePatientRepository repo = open(1_000)) {
+                assertEquals(repo.count(), 4);
+                assertTrue(repo.existsByEmail("patient4@test.com"));
+            }
+        }
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.save(patient(5)).getId(), 5L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep and log the patients before a duplicate email in saveAll")
+    public void testSaveAllStopsAtDuplicate() throws IOException {
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.save(patient(2));
+            assertThrows(DuplicateEmailException.class,
+                    () -> repo.saveAll(List.of(patient(1), patient(2), patient(3))));
+        }
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 2);
+            assertTrue(repo.existsByEmail("patient1@test.com"));
+            assertFalse(repo.existsByEmail("patient3@test.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore a torn record at the end of the log")
+    public void testTornTail() throws IOException {
+        try (DurablePatientRepository repo = open(1_000)) {
+            repo.save(patient(1));
+            repo.save(patient(2));
+        }
+
+        // Corrupt the checksum of the second record
+        Path logFile = directory.resolve(DurablePatientRepository.LOG_FILE);
+        try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw")) {
+            int firstLength = file.readInt();
+            long secondChecksum = WriteAheadLog.HEADER_BYTES + firstLength + Integer.BYTES;
+            file.seek(secondChecksum);
+            file.writeInt(0xDEADBEEF);
+        }
+
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 1);
+            assertTrue(repo.existsByEmail("patient1@test.com"));
+            repo.save(patient(3));
+        }
+        try (DurablePatientRepository repo = open(1_000)) {
+            assertEquals(repo.count(), 2);
+            assertTrue(repo.existsByEmail("patient3@test.com"));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+
+/**
+ * EmailIndex.contains cost at 1K and 1M entries; a hash index should stay flat
+ */
+public class EmailIndexBenchmark {
+    private static final int LOOKUPS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        EmailIndex index = new EmailIndex();
+        int previous = 0;
+
+        for (int size : new int[]{1_000, 1_000_000}) {
+            for (int i = previous; i < size; i++) {
+                index.claim("patient" + i + "@test.com", i);
+            }
+            previous = size;
+
+            String[] probes = new String[1_000];
+            for (int i = 0; i < probes.length; i++) {
+                probes[i] = "patient" + (i * 7919 % size) + "@test.com";
+            }
+
+            int[] hits = new int[1];
+            long elapsed = time(() -> {
+                for (int i = 0; i < LOOKUPS; i++) {
+                    if (index.contains(probes[i % probes.length])) hits[0]++;
+                }
+            });
+            if (hits[0] != LOOKUPS) throw new IllegalStateException("Missed lookups: " + (LOOKUPS - hits[0]));
+            System.out.printf("EmailIndex: %,9d entries -> %,d ns/lookup%n", size, elapsed / LOOKUPS);
+        }
+    }
+}
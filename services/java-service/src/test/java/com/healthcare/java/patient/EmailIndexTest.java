@@ -0,0 +1,76 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+/**
+ * Tests for the email uniqueness index and its maintenance by InMemoryPatientRepository
+ */
+@DisplayName("Email Index Tests")
+public class EmailIndexTest {
+    private InMemoryPatientRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new InMemoryPatientRepository();
+    }
+
+    @Test
+    @DisplayName("Should match emails case-insensitively")
+    public void testNormalizedLookup() {
+        repository.save(patient("John", "John.Doe@Example.com"));
+        assertTrue(repository.existsByEmail("john.doe@example.com"));
+        assertTrue(repository.existsByEmail(" JOHN.DOE@EXAMPLE.COM "));
+    }
+
+    @Test
+    @DisplayName("Should release old email when an update changes it")
+    public void testUpdateMovesEmail() {
+        Patient saved = repository.save(patient("John", "old@test.com"));
+        saved.setEmail("new@test.com");
+        repository.save(saved);
+
+        assertFalse(repository.existsByEmail("old@test.com"));
+        assertTrue(repository.existsByEmail("new@test.com"));
+        assertTrue(repository.insertIfEmailAbsent(patient("Other", "old@test.com")).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should release email on delete and clear")
+    public void testDeleteAndClear() {
+        Patient p1 = repository.save(patient("P1", "p1@test.com"));
+        repository.save(patient("P2", "p2@test.com"));
+
+        repository.delete(p1.getId());
+        assertFalse(repository.existsByEmail("p1@test.com"));
+        assertTrue(repository.existsByEmail("p2@test.com"));
+
+        repository.clear();
+        assertFalse(repository.existsByEmail("p2@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should reject saving a second patient with a taken email")
+    public void testSaveDuplicateRejected() {
+        repository.save(patient("P1", "dup@test.com"));
+        assertThrows(IllegalArgumentException.class, () -> repository.save(patient("P2", "DUP@test.com")));
+        assertEquals(repository.count(), 1);
+    }
+
+    @Test
+    @DisplayName("Should find every claimed email in a large index")
+    public void testLargeIndex() {
+        EmailIndex index = new EmailIndex();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(index.claim("patient" + i + "@test.com", i));
+        }
+        for (int i = 0; i < 100_000; i += 7) {
+            assertTrue(index.contains("Patient" + i + "@test.com"));
+        }
+        assertFalse(index.contains("patient100000@test.com"));
+        assertEquals(index.size(), 100_000);
+    }
+}
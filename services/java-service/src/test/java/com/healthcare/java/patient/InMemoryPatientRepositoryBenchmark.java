@@ -0,0 +1,35 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InMemoryPatientRepository throughput from 1 thread up to the core count, on a mixed
+ * workload of one insert for every three point reads
+ */
+public class InMemoryPatientRepositoryBenchmark {
+    private static final int OPS_PER_THREAD = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            InMemoryPatientRepository repository = new InMemoryPatientRepository();
+            AtomicInteger thread = new AtomicInteger();
+            long nanos = concurrently(threads, () -> {
+                int t = thread.getAndIncrement();
+                long lastId = 1;
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    if (i % 4 == 0) {
+                        lastId = repository.save(patient("T" + t, "t" + t + "-" + i + "@test.com")).getId();
+                    } else {
+                        repository.findById(lastId);
+                    }
+                }
+            });
+            System.out.printf("InMemoryPatientRepository: %2d threads -> %,.0f ops/s%n",
+                    threads, perSecond((long) threads * OPS_PER_THREAD, nanos));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded tests for InMemoryPatientRepository
+ * Verifies ID uniqueness, email uniqueness and index agreement under contention;
+ * throughput scaling is measured by InMemoryPatientRepositoryBenchmark
+ */
+@DisplayName("In-Memory Repository Concurrency Tests")
+public class InMemoryPatientRepositoryConcurrencyTest {
+    private InMemoryPatientRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new InMemoryPatientRepository();
+    }
+
+    @Test
+    @DisplayName("Should assign unique IDs from concurrent virtual threads")
+    public void testConcurrentSaveUniqueIds() throws Exception {
+        int tasks = 200;
+        int perTask = 50;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < tasks; t++) {
+                int task = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < perTask; i++) {
+                        ids.add(repository.save(patient("P" + task, "p" + task + "-" + i + "@test.com")).getId());
+                    }
+                });
+            }
+        }
+
+        assertEquals(ids.size(), tasks * perTask, "Every save should get a distinct ID");
+        assertEquals(repository.count(), (long) tasks * perTask);
+    }
+
+    @Test
+    @DisplayName("Should let exactly one writer claim a contended email")
+    public void testInsertIfEmailAbsentSingleWinner() throws Exception {
+        int contenders = 100;
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < contenders; t++) {
+                int task = t;
+                executor.submit(() -> {
+                    start.await();
+                    if (repository.insertIfEmailAbsent(patient("P" + task, "same@test.com")).isPresent()) {
+                        winners.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(winners.get(), 1);
+        assertEquals(repository.count(), 1);
+    }
+
+    @Test
+    @DisplayName("Should keep the map and every index in agreement under racing save and delete of one ID")
+    public void testConcurrentSaveAndDeleteOfOneId() throws Exception {
+        // Platform threads, so the scheduler can preempt a write halfway through its indexes
+        for (int round = 0; round < 10; round++) {
+            repository.clear();
+            CountDownLatch start = new CountDownLatch(1);
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                for (int t = 0; t < 4; t++) {
+                    int task = t;
+                    executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < 5_000; i++) {
+                            if (task % 2 == 0) {
+                                repository.delete(7L);
+                            } else {
+                                repository.save(Patient.builder().id(7L).name("Racer " + task + "-" + i % 3)
+                                        .email("racer" + task + "-" + i % 3 + "@test.com")
+                                        .birthDate(LocalDate.of(1980 + i % 3, 1, 1)).build());
+                            }
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+            }
+            assertIndexesAgree();
+        }
+    }
+
+    private void assertIndexesAgree() {
+        Optional<Patient> stored = repository.findById(7L);
+        List<Long> claimed = new ArrayList<>();
+        for (int task = 1; task < 4; task += 2) {
+            for (int i = 0; i < 3; i++) {
+                if (repository.existsByEmail("racer" + task + "-" + i + "@test.com")) claimed.add((long) (task * 10 + i));
+            }
+        }
+        List<Patient> named = repository.findByNameContaining("Racer");
+        List<Patient> born = repository.findByBirthDateBetween(null, null);
+
+        if (stored.isEmpty()) {
+            assertEquals(claimed, List.of());
+            assertEquals(named, List.of());
+            assertEquals(born, List.of());
+            assertEquals(repository.findPage(null, 10), List.of());
+            assertEquals(repository.count(), 0L);
+            return;
+        }
+        Patient patient = stored.get();
+        assertEquals(claimed.size(), 1, "Exactly the stored email should be claimed");
+        assertTrue(repository.existsByEmail(patient.getEmail()));
+        assertEquals(named, List.of(patient));
+        assertEquals(repository.findByNameContaining(patient.getName()), List.of(patient));
+        assertEquals(born, List.of(patient));
+        assertEquals(repository.findByBirthDateBetween(patient.getBirthDate(), patient.getBirthDate()), List.of(patient));
+        assertEquals(repository.findPage(null, 10), List.of(patient));
+        assertEquals(repository.findAll(), List.of(patient));
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LongObjectMap against HashMap<Long, V>: put and get throughput (best of five rounds)
+ * and retained bytes per entry
+ */
+public class LongObjectMapBenchmark {
+    private static final int ENTRIES = 500_000;
+    private static final int ROUNDS = 5;
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        long[] keys = new long[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = i + 1;
+        }
+
+        LongObjectMap<String> primitive = new LongObjectMap<>();
+        long primitivePut = bestOf(ROUNDS, () -> {
+            primitive.clear();
+            for (long key : keys) primitive.put(key, "v");
+        });
+        long primitiveGet = bestOf(ROUNDS, () -> {
+            for (long key : keys) sink += primitive.get(key).length();
+        });
+
+        Map<Long, String> boxed = new HashMap<>();
+        long boxedPut = bestOf(ROUNDS, () -> {
+            boxed.clear();
+            for (long key : keys) boxed.put(key, "v");
+        });
+        long boxedGet = bestOf(ROUNDS, () -> {
+            for (long key : keys) sink += boxed.get(key).length();
+        });
+
+        long primitiveBytes = retainedBytes(() -> {
+            LongObjectMap<String> map = new LongObjectMap<>();
+            for (long key : keys) map.put(key, "v");
+            return map;
+        });
+        long boxedBytes = retainedBytes(() -> {
+            Map<Long, String> map = new HashMap<>();
+            for (long key : keys) map.put(key, "v");
+            return map;
+        });
+
+        System.out.printf("LongObjectMap:       put %,.1f Mops/s, get %,.1f Mops/s, %.1f bytes/entry%n",
+                perSecond(ENTRIES, primitivePut) / 1e6, perSecond(ENTRIES, primitiveGet) / 1e6,
+                (double) primitiveBytes / ENTRIES);
+        System.out.printf("HashMap<Long, V>:    put %,.1f Mops/s, get %,.1f Mops/s, %.1f bytes/entry%n",
+                perSecond(ENTRIES, boxedPut) / 1e6, perSecond(ENTRIES, boxedGet) / 1e6,
+                (double) boxedBytes / ENTRIES);
+    }
+}
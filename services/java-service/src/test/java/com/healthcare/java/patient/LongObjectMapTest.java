@@ -0,0 +1,94 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for the primitive long-keyed map
+ * The comparison with HashMap<Long, V> is in LongObjectMapBenchmark
+ */
+@DisplayName("Long Object Map Tests")
+public class LongObjectMapTest {
+    private LongObjectMap<String> map;
+
+    @BeforeEach
+    public void setUp() {
+        map = new LongObjectMap<>();
+    }
+
+    @Test
+    @DisplayName("Should put, get, replace and remove")
+    public void testBasicOperations() {
+        assertNull(map.put(1L, "a"));
+        assertEquals(map.put(1L, "b"), "a");
+        assertEquals(map.get(1L), "b");
+        assertEquals(map.remove(1L), "b");
+        assertNull(map.get(1L));
+        assertNull(map.remove(1L));
+        assertEquals(map.size(), 0);
+
+        map.put(1L, "c");
+        assertEquals(map.get(1L), "c");
+        assertEquals(map.size(), 1);
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, "zero"));
+    }
+
+    @Test
+    @DisplayName("Should survive growth and reclaim removed slots")
+    public void testGrowthAndRemoval() {
+        for (long id = 1; id <= 100_000; id++) {
+            map.put(id, "v" + id);
+        }
+        for (long id = 1; id <= 100_000; id += 2) {
+            map.remove(id);
+        }
+        for (long id = 100_001; id <= 150_000; id++) {
+            map.put(id, "v" + id);
+        }
+
+        assertEquals(map.size(), 100_000);
+        assertNull(map.get(99_999L));
+        assertEquals(map.get(100_000L), "v100000");
+        assertEquals(map.get(150_000L), "v150000");
+        assertEquals(map.values().size(), 100_000);
+
+        map.clear();
+        assertEquals(map.size(), 0);
+        assertNull(map.get(100_000L));
+    }
+
+    @Test
+    @DisplayName("Should never expose a torn entry to concurrent readers")
+    public void testConcurrentReaders() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean torn = new AtomicBoolean();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            for (int r = 0; r < 2; r++) {
+                executor.submit(() -> {
+                    while (!done.get()) {
+                        for (long id = 1; id <= 20_000; id += 97) {
+                            String value = map.get(id);
+                            if (value != null && !value.equals("v" + id)) torn.set(true);
+                        }
+                    }
+                });
+            }
+            executor.submit(() -> {
+                for (long id = 1; id <= 20_000; id++) {
+                    map.put(id, "v" + id);
+                    if (id % 3 == 0) map.remove(id - 1);
+                }
+                done.set(true);
+            }).get();
+        }
+
+        assertFalse(torn.get(), "Readers must see either no value or the value written for the key");
+    }
+}
@@ -0,0 +1,54 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Heap footprint and full-GC time of 200,000 patients, on-heap against off-heap
+ */
+public class OffHeapPatientRepositoryBenchmark {
+    private static final int SIZE = 200_000;
+    private static final int GC_ROUNDS = 5;
+
+    private record Footprint(long heapBytes, long offHeapBytes, long gcMillis) {}
+
+    public static void main(String[] args) {
+        Footprint onHeap = measure(InMemoryPatientRepository::new);
+        Footprint offHeap = measure(OffHeapPatientRepository::new);
+
+        System.out.printf("InMemoryPatientRepository: %,d patients -> %,d KB heap, %d ms in %d full GCs%n",
+                SIZE, onHeap.heapBytes / 1024, onHeap.gcMillis, GC_ROUNDS);
+        System.out.printf("OffHeapPatientRepository:  %,d patients -> %,d KB heap, %,d KB off-heap, %d ms in %d full GCs%n",
+                SIZE, offHeap.heapBytes / 1024, offHeap.offHeapBytes / 1024, offHeap.gcMillis, GC_ROUNDS);
+    }
+
+    private static Footprint measure(Supplier<PatientRepository> factory) {
+        long before = usedHeapAfterGc();
+        PatientRepository repository = factory.get();
+        for (int i = 0; i < SIZE; i++) {
+            repository.save(patient(i));
+        }
+        long heapBytes = usedHeapAfterGc() - before;
+
+        long gcBefore = totalGcMillis();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        long gcMillis = totalGcMillis() - gcBefore;
+
+        long offHeapBytes = repository instanceof OffHeapPatientRepository offHeap ? offHeap.offHeapBytes() : 0;
+        return new Footprint(Math.max(heapBytes, 0), offHeapBytes, gcMillis);
+    }
+
+    private static long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(collector.getCollectionTime(), 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,165 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the off-heap columnar repository
+ * Covers CRUD through PatientService, growth and reclamation; the heap/GC comparison with
+ * InMemoryPatientRepository is in OffHeapPatientRepositoryBenchmark
+ */
+@DisplayName("Off-Heap Repository Tests")
+public class OffHeapPatientRepositoryTest {
+    private OffHeapPatientRepository repository;
+    private PatientService service;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new OffHeapPatientRepository();
+        service = new PatientService(repository);
+    }
+
+    @Test
+    @DisplayName("Should round-trip every field")
+    public void testRoundTrip() {
+        Patient created = service.create(Patient.builder()
+                .name("Zoë Müller").email("zoe@test.com").phone(null).birthDate(LocalDate.of(1985, 7, 4)).build());
+        Patient loaded = service.getById(created.getId());
+
+        assertEquals(loaded.getName(), "Zoë Müller");
+        assertEquals(loaded.getEmail(), "zoe@test.com");
+        assertNull(loaded.getPhone());
+        assertEquals(loaded.getBirthDate(), LocalDate.of(1985, 7, 4));
+        assertEquals(loaded.getCreatedAt().withNano(0), created.getCreatedAt().withNano(0));
+    }
+
+    @Test
+    @DisplayName("Should stream column scans and skip rows deleted mid-stream")
+    public void testStreams() {
+        for (int i = 0; i < 50; i++) {
+            service.create(patient(i));
+        }
+
+        try (Stream<Patient> all = repository.streamAll()) {
+            Iterator<Patient> rows = all.iterator();
+            assertEquals(rows.next().getId(), 1L);
+            repository.delete(2L);
+            assertEquals(rows.next().getId(), 3L);
+        }
+        try (Stream<Patient> named = repository.streamByNameContaining("patient 4")) {
+            assertEquals(named.count(), 11L); // 4 and 40-49
+        }
+        try (Stream<Patient> seniors = service.streamSeniors()) {
+            assertEquals(seniors.map(Patient::getId).toList(), service.getSeniors().stream().map(Patient::getId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should page by ID from the requested slot")
+    public void testFindPage() {
+        for (int i = 0; i < 10; i++) {
+            service.create(patient(i));
+        }
+        repository.delete(3L);
+
+        assertEquals(repository.findPage(null, 3).stream().map(Patient::getId).toList(), List.of(1L, 2L, 4L));
+        assertEquals(repository.findPage(8L, 5).stream().map(Patient::getId).toList(), List.of(9L, 10L));
+        assertTrue(repository.findPage(10L, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should support update, delete and email uniqueness")
+    public void testLifecycle() {
+        Patient p1 = service.create(patient(1));
+        Patient p2 = service.create(patient(2));
+
+        service.update(p1.getId(), Patient.builder()
+                .name("Renamed").email("renamed@test.com").phone("555-9999").birthDate(LocalDate.of(1950, 1, 1)).build());
+        assertFalse(service.patientExistsByEmail("patient1@test.com"));
+        assertTrue(service.patientExistsByEmail("RENAMED@test.com"));
+        assertEquals(service.getById(p1.getId()).getName(), "Renamed");
+        assertThrows(DuplicateEmailException.class, () -> service.create(patient(2)));
+        assertThrows(DuplicateEmailException.class, () -> service.update(p1.getId(), patient(2)));
+
+        service.delete(p2.getId());
+        assertEquals(service.count(), 1);
+        assertFalse(service.patientExistsByEmail("patient2@test.com"));
+        assertEquals(service.getSeniors().size(), 1);
+        assertEquals(service.findByName("renam").size(), 1);
+    }
+
+    @Test
+    @DisplayName("Should grow columns and email table past initial capacity")
+    public void testGrowth() {
+        for (int i = 0; i < 10_000; i++) {
+            repository.save(patient(i));
+        }
+        assertEquals(repository.count(), 10_000);
+        assertTrue(repository.existsByEmail("patient9999@test.com"));
+        assertEquals(repository.findById(5_000L).orElseThrow().getEmail(), "patient4999@test.com");
+        assertEquals(repository.findAll().size(), 10_000);
+    }
+
+    @Test
+    @DisplayName("Should size columns by patient count, not by ID")
+    public void testLargeAndSparseIds() {
+        long baseline = repository.offHeapBytes();
+        List<Long> ids = List.of(1L << 40, 7L, Long.MAX_VALUE, 3L << 20, 1L << 62);
+        for (int i = 0; i < ids.size(); i++) {
+            Patient patient = patient(i);
+            patient.setId(ids.get(i));
+            repository.save(patient);
+        }
+
+        assertEquals(repository.offHeapBytes(), baseline);
+        assertEquals(repository.findById(Long.MAX_VALUE).orElseThrow().getEmail(), "patient2@test.com");
+        assertEquals(repository.findAll().stream().map(Patient::getId).toList(),
+                List.of(7L, 3L << 20, 1L << 40, 1L << 62, Long.MAX_VALUE));
+        assertEquals(repository.findPage(3L << 20, 2).stream().map(Patient::getId).toList(), List.of(1L << 40, 1L << 62));
+
+        repository.delete(1L << 40);
+        Patient again = patient(9);
+        again.setId(1L << 40);
+        repository.save(again);
+        assertEquals(repository.findPage(7L, 1).get(0).getId(), 3L << 20);
+        assertEquals(repository.findPage(3L << 20, 1).get(0).getEmail(), "patient9@test.com");
+        assertEquals(repository.count(), 5L);
+    }
+
+    @Test
+    @DisplayName("Should reclaim strings, slots and email entries under update and delete churn")
+    public void testChurnStaysBounded() {
+        for (int i = 1; i <= 1_000; i++) {
+            repository.save(patient(i));
+        }
+        long settled = 0;
+        for (int round = 1; round <= 60; round++) {
+            for (long id = 1; id <= 1_000; id++) {
+                Patient updated = patient((int) id + round * 1_000);
+                updated.setId(id);
+                repository.save(updated);
+            }
+            for (int i = 0; i < 200; i++) {
+                repository.delete(repository.save(patient(1_000_000 + round * 200 + i)).getId());
+            }
+            if (round == 10) settled = repository.offHeapBytes();
+        }
+
+        // Without reclamation the string heap alone would pass 2.7 MB by now
+        assertTrue(repository.offHeapBytes() < settled * 2, "Churn should not grow off-heap storage");
+        assertEquals(repository.count(), 1_000L);
+        assertTrue(repository.existsByEmail("patient61000@test.com"));
+        assertFalse(repository.existsByEmail("patient60000@test.com"));
+        assertEquals(repository.findById(1_000L).orElseThrow().getName(), "Patient 61000");
+        assertEquals(repository.findByNameContaining("Patient 6099").size(), 10);
+        assertEquals(repository.findPage(990L, 100).size(), 10);
+    }
+}
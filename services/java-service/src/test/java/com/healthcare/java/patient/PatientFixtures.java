@@ -0,0 +1,52 @@
+package com.healthcare.java.patient;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Patients and workloads for tests and benchmarks
+ */
+final class PatientFixtures {
+    static final int SKEWED_CLIENTS = 8;
+    static final int SKEWED_GETS_PER_CLIENT = 2_000;
+
+    private PatientFixtures() {
+    }
+
+    /**
+     * Patient i: unique name, email and phone, birth dates spread over 70 years
+     */
+    static Patient patient(int i) {
+        return Patient.builder()
+                .name("Patient " + i).email("patient" + i + "@test.com").phone("555-" + i)
+                .birthDate(LocalDate.of(1940 + i % 70, 1 + i % 12, 1 + i % 28)).build();
+    }
+
+    static Patient patient(String name, String email) {
+        return Patient.builder()
+                .name(name).email(email).phone("555-0000").birthDate(LocalDate.of(1990, 1, 1)).build();
+    }
+
+    /**
+     * GET by ID from SKEWED_CLIENTS virtual threads, 80% of them on the first 1,000 of
+     * 10,000 stored patients; seeded, so every run issues the same reads
+     */
+    static void skewedGets(PatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < SKEWED_CLIENTS; client++) {
+                long seed = client;
+                executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < SKEWED_GETS_PER_CLIENT; i++) {
+                        long id = random.nextInt(10) < 8 ? random.nextInt(1_000) : random.nextInt(10_000);
+                        service.getById(id + 1);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+}
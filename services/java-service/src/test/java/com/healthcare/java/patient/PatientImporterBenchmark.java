@@ -0,0 +1,39 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Import throughput of a 200,000-row CSV into a tuned SQLite database
+ */
+public class PatientImporterBenchmark {
+    private static final int ROWS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        Path directory = tempDirectory("patients-import");
+        try (SQLitePatientRepository sqlite = SQLitePatientRepository.builder(
+                directory.resolve("patients.db").toString()).tuned().build()) {
+            Path file = directory.resolve("large.csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("name,email,phone,birth_date");
+                writer.newLine();
+                for (int i = 0; i < ROWS; i++) {
+                    writer.write("Patient " + i + ",patient" + i + "@test.com,555-" + i + ","
+                            + LocalDate.of(1940 + i % 70, 1 + i % 12, 1 + i % 28));
+                    writer.newLine();
+                }
+            }
+
+            ImportReport report = PatientImporter.builder(sqlite).build().importFile(file);
+            System.out.printf("Imported %,d CSV rows into SQLite in %d ms (%,.0f rows/s, %d decoder threads)%n",
+                    report.imported(), report.elapsed().toMillis(), report.rowsPerSecond(),
+                    Runtime.getRuntime().availableProcessors());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
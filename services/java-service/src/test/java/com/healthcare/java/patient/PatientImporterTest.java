@@ -0,0 +1,138 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the bulk importer: CSV and NDJSON decoding, per-row error reporting, email
+ * dedupe within the file and against the store (throughput: PatientImporterBenchmark)
+ */
+@DisplayName("Patient Importer Tests")
+public class PatientImporterTest {
+    private Path directory;
+    private SQLitePatientRepository sqlite;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("patients-import");
+        sqlite = SQLitePatientRepository.builder(directory.resolve("patients.db").toString()).tuned().build();
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        sqlite.close();
+        try (var files = Files.list(directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), List.of(lines));
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV rows and report every rejected one by line")
+    public void testCsvImport() throws IOException {
+        sqlite.save(Patient.builder().name("Existing").email("taken@test.com")
+                .birthDate(LocalDate.of(1970, 1, 1)).build());
+        Path file = write("clinic.csv",
+                "email,name,birth_date,phone",
+                "alice@test.com,\"Smith, Alice\",1980-02-03,555-0001",
+                "bob@test.com,Bob,1975-12-31,",
+                "not-an-email,Carol,1990-01-01,555-0003",
+                "",
+                "ALICE@test.com,Alice Again,1981-01-01,555-0004",
+                "taken@test.com,Taken,1960-06-06,555-0005",
+                "dave@test.com,Dave,31/12/1990,555-0006",
+                "erin@test.com,Erin,1990-01-01",
+                "\"frank@test.com,Frank,1990-01-01,555-0008",
+                "grace@test.com,\"Grace \"\"G\"\" Hopper\",1906-12-09,555-0009");
+        Path errors = directory.resolve("errors.csv");
+
+        List<PatientImporter.Progress> progress = new ArrayList<>();
+        ImportReport report = PatientImporter.builder(sqlite).errorReport(errors).onProgress(progress::add)
+                .build().importFile(file);
+
+        assertEquals(report.rows(), 9L);
+        assertEquals(report.imported(), 3L);
+        assertEquals(report.rejected(), 6L);
+        assertEquals(report.errors().stream().map(ImportReport.RowError::line).toList(), List.of(4L, 6L, 7L, 8L, 9L, 10L));
+        assertEquals(report.errors().get(0).reason(), "Valid email required");
+        assertEquals(report.errors().get(1).reason(), "Duplicate email ALICE@test.com (first on line 2)");
+        assertEquals(report.errors().get(2).reason(), "Email already exists: taken@test.com");
+        assertEquals(report.errors().get(3).reason(), "Invalid birth date: 31/12/1990");
+        assertEquals(report.errors().get(4).reason(), "Expected 4 fields but found 3");
+        assertEquals(report.errors().get(5).reason(), "Unterminated quoted field");
+
+        assertEquals(sqlite.count(), 4L);
+        assertEquals(sqlite.findByNameContaining("Smith, Alice").get(0).getPhone(), "555-0001");
+        assertNull(sqlite.findByNameContaining("Bob").get(0).getPhone());
+        assertEquals(sqlite.findByNameContaining("Hopper").get(0).getName(), "Grace \"G\" Hopper");
+
+        List<String> reported = Files.readAllLines(errors);
+        assertEquals(reported.size(), 7);
+        assertEquals(reported.get(0), "line,reason");
+        assertEquals(reported.get(3), "7,\"Email already exists: taken@test.com\"");
+        assertEquals(progress.get(progress.size() - 1).imported(), 3L);
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON and reject malformed objects and nested fields row by row")
+    public void testNdjsonImport() throws IOException {
+        Path file = write("clinic.ndjson",
+                "{\"name\": \"Alice\", \"email\": \"alice@test.com\", \"phone\": \"555-0001\", \"birthDate\": \"1980-02-03\"}",
+                "{\"name\": \"Bob\", \"email\": \"bob@test.com\", \"birth_date\": \"1975-12-31\"}",
+                "{\"name\": \"Carol\", \"email\": \"carol@test.com\"",
+                "[1, 2, 3]",
+                "{\"name\": \"Dave\", \"email\": \"dave@test.com\", \"birthDate\": \"2999-01-01\"}",
+                "{\"name\": null, \"email\": \"erin@test.com\", \"birthDate\": \"1990-01-01\"}",
+                "",
+                "{\"name\": {\"first\": \"Fay\"}, \"email\": \"fay@test.com\", \"birthDate\": \"1990-01-01\"}",
+                "{\"name\": \"Gus\", \"email\": [\"gus@test.com\"], \"birthDate\": \"1990-01-01\"}",
+                "{\"name\": \"Hal\", \"email\": \"hal@test.com\", \"phone\": 5550008, \"birthDate\": \"1990-01-01\"}");
+
+        ImportReport report = PatientImporter.builder(sqlite).build().importFile(file);
+
+        assertEquals(report.rows(), 9L);
+        assertEquals(report.imported(), 3L);
+        assertEquals(report.errors().stream().map(ImportReport.RowError::line).toList(), List.of(3L, 4L, 5L, 6L, 8L, 9L));
+        assertEquals(report.errors().get(2).reason(), "Birth date cannot be future");
+        assertEquals(report.errors().get(3).reason(), "Name required");
+        assertEquals(report.errors().get(4).reason(), "Field name must be a string");
+        assertEquals(report.errors().get(5).reason(), "Field email must be a string");
+        assertEquals(sqlite.findByNameContaining("Hal").get(0).getPhone(), "5550008");
+        assertEquals(sqlite.findByNameContaining("Bob").get(0).getBirthDate(), LocalDate.of(1975, 12, 31));
+    }
+
+    @Test
+    @DisplayName("Should dedupe emails across chunks and keep only maxErrors in the report")
+    public void testDuplicatesAcrossChunks() throws IOException {
+        List<String> lines = new ArrayList<>(List.of("name,email,birth_date"));
+        for (int i = 0; i < 1_000; i++) {
+            lines.add("Patient " + i + ",patient" + (i % 400) + "@test.com,1980-01-01");
+        }
+        Path file = write("repeats.csv", lines.toArray(String[]::new));
+
+        ImportReport report = PatientImporter.builder(sqlite).chunkRows(64).threads(3).maxErrors(10)
+                .build().importFile(file);
+
+        assertEquals(report.imported(), 400L);
+        assertEquals(report.rejected(), 600L);
+        assertEquals(report.errors().size(), 10);
+        assertEquals(report.errors().get(0).line(), 402L);
+        assertEquals(sqlite.count(), 400L);
+        assertEquals(sqlite.findByNameContaining("Patient 399").size(), 1);
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 /**
  * Smart JUnit 5 Test Suite for Patient Service
@@ -62,10 +64,12 @@ public class PatientServiceTest {
     @DisplayName("Should reject duplicate email")
     public void testCreateDuplicateEmailRejection() {
         service.create(testPatient);
-        assertThrows(IllegalArgumentException.class, () -> 
+        DuplicateEmailException failure = assertThrows(DuplicateEmailException.class, () ->
             service.create(Patient.builder()
                 .name("Jane Doe").email("john@example.com").phone("555-9999").birthDate(LocalDate.of(1992, 1, 1)).build())
         );
+        assertEquals(failure.getEmail(), "john@example.com");
+        assertEquals(service.count(), 1);
     }
 
     @Test
@@ -95,6 +99,32 @@ public class PatientServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("Should create a batch of patients in input order")
+    public void testCreateAll() {
+        List<Patient> created = service.createAll(List.of(
+                Patient.builder().name("P1").email("p1@test.com").phone("555-0001").birthDate(LocalDate.of(1990, 1, 1)).build(),
+                Patient.builder().name("P2").email("p2@test.com").phone("555-0002").birthDate(LocalDate.of(1991, 1, 1)).build()));
+        assertEquals(created.size(), 2);
+        assertEquals(created.get(0).getName(), "P1");
+        assertNotNull(created.get(1).getId());
+        assertNotNull(created.get(1).getCreatedAt());
+        assertEquals(service.count(), 2);
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with a duplicate email before saving any of it")
+    public void testCreateAllDuplicateEmail() {
+        service.create(testPatient);
+        assertThrows(IllegalArgumentException.class, () -> service.createAll(List.of(
+                Patient.builder().name("P1").email("p1@test.com").phone("555-0001").birthDate(LocalDate.of(1990, 1, 1)).build(),
+                Patient.builder().name("P2").email("JOHN@example.com").phone("555-0002").birthDate(LocalDate.of(1991, 1, 1)).build())));
+        assertThrows(IllegalArgumentException.class, () -> service.createAll(List.of(
+                Patient.builder().name("P1").email("p1@test.com").phone("555-0001").birthDate(LocalDate.of(1990, 1, 1)).build(),
+                Patient.builder().name("P2").email("p1@test.com").phone("555-0002").birthDate(LocalDate.of(1991, 1, 1)).build())));
+        assertEquals(service.count(), 1);
+    }
+
     // ============ READ TESTS (4) ============
 
     @Test
@@ -121,6 +151,39 @@ public class PatientServiceTest {
         assertEquals(all.size(), 2);
     }
 
+    @Test
+    @DisplayName("Should page through patients by ID, skipping deleted ones")
+    public void testGetPage() {
+        for (int i = 1; i <= 7; i++) {
+            service.create(Patient.builder()
+                    .name("Patient " + i).email("p" + i + "@test.com").phone("555-000" + i).birthDate(LocalDate.of(1990, 1, i)).build());
+        }
+        service.delete(4L);
+
+        List<Patient> first = service.getPage(null, 3);
+        assertEquals(first.stream().map(Patient::getId).toList(), List.of(1L, 2L, 3L));
+        List<Patient> second = service.getPage(first.get(2).getId(), 3);
+        assertEquals(second.stream().map(Patient::getId).toList(), List.of(5L, 6L, 7L));
+        assertTrue(service.getPage(7L, 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, PatientService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("Should return summaries in the same order as the full queries")
+    public void testSummaries() {
+        for (int i = 0; i < 5; i++) {
+            service.create(Patient.builder()
+                    .name("Patient " + i).email("p" + i + "@test.com").phone("555-000" + i)
+                    .birthDate(LocalDate.of(1960 + i, 1, 1)).build());
+        }
+
+        assertEquals(service.getAllSummaries(), service.getAll().stream().map(PatientSummary::of).toList());
+        assertEquals(service.getSummaryPage(2L, 2).stream().map(PatientSummary::id).toList(), List.of(3L, 4L));
+        assertEquals(service.findSummariesByName("patient 3").get(0).email(), "p3@test.com");
+        assertThrows(IllegalArgumentException.class, () -> service.getSummaryPage(null, 0));
+    }
+
     @Test
     @DisplayName("Should return empty list when no patients")
     public void testGetAllEmpty() {
@@ -159,7 +222,8 @@ public class PatientServiceTest {
         // Try to update p2 with p1's email (should fail)
         Patient update = Patient.builder()
                 .name("P2").email("p1@test.com").phone("555-0002").birthDate(LocalDate.of(1991, 1, 1)).build();
-        assertThrows(IllegalArgumentException.class, () -> service.update(p2.getId(), update));
+        assertThrows(DuplicateEmailException.class, () -> service.update(p2.getId(), update));
+        assertEquals(service.getById(p2.getId()).getEmail(), "p2@test.com");
     }
 
     // ============ DELETE TESTS (2) ============
@@ -178,7 +242,7 @@ public class PatientServiceTest {
         assertThrows(NoSuchElementException.class, () -> service.delete(999L));
     }
 
-    // ============ SEARCH TESTS (3) ============
+    // ============ SEARCH TESTS (4) ============
 
     @Test
     @DisplayName("Should search patients by name")
@@ -210,7 +274,23 @@ public class PatientServiceTest {
         assertEquals(results.size(), 1);
     }
 
-    // ============ FILTER TESTS (2) ============
+    @Test
+    @DisplayName("Should fold case the same way whatever the default locale")
+    public void testFindByNameIgnoresDefaultLocale() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            service.create(Patient.builder()
+                    .name("Ivan").email("ivan@test.com").phone("555-0004").birthDate(LocalDate.of(1990, 1, 1)).build());
+            // Two characters is below the trigram minimum, so this exercises the fallback scan
+            assertEquals(service.findByName("iv").size(), 1);
+            assertEquals(service.findByName("iva").size(), 1);
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    // ============ FILTER TESTS (4) ============
 
     @Test
     @DisplayName("Should filter patients by age range")
@@ -242,6 +322,54 @@ public class PatientServiceTest {
         assertTrue(seniors.stream().allMatch(Patient::isSenior));
     }
 
+    @Test
+    @DisplayName("Should include both boundary birth years in age range")
+    public void testFindByAgeRangeBoundaries() {
+        int year = LocalDate.now().getYear();
+        service.create(Patient.builder()
+                .name("Lower").email("lower@test.com").phone("555-0001").birthDate(LocalDate.of(year - 30, 12, 31)).build());
+        service.create(Patient.builder()
+                .name("Upper").email("upper@test.com").phone("555-0002").birthDate(LocalDate.of(year - 50, 1, 1)).build());
+        service.create(Patient.builder()
+                .name("Outside").email("out@test.com").phone("555-0003").birthDate(LocalDate.of(year - 51, 12, 31)).build());
+
+        List<Patient> ageRange = service.findByAgeRange(30, 50);
+        assertEquals(ageRange.size(), 2);
+        assertEquals(ageRange.get(0).getName(), "Upper");
+    }
+
+    @Test
+    @DisplayName("Should re-index birth date on update")
+    public void testAgeRangeAfterUpdate() {
+        Patient created = service.create(Patient.builder()
+                .name("Mover").email("mover@test.com").phone("555-0001").birthDate(LocalDate.of(2000, 1, 1)).build());
+        assertTrue(service.getSeniors().isEmpty());
+
+        service.update(created.getId(), Patient.builder()
+                .name("Mover").email("mover@test.com").phone("555-0001").birthDate(LocalDate.of(1940, 1, 1)).build());
+        assertEquals(service.getSeniors().size(), 1);
+        assertTrue(service.findByAgeRange(20, 30).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream an age cohort in birth-date order")
+    public void testStreamByAgeRange() {
+        service.create(Patient.builder()
+                .name("Later").email("later@test.com").phone("555-0001").birthDate(LocalDate.of(1985, 6, 1)).build());
+        service.create(Patient.builder()
+                .name("Earlier").email("earlier@test.com").phone("555-0002").birthDate(LocalDate.of(1982, 1, 1)).build());
+        service.create(Patient.builder()
+                .name("Young").email("young@test.com").phone("555-0003").birthDate(LocalDate.of(2015, 1, 1)).build());
+
+        int year = LocalDate.now().getYear();
+        try (Stream<Patient> cohort = service.streamByAgeRange(year - 1985, year - 1982)) {
+            assertEquals(cohort.map(Patient::getName).toList(), List.of("Earlier", "Later"));
+        }
+        try (Stream<Patient> all = repository.streamAll()) {
+            assertEquals(all.count(), 3L);
+        }
+    }
+
     // ============ UTILITY TESTS (2) ============
 
     @Test
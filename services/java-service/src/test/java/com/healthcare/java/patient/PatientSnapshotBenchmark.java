@@ -0,0 +1,50 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup from a snapshot against replaying every create
+ * Defaults to 200k patients; run with -Dsnapshot.benchmark.rows=1000000 (or 10000000 with a
+ * large -Xmx) for the full comparison
+ */
+public class PatientSnapshotBenchmark {
+    private static final int ROWS = Integer.getInteger("snapshot.benchmark.rows", 200_000);
+
+    public static void main(String[] args) throws Exception {
+        List<Patient> patients = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            patients.add(Patient.builder()
+                    .id((long) i + 1).name("Patient " + i).email("patient" + i + "@test.com").phone("555-" + i)
+                    .birthDate(LocalDate.of(1940 + i % 70, 1 + i % 12, 1 + i % 28)).build());
+        }
+
+        Path file = Files.createTempFile("patients", ".snapshot");
+        try {
+            long exportNanos = time(() -> PatientSnapshot.write(file, patients, ROWS + 1, 0));
+            long[] decoded = new long[1];
+            long decodeNanos = time(() -> PatientSnapshot.read(file, patient -> decoded[0]++));
+            long loadNanos = time(() -> PatientSnapshot.load(file));
+            long replayNanos = time(() -> {
+                PatientService replay = new PatientService(new InMemoryPatientRepository());
+                for (Patient patient : patients) {
+                    replay.create(Patient.builder()
+                            .name(patient.getName()).email(patient.getEmail()).phone(patient.getPhone())
+                            .birthDate(patient.getBirthDate()).build());
+                }
+            });
+
+            System.out.printf("snapshot %,d patients (%,d MB): export %.0f ms, mapped decode %.0f ms, "
+                            + "load into memory %.0f ms, replaying creates %.0f ms%n",
+                    decoded[0], Files.size(file) >> 20, millis(exportNanos), millis(decodeNanos),
+                    millis(loadNanos), millis(replayNanos));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
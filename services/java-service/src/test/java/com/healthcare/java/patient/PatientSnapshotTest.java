@@ -0,0 +1,87 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tests for the memory-mapped snapshot format
+ * Startup time against replaying creates is measured by PatientSnapshotBenchmark
+ */
+@DisplayName("Patient Snapshot Tests")
+public class PatientSnapshotTest {
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("patients", ".snapshot");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Should round-trip every field and the next ID")
+    public void testRoundTrip() {
+        InMemoryPatientRepository source = new InMemoryPatientRepository();
+        PatientService service = new PatientService(source);
+        Patient zoe = service.create(Patient.builder()
+                .name("Zoë Müller 🩺").email("zoe@test.com").phone(null).birthDate(LocalDate.of(1985, 7, 4)).build());
+        service.create(patient(2));
+        service.delete(service.create(patient(3)).getId());
+
+        PatientSnapshot.Info info = PatientSnapshot.export(source, file);
+        assertEquals(info.rowCount(), 2L);
+
+        InMemoryPatientRepository loaded = PatientSnapshot.load(file);
+        Patient copy = loaded.findById(zoe.getId()).orElseThrow();
+        assertEquals(copy.getName(), "Zoë Müller 🩺");
+        assertEquals(copy.getEmail(), "zoe@test.com");
+        assertNull(copy.getPhone());
+        assertEquals(copy.getBirthDate(), LocalDate.of(1985, 7, 4));
+        assertEquals(copy.getCreatedAt(), zoe.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+        assertEquals(loaded.count(), 2L);
+        assertTrue(loaded.existsByEmail("patient2@test.com"));
+        assertEquals(loaded.findByNameContaining("Müller").size(), 1);
+        assertEquals(loaded.save(patient(4)).getId(), 4L, "IDs must not be reused after import");
+    }
+
+    @Test
+    @DisplayName("Should round-trip an empty repository")
+    public void testEmpty() {
+        PatientSnapshot.export(new InMemoryPatientRepository(), file);
+        assertEquals(PatientSnapshot.load(file).count(), 0L);
+    }
+
+    @Test
+    @DisplayName("Should reject corrupted or foreign files")
+    public void testCorruption() throws IOException {
+        InMemoryPatientRepository source = new InMemoryPatientRepository();
+        for (int i = 0; i < 10; i++) {
+            source.save(patient(i));
+        }
+        PatientSnapshot.export(source, file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 3);
+            raf.write('X');
+        }
+        assertThrows(UncheckedIOException.class, () -> PatientSnapshot.load(file));
+
+        Files.writeString(file, "id,name,email\n1,Alice,alice@test.com\n".repeat(4));
+        assertThrows(UncheckedIOException.class, () -> PatientSnapshot.load(file));
+    }
+}
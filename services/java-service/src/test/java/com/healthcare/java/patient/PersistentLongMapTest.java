@@ -0,0 +1,97 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Tests for the persistent map behind repository snapshots
+ */
+@DisplayName("Persistent Long Map Tests")
+public class PersistentLongMapTest {
+
+    @Test
+    @DisplayName("Should agree with HashMap under random puts and removes")
+    public void testMatchesHashMap() {
+        Random random = new Random(42);
+        Map<Long, String> model = new HashMap<>();
+        PersistentLongMap<String> map = PersistentLongMap.empty();
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) + 1;
+            if (random.nextInt(3) == 0) {
+                model.remove(key);
+                map = map.remove(key);
+            } else {
+                model.put(key, "v" + i);
+                map = map.put(key, "v" + i);
+            }
+        }
+
+        assertEquals(map.size(), model.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(map.get(key), model.get(key));
+        }
+        List<String> values = new ArrayList<>();
+        map.forEach(values::add);
+        assertEquals(new HashSet<>(values), new HashSet<>(model.values()));
+        assertEquals(new HashSet<>(map.asList()), new HashSet<>(model.values()));
+    }
+
+    @Test
+    @DisplayName("Should leave older versions untouched")
+    public void testVersionsAreIsolated() {
+        PersistentLongMap<String> v1 = PersistentLongMap.<String>empty().put(1L, "a").put(2L, "b");
+        PersistentLongMap<String> v2 = v1.put(3L, "c").remove(1L).put(2L, "B");
+
+        assertEquals(v1.size(), 2);
+        assertEquals(v1.get(1L), "a");
+        assertEquals(v1.get(2L), "b");
+        assertNull(v1.get(3L));
+        assertEquals(v2.size(), 2);
+        assertEquals(v2.get(2L), "B");
+        assertTrue(v2.remove(2L).remove(3L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should index and iterate a concatenation of versions, skipping empty ones")
+    public void testConcat() {
+        PersistentLongMap<String> first = PersistentLongMap.<String>empty().put(1L, "a").put(2L, "b");
+        PersistentLongMap<String> third = PersistentLongMap.<String>empty().put(9L, "c");
+        List<String> view = PersistentLongMap.concat(List.of(PersistentLongMap.empty(), first,
+                PersistentLongMap.empty(), third, PersistentLongMap.empty()));
+
+        assertEquals(view.size(), 3);
+        assertEquals(new ArrayList<>(view), List.of(first.asList().get(0), first.asList().get(1), "c"));
+        assertEquals(view.get(2), "c");
+        assertEquals(view.stream().count(), 3L);
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+        assertEquals(PersistentLongMap.concat(List.<PersistentLongMap<String>>of()).size(), 0);
+    }
+
+    @Test
+    @DisplayName("Should give repository readers a stable point-in-time findAll")
+    public void testRepositorySnapshot() {
+        InMemoryPatientRepository repository = new InMemoryPatientRepository();
+        PatientService service = new PatientService(repository);
+        Patient first = service.create(Patient.builder()
+                .name("First").email("first@test.com").phone("555-0001").birthDate(LocalDate.of(1990, 1, 1)).build());
+        service.create(Patient.builder()
+                .name("Second").email("second@test.com").phone("555-0002").birthDate(LocalDate.of(1991, 1, 1)).build());
+
+        List<Patient> snapshot = repository.findAll();
+        service.update(first.getId(), Patient.builder()
+                .name("Renamed").email("first@test.com").phone("555-0001").birthDate(LocalDate.of(1990, 1, 1)).build());
+        service.create(Patient.builder()
+                .name("Third").email("third@test.com").phone("555-0003").birthDate(LocalDate.of(1992, 1, 1)).build());
+
+        assertEquals(snapshot.size(), 2);
+        assertTrue(snapshot.stream().anyMatch(p -> p.getName().equals("First")));
+        assertFalse(snapshot.stream().anyMatch(p -> p.getName().equals("Renamed")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(first));
+        assertEquals(repository.findAll().size(), 3);
+    }
+}
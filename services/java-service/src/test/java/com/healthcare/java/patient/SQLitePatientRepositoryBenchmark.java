@@ -0,0 +1,267 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SQLite repository throughput and latency: bulk loads, keyset pages, summary projection,
+ * FTS5 name search, group commit, pooled and cached GETs, and a mixed load in the default
+ * and tuned (WAL, single writer) modes. Each runs on its own database in a temp directory.
+ */
+public class SQLitePatientRepositoryBenchmark {
+    private static final int GET_CLIENTS = 8;
+    private static final int GETS_PER_CLIENT = 500;
+    private static final int MIXED_CLIENTS = 32;
+    private static final int MIXED_OPS_PER_CLIENT = 200;
+
+    private final Path directory;
+    private final List<SQLitePatientRepository> opened = new ArrayList<>();
+
+    private SQLitePatientRepositoryBenchmark(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = tempDirectory("patients-sqlite-bench");
+        SQLitePatientRepositoryBenchmark benchmark = new SQLitePatientRepositoryBenchmark(directory);
+        try {
+            benchmark.bulkLoad();
+            benchmark.keysetPages();
+            benchmark.summaries();
+            benchmark.nameSearch();
+            benchmark.groupCommit();
+            benchmark.pooledGets();
+            benchmark.statementCache();
+            benchmark.mixedLoad();
+        } finally {
+            benchmark.opened.forEach(SQLitePatientRepository::close);
+            deleteRecursively(directory);
+        }
+    }
+
+    private SQLitePatientRepository open(SQLitePatientRepository.Builder builder) {
+        SQLitePatientRepository repository = builder.build();
+        opened.add(repository);
+        return repository;
+    }
+
+    private String database(String name) {
+        return directory.resolve(name).toString();
+    }
+
+    private static List<Patient> patients(int count) {
+        List<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patients.add(patient(i));
+        }
+        return patients;
+    }
+
+    private void bulkLoad() throws Exception {
+        SQLitePatientRepository single = open(SQLitePatientRepository.builder(database("single-rows.db")));
+        SQLitePatientRepository batched = open(SQLitePatientRepository.builder(database("batched-rows.db")));
+        List<Patient> rows = patients(2_000);
+
+        long perRow = time(() -> rows.subList(0, 500).forEach(p -> single.save(Patient.builder()
+                .name(p.getName()).email(p.getEmail()).phone(p.getPhone()).birthDate(p.getBirthDate()).build())));
+        long bulk = time(() -> batched.saveAll(rows));
+        System.out.printf("SQLite load: save %,.0f rows/s, saveAll %,.0f rows/s%n",
+                perSecond(500, perRow), perSecond(rows.size(), bulk));
+    }
+
+    private void keysetPages() throws Exception {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("page.db")));
+        repository.saveAll(patients(20_000));
+
+        long firstPage = time(() -> {
+            for (int i = 0; i < 200; i++) {
+                repository.findPage(null, 50);
+            }
+        });
+        long deepPage = time(() -> {
+            for (int i = 0; i < 200; i++) {
+                repository.findPage(19_900L, 50);
+            }
+        });
+        System.out.printf("SQLite keyset page of 50 over 20,000 rows: first %.0f us, deepest %.0f us%n",
+                firstPage / 200e3, deepPage / 200e3);
+    }
+
+    private void summaries() throws Exception {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("summary.db")));
+        repository.saveAll(patients(50_000));
+
+        long full = bestOf(5, repository::findAll);
+        long summaries = bestOf(5, repository::findAllSummaries);
+        System.out.printf("SQLite list of 50,000 rows: full patients %.1f ms, summaries %.1f ms%n",
+                millis(full), millis(summaries));
+    }
+
+    private void nameSearch() throws Exception {
+        int rows = Integer.getInteger("bench.nameSearchRows", 50_000);
+        String path = database("names.db");
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(path).tuned().batchSize(10_000));
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(patient(i));
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+
+        String needle = "ent " + (rows / 2 + 7);
+        int matches = repository.findByNameContaining(needle).size();
+        long fts = time(() -> {
+            for (int i = 0; i < 20; i++) {
+                repository.findByNameContaining(needle);
+            }
+        });
+
+        long like;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + path);
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM patients WHERE LOWER(name) LIKE ? ORDER BY name")) {
+            pstmt.setString(1, "%" + needle + "%");
+            like = time(() -> {
+                for (int i = 0; i < 20; i++) {
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getString("name");
+                        }
+                    }
+                }
+            });
+        }
+        System.out.printf("SQLite name search over %,d rows (%d matches): LIKE scan %.2f ms, FTS5 trigram %.2f ms%n",
+                rows, matches, like / 20e6, fts / 20e6);
+    }
+
+    private void groupCommit() {
+        double single = createsPerSecond(open(SQLitePatientRepository.builder(database("one-by-one.db"))
+                .tuned().synchronous("FULL")));
+        SQLitePatientRepository grouped = open(SQLitePatientRepository.builder(database("grouped.db"))
+                .tuned().synchronous("FULL").groupCommit(Duration.ofMillis(1), 256));
+        double batched = createsPerSecond(grouped);
+        System.out.printf("SQLite CREATE, %d clients, synchronous=FULL: one commit each %,.0f ops/s, "
+                        + "group commit %,.0f ops/s (%.1f writes per commit)%n", MIXED_CLIENTS, single, batched,
+                (double) grouped.groupCommitWrites() / grouped.groupCommits());
+    }
+
+    private static double createsPerSecond(SQLitePatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        int perClient = 40;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < MIXED_CLIENTS; client++) {
+                int offset = client * perClient;
+                executor.submit(() -> {
+                    for (int i = 0; i < perClient; i++) {
+                        service.create(patient(offset + i));
+                    }
+                    return null;
+                });
+            }
+        }
+        return perSecond((long) MIXED_CLIENTS * perClient, System.nanoTime() - start);
+    }
+
+    private void pooledGets() {
+        seed("gets.db");
+        double unpooled = getsPerSecond(open(SQLitePatientRepository.builder(database("gets.db")).poolSize(0)));
+        double pooled = getsPerSecond(open(SQLitePatientRepository.builder(database("gets.db")).poolSize(GET_CLIENTS)));
+        System.out.printf("SQLite GET by ID, %d clients: unpooled %,.0f ops/s, pooled %,.0f ops/s%n",
+                GET_CLIENTS, unpooled, pooled);
+    }
+
+    private void statementCache() {
+        seed("statements.db");
+        double withoutCache = getsPerSecond(open(SQLitePatientRepository.builder(database("statements.db"))
+                .poolSize(GET_CLIENTS).statementCacheSize(0)));
+        SQLitePatientRepository cached = open(SQLitePatientRepository.builder(database("statements.db"))
+                .poolSize(GET_CLIENTS).statementCacheSize(16));
+        double withCache = getsPerSecond(cached);
+        System.out.printf("SQLite GET by ID, %d clients: no statement cache %,.0f ops/s, cached %,.0f ops/s (hit rate %.3f)%n",
+                GET_CLIENTS, withoutCache, withCache, cached.statementCacheStats().hitRate());
+    }
+
+    private void seed(String name) {
+        SQLitePatientRepository seed = open(SQLitePatientRepository.builder(database(name)));
+        for (int i = 0; i < 1_000; i++) {
+            seed.save(patient(i));
+        }
+    }
+
+    private static double getsPerSecond(SQLitePatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < GET_CLIENTS; client++) {
+                int offset = client;
+                executor.submit(() -> {
+                    for (int i = 0; i < GETS_PER_CLIENT; i++) {
+                        service.getById((long) (offset * GETS_PER_CLIENT + i) % 1_000 + 1);
+                    }
+                    return null;
+                });
+            }
+        }
+        return perSecond((long) GET_CLIENTS * GETS_PER_CLIENT, System.nanoTime() - start);
+    }
+
+    private void mixedLoad() {
+        String defaultReport = mixedLoad(open(SQLitePatientRepository.builder(database("default.db")).poolSize(8)));
+        String tunedReport = mixedLoad(open(SQLitePatientRepository.builder(database("tuned.db")).tuned().poolSize(8)));
+        System.out.println("SQLite mixed GET/LIST/CREATE, " + MIXED_CLIENTS + " clients: default "
+                + defaultReport + "; tuned " + tunedReport);
+    }
+
+    /**
+     * 70% GET by ID, 10% LIST, 20% CREATE; returns throughput and failure count
+     */
+    private static String mixedLoad(SQLitePatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        for (int i = 0; i < 200; i++) {
+            service.create(patient(i));
+        }
+
+        AtomicInteger created = new AtomicInteger(200);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < MIXED_CLIENTS; client++) {
+                int seed = client;
+                executor.submit(() -> {
+                    for (int i = 0; i < MIXED_OPS_PER_CLIENT; i++) {
+                        int roll = (seed * 31 + i * 17) % 10;
+                        try {
+                            if (roll < 7) {
+                                service.getById((long) (seed + i) % 200 + 1);
+                            } else if (roll < 8) {
+                                service.getAll();
+                            } else {
+                                service.create(patient(created.getAndIncrement()));
+                            }
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        double opsPerSecond = perSecond((long) MIXED_CLIENTS * MIXED_OPS_PER_CLIENT, System.nanoTime() - start);
+        return String.format("%,.0f ops/s with %d failures", opsPerSecond, failures.get());
+    }
+}
@@ -0,0 +1,467 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the SQLite repository against a temporary database file
+ * Includes a mixed GET/LIST/CREATE load in the tuned (WAL, single writer) mode; throughput
+ * comparisons are in SQLitePatientRepositoryBenchmark
+ */
+@DisplayName("SQLite Repository Tests")
+public class SQLitePatientRepositoryTest {
+    private static final int GET_CLIENTS = 8;
+    private static final int GETS_PER_CLIENT = 500;
+    private static final int MIXED_CLIENTS = 32;
+    private static final int MIXED_OPS_PER_CLIENT = 200;
+
+    private Path directory;
+    private final List<SQLitePatientRepository> opened = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("patients-sqlite");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        opened.forEach(SQLitePatientRepository::close);
+        try (var files = Files.list(directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private SQLitePatientRepository open(SQLitePatientRepository.Builder builder) {
+        SQLitePatientRepository repository = builder.build();
+        opened.add(repository);
+        return repository;
+    }
+
+    private String database(String name) {
+        return directory.resolve(name).toString();
+    }
+
+    @Test
+    @DisplayName("Should support CRUD through a pool of one connection")
+    public void testCrudWithSingleConnection() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("single.db")).poolSize(1));
+        PatientService service = new PatientService(repository);
+
+        Patient created = service.create(patient(1));
+        assertEquals(service.getById(created.getId()).getEmail(), "patient1@test.com");
+        assertThrows(IllegalArgumentException.class, () -> service.create(patient(1)));
+
+        service.update(created.getId(), Patient.builder()
+                .name("Renamed").email("renamed@test.com").birthDate(LocalDate.of(1980, 1, 1)).build());
+        assertEquals(repository.findByNameContaining("rena").size(), 1);
+
+        // An explicit ID that does not exist yet is inserted, as snapshot imports and shards require
+        repository.save(Patient.builder()
+                .id(42L).name("Restored").email("restored@test.com").birthDate(LocalDate.of(1970, 1, 1)).build());
+        assertEquals(repository.findById(42L).orElseThrow().getName(), "Restored");
+
+        service.delete(created.getId());
+        assertEquals(repository.count(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should update only stored patients in one statement and keep createdAt")
+    public void testUpdateIfPresent() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("update.db")));
+        Patient first = repository.save(patient(1));
+        repository.save(patient(2));
+        var createdAt = repository.findById(first.getId()).orElseThrow().getCreatedAt();
+
+        Patient renamed = patient(3);
+        renamed.setId(first.getId());
+        assertEquals(repository.updateIfPresent(renamed).orElseThrow().getCreatedAt(), createdAt);
+        assertEquals(repository.findById(first.getId()).orElseThrow().getEmail(), "patient3@test.com");
+
+        Patient missing = patient(4);
+        missing.setId(99L);
+        assertTrue(repository.updateIfPresent(missing).isEmpty());
+        assertTrue(repository.findById(99L).isEmpty());
+
+        Patient taken = patient(2);
+        taken.setId(first.getId());
+        assertThrows(DuplicateEmailException.class, () -> repository.updateIfPresent(taken));
+    }
+
+    @Test
+    @DisplayName("Should bulk save and delete in batched transactions")
+    public void testSaveAllBatches() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("batch.db")).batchSize(64));
+        repository.save(patient(0));
+
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            batch.add(patient(i));
+        }
+        batch.add(Patient.builder()
+                .id(500L).name("Restored").email("restored@test.com").birthDate(LocalDate.of(1970, 1, 1)).build());
+        List<Patient> saved = repository.saveAll(batch);
+        assertEquals(repository.count(), 202L);
+        assertEquals(saved.get(0).getId(), 2L);
+        assertEquals(repository.findById(saved.get(199).getId()).orElseThrow().getEmail(), "patient200@test.com");
+        assertEquals(repository.findByNameContaining("Restored").size(), 1);
+        // Explicit IDs in the batch push the sequence past them
+        assertTrue(repository.save(patient(1_000)).getId() > 500L);
+
+        // A chunk that violates the email constraint rolls back alone and leaves its IDs unassigned
+        Patient duplicate = patient(7);
+        DuplicateEmailException conflict = assertThrows(DuplicateEmailException.class,
+                () -> repository.saveAll(List.of(patient(2_000), duplicate)));
+        assertEquals(conflict.getEmail(), "patient7@test.com");
+        assertNull(duplicate.getId());
+        assertFalse(repository.existsByEmail("patient2000@test.com"));
+
+        repository.deleteAll(saved.stream().map(Patient::getId).toList());
+        assertEquals(repository.count(), 2L);
+        assertTrue(repository.findByNameContaining("Restored").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream through a cursor and return its connection when closed")
+    public void testStreamingCursor() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("stream.db"))
+                .poolSize(1).fetchSize(16));
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(patient(i));
+        }
+        repository.saveAll(batch);
+
+        try (Stream<Patient> all = repository.streamAll()) {
+            assertEquals(all.count(), 300L);
+        }
+        // Abandoned half-way: closing must still hand the only pooled connection back
+        try (Stream<Patient> seniors = repository.streamByBirthDateBetween(null, LocalDate.of(1960, 12, 31))) {
+            assertEquals(seniors.limit(5).count(), 5L);
+        }
+        List<LocalDate> dates;
+        try (Stream<Patient> cohort = repository.streamByBirthDateBetween(LocalDate.of(1950, 1, 1), LocalDate.of(1959, 12, 31))) {
+            dates = cohort.map(Patient::getBirthDate).toList();
+        }
+        assertEquals(dates, repository.findByBirthDateBetween(LocalDate.of(1950, 1, 1), LocalDate.of(1959, 12, 31))
+                .stream().map(Patient::getBirthDate).toList());
+        try (Stream<Patient> named = repository.streamByNameContaining("Patient 1")) {
+            assertEquals(named.count(), (long) repository.findByNameContaining("Patient 1").size());
+        }
+        try (Stream<Patient> named = repository.streamByNameContaining("t 7")) {
+            assertEquals(named.count(), 11L); // 7 and 70-79
+        }
+        assertEquals(repository.count(), 300L);
+    }
+
+    @Test
+    @DisplayName("Should page by primary key without sorting the table")
+    public void testFindPage() throws Exception {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("page.db")));
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            batch.add(patient(i));
+        }
+        repository.saveAll(batch);
+
+        List<Patient> first = repository.findPage(null, 50);
+        assertEquals(first.get(0).getId(), 1L);
+        assertEquals(first.get(49).getId(), 50L);
+        assertEquals(repository.findPage(19_990L, 50).size(), 10);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + database("page.db"));
+             Statement stmt = conn.createStatement()) {
+            for (String query : List.of("SELECT * FROM patients WHERE id > 19900 ORDER BY id LIMIT 50",
+                    "SELECT * FROM patients ORDER BY created_at DESC")) {
+                try (ResultSet plan = stmt.executeQuery("EXPLAIN QUERY PLAN " + query)) {
+                    while (plan.next()) {
+                        assertFalse(plan.getString("detail").contains("TEMP B-TREE"), query + ": " + plan.getString("detail"));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should project list summaries that match the full queries")
+    public void testSummaries() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("summary.db")));
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            batch.add(patient(i));
+        }
+        repository.saveAll(batch);
+
+        assertEquals(repository.findAllSummaries(),
+                repository.findAll().stream().map(PatientSummary::of).toList());
+        assertEquals(repository.findSummaryPage(100L, 25),
+                repository.findPage(100L, 25).stream().map(PatientSummary::of).toList());
+        for (String name : List.of("Patient 4", "t 7", "7")) {
+            assertEquals(repository.findSummariesByNameContaining(name),
+                    repository.findByNameContaining(name).stream().map(PatientSummary::of).toList());
+        }
+        PatientSummary first = repository.findSummaryPage(null, 1).get(0);
+        assertEquals(first.email(), "patient0@test.com");
+        assertEquals(first.age(), LocalDate.now().getYear() - 1940);
+    }
+
+    @Test
+    @DisplayName("Should migrate an existing database to the FTS5 name index")
+    public void testNameSearchMigration() throws Exception {
+        String path = database("legacy.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + path);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE patients (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL,
+                        email TEXT UNIQUE NOT NULL, phone TEXT, birth_date DATE NOT NULL,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)""");
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO patients (name, email, birth_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)")) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                insert.setString(1, "Ada Lovelace");
+                insert.setString(2, "ada@test.com");
+                insert.setDate(3, java.sql.Date.valueOf(LocalDate.of(1815, 12, 10)));
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                insert.executeUpdate();
+            }
+        }
+
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(path));
+        assertEquals(repository.findByNameContaining("LOVE").size(), 1);
+
+        Patient grace = repository.save(Patient.builder()
+                .name("Grace Hopper").email("grace@test.com").birthDate(LocalDate.of(1906, 12, 9)).build());
+        assertEquals(repository.findByNameContaining("hopp").size(), 1);
+        grace.setName("Grace Brewster");
+        repository.save(grace);
+        assertTrue(repository.findByNameContaining("hopp").isEmpty());
+        assertEquals(repository.findByNameContaining("brew").get(0).getId(), grace.getId());
+        repository.delete(grace.getId());
+        assertTrue(repository.findByNameContaining("brew").isEmpty());
+        // Phrase quoting keeps FTS5 query syntax out of the user's input
+        assertTrue(repository.findByNameContaining("\"a* OR b").isEmpty());
+
+        // Reopening finds the index in place and does not rebuild it
+        assertEquals(open(SQLitePatientRepository.builder(path)).findByNameContaining("ada ").size(), 1);
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent creates in groups and fail only the bad write")
+    public void testGroupCommit() throws Exception {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("group.db"))
+                .tuned().synchronous("FULL").groupCommit(Duration.ofMillis(2), 64));
+        PatientService service = new PatientService(repository);
+        Patient first = service.create(patient(0));
+        assertEquals(first.getId(), 1L);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Patient>> creates = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                Patient patient = patient(i);
+                creates.add(executor.submit(() -> repository.save(patient)));
+            }
+            // Same email as patient 0: rejected by the UNIQUE constraint inside its own savepoint
+            Future<Patient> duplicate = executor.submit(() -> repository.save(patient(0)));
+            for (Future<Patient> create : creates) {
+                assertNotNull(create.get().getId());
+            }
+            ExecutionException failure = assertThrows(ExecutionException.class, duplicate::get);
+            assertInstanceOf(DuplicateEmailException.class, failure.getCause());
+        }
+        assertEquals(repository.count(), 21L);
+
+        repository.delete(first.getId());
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertTrue(repository.groupCommitWrites() > repository.groupCommits());
+    }
+
+    @Test
+    @DisplayName("Should run or reject every group-commit write that races close")
+    public void testGroupCommitClose() throws Exception {
+        String url = "jdbc:sqlite:" + database("close.db");
+        for (int round = 0; round < 20; round++) {
+            GroupCommitWriter writer = new GroupCommitWriter(() -> DriverManager.getConnection(url), Duration.ZERO, 16);
+            List<CompletableFuture<Integer>> accepted = new CopyOnWriteArrayList<>();
+            AtomicInteger rejected = new AtomicInteger();
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                for (int t = 0; t < 4; t++) {
+                    executor.submit(() -> {
+                        for (int i = 0; i < 200; i++) {
+                            try {
+                                accepted.add(writer.submit(conn -> 1));
+                            } catch (IllegalStateException e) {
+                                rejected.incrementAndGet();
+                            }
+                        }
+                    });
+                }
+                executor.submit(writer::close);
+            }
+            writer.close();
+
+            for (CompletableFuture<Integer> write : accepted) {
+                try {
+                    assertEquals(write.get(5, TimeUnit.SECONDS), 1);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+            assertEquals(accepted.size() + rejected.get(), 800);
+        }
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many racing creates claim an email")
+    public void testInsertIfEmailAbsent() throws Exception {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("claim.db")).tuned());
+        PatientService service = new PatientService(repository);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 32; i++) {
+                executor.submit(() -> {
+                    try {
+                        service.create(patient(7));
+                        created.incrementAndGet();
+                    } catch (DuplicateEmailException e) {
+                        duplicates.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(created.get(), 1);
+        assertEquals(duplicates.get(), 31);
+        assertEquals(repository.count(), 1L);
+        assertTrue(repository.insertIfEmailAbsent(patient(7)).isEmpty());
+
+        Patient other = service.create(patient(8));
+        Patient update = patient(8);
+        update.setEmail("patient7@test.com");
+        DuplicateEmailException failure = assertThrows(DuplicateEmailException.class,
+                () -> service.update(other.getId(), update));
+        assertEquals(failure.getEmail(), "patient7@test.com");
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the statement cache")
+    public void testStatementCache() throws Exception {
+        SQLitePatientRepository seed = open(SQLitePatientRepository.builder(database("cache.db")));
+        for (int i = 0; i < 1_000; i++) {
+            seed.save(patient(i));
+        }
+
+        SQLitePatientRepository uncached = open(SQLitePatientRepository.builder(database("cache.db"))
+                .poolSize(GET_CLIENTS).statementCacheSize(0));
+        SQLitePatientRepository cached = open(SQLitePatientRepository.builder(database("cache.db"))
+                .poolSize(GET_CLIENTS).statementCacheSize(16));
+        concurrentGets(uncached);
+        concurrentGets(cached);
+        CacheStats stats = cached.statementCacheStats();
+
+        assertEquals(uncached.statementCacheStats().requests(), 0L);
+        assertTrue(stats.hits() >= GET_CLIENTS * GETS_PER_CLIENT - GET_CLIENTS * 3L);
+        assertTrue(stats.misses() <= GET_CLIENTS * 3L);
+    }
+
+    private static void concurrentGets(SQLitePatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < GET_CLIENTS; client++) {
+                int offset = client;
+                executor.submit(() -> {
+                    for (int i = 0; i < GETS_PER_CLIENT; i++) {
+                        service.getById((long) (offset * GETS_PER_CLIENT + i) % 1_000 + 1);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should sustain a mixed read/write load in tuned WAL mode without busy errors")
+    public void testMixedLoadTuned() throws Exception {
+        int failures = mixedLoad(open(SQLitePatientRepository.builder(database("tuned.db")).tuned().poolSize(8)));
+        assertEquals(failures, 0);
+    }
+
+    @Test
+    @DisplayName("Should enable WAL and reject invalid pragmas")
+    public void testTunedConfiguration() {
+        SQLitePatientRepository repository = open(SQLitePatientRepository.builder(database("config.db"))
+                .tuned().synchronous("full").poolSize(2));
+        repository.save(patient(1));
+        assertEquals(repository.findAll().size(), 1);
+        assertTrue(Files.exists(directory.resolve("config.db-wal")));
+
+        assertThrows(IllegalArgumentException.class, () -> SQLitePatientRepository.builder(database("bad.db"))
+                .synchronous("NORMAL; DROP TABLE patients").build());
+        assertThrows(IllegalArgumentException.class, () -> SQLitePatientRepository.builder(database("bad.db"))
+                .walMode(true).poolSize(0).build());
+    }
+
+    /**
+     * 70% GET by ID, 10% LIST, 20% CREATE; returns the number of failed operations
+     */
+    private static int mixedLoad(SQLitePatientRepository repository) {
+        PatientService service = new PatientService(repository);
+        for (int i = 0; i < 200; i++) {
+            service.create(patient(i));
+        }
+
+        AtomicInteger created = new AtomicInteger(200);
+        AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < MIXED_CLIENTS; client++) {
+                int seed = client;
+                executor.submit(() -> {
+                    for (int i = 0; i < MIXED_OPS_PER_CLIENT; i++) {
+                        int roll = (seed * 31 + i * 17) % 10;
+                        try {
+                            if (roll < 7) {
+                                service.getById((long) (seed + i) % 200 + 1);
+                            } else if (roll < 8) {
+                                service.getAll();
+                            } else {
+                                service.create(patient(created.getAndIncrement()));
+                            }
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        return failures.get();
+    }
+}
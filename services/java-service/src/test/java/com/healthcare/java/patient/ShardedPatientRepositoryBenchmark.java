@@ -0,0 +1,49 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Write throughput from 1 to 8 shards, each an OffHeapPatientRepository, which serializes
+ * writers on one lock like a single SQLite file
+ */
+public class ShardedPatientRepositoryBenchmark {
+    private static final int WRITERS = 8;
+    private static final int PATIENTS = 40_000;
+
+    public static void main(String[] args) {
+        List<String> report = new ArrayList<>();
+        measureWrites(8); // JIT warm-up
+        for (int shardCount : new int[]{1, 2, 4, 8}) {
+            report.add(String.format("%d shard(s): %,.0f saves/s", shardCount, perSecond(PATIENTS, measureWrites(shardCount))));
+        }
+        System.out.println("Sharded writes, " + WRITERS + " writers, "
+                + Runtime.getRuntime().availableProcessors() + " CPU(s): " + String.join(", ", report));
+    }
+
+    private static long measureWrites(int shardCount) {
+        List<PatientRepository> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new OffHeapPatientRepository());
+        }
+        ShardedPatientRepository sharded = new ShardedPatientRepository(shards);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int offset = writer;
+                executor.submit(() -> {
+                    for (int i = offset; i < PATIENTS; i += WRITERS) {
+                        sharded.save(patient(i));
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
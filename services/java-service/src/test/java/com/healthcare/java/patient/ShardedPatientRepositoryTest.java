@@ -0,0 +1,262 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the ID-hash sharded repository
+ * Covers routing, global email uniqueness and scatter-gather merges; write scaling is
+ * reported by ShardedPatientRepositoryBenchmark
+ */
+@DisplayName("Sharded Repository Tests")
+public class ShardedPatientRepositoryTest {
+    private ShardedPatientRepository repository;
+    private PatientService service;
+
+    @BeforeEach
+    public void setUp() {
+        repository = ShardedPatientRepository.inMemory(4);
+        service = new PatientService(repository);
+    }
+
+    @Test
+    @DisplayName("Should spread patients over shards and merge scans")
+    public void testScatterGather() {
+        for (int i = 0; i < 100; i++) {
+            service.create(patient(i));
+        }
+
+        assertEquals(repository.count(), 100L);
+        List<Patient> all = repository.findAll();
+        assertEquals(all.size(), 100);
+        assertEquals(all.get(0).getId(), 1L);
+        assertEquals(all.get(99).getId(), 100L);
+        for (int shard = 0; shard < repository.shardCount(); shard++) {
+            int index = shard;
+            long inShard = all.stream()
+                    .filter(p -> ShardedPatientRepository.shardIndex(p.getId(), repository.shardCount()) == index)
+                    .count();
+            assertTrue(inShard > 10, "Shard " + shard + " holds only " + inShard + " patients");
+        }
+
+        List<Patient> named = repository.findByNameContaining("Patient 1");
+        assertEquals(named.size(), 11); // 1 and 10-19
+        assertEquals(named.get(0).getName(), "Patient 1");
+        assertEquals(service.findByAgeRange(0, 200).size(), 100);
+    }
+
+    @Test
+    @DisplayName("Should route a bulk save to every shard and keep input order")
+    public void testSaveAllAndDeleteAll() {
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(patient(i));
+        }
+        List<Patient> saved = service.createAll(batch);
+        assertEquals(saved.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(saved.get(i).getEmail(), "patient" + i + "@test.com");
+            assertEquals(repository.findById(saved.get(i).getId()).orElseThrow().getName(), "Patient " + i);
+        }
+
+        // A claim failure part-way through releases the emails already claimed
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(List.of(patient(200), patient(1))));
+        assertFalse(repository.existsByEmail("patient200@test.com"));
+
+        repository.deleteAll(saved.subList(0, 50).stream().map(Patient::getId).toList());
+        assertEquals(repository.count(), 50L);
+        assertFalse(repository.existsByEmail("patient0@test.com"));
+        assertTrue(repository.existsByEmail("patient50@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should merge per-shard streams in birth-date order")
+    public void testStreamMerge() {
+        for (int i = 0; i < 200; i++) {
+            service.create(patient(i));
+        }
+
+        List<Patient> expected = repository.findByBirthDateBetween(LocalDate.of(1950, 1, 1), LocalDate.of(1990, 1, 1));
+        try (Stream<Patient> merged = service.streamByAgeRange(0, 200)
+                .filter(p -> !p.getBirthDate().isBefore(LocalDate.of(1950, 1, 1)))
+                .filter(p -> !p.getBirthDate().isAfter(LocalDate.of(1990, 1, 1)))) {
+            assertEquals(merged.map(Patient::getId).toList(), expected.stream().map(Patient::getId).toList());
+        }
+        try (Stream<Patient> all = repository.streamAll()) {
+            assertEquals(all.count(), 200L);
+        }
+        try (Stream<Patient> named = repository.streamByNameContaining("Patient 19")) {
+            assertEquals(named.count(), 11L); // 19 and 190-199
+        }
+    }
+
+    @Test
+    @DisplayName("Should merge keyset pages from every shard")
+    public void testFindPage() {
+        for (int i = 0; i < 100; i++) {
+            service.create(patient(i));
+        }
+
+        List<Long> walked = new ArrayList<>();
+        Long after = null;
+        for (List<Patient> page = repository.findPage(null, 7); !page.isEmpty(); page = repository.findPage(after, 7)) {
+            assertTrue(page.size() <= 7);
+            page.forEach(p -> walked.add(p.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertEquals(walked, repository.findAll().stream().map(Patient::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should enforce email uniqueness across shards")
+    public void testGlobalEmailUniqueness() {
+        Patient first = service.create(patient(1));
+        assertThrows(DuplicateEmailException.class, () -> service.create(Patient.builder()
+                .name("Other").email("PATIENT1@test.com").birthDate(LocalDate.of(1990, 1, 1)).build()));
+
+        service.update(first.getId(), Patient.builder()
+                .name("Renamed").email("renamed@test.com").birthDate(LocalDate.of(1990, 1, 1)).build());
+        assertFalse(repository.existsByEmail("patient1@test.com"));
+        service.create(patient(1));
+
+        service.delete(first.getId());
+        assertFalse(repository.existsByEmail("renamed@test.com"));
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertEquals(repository.count(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should give an ID its email back when the shard write fails, and ignore a null delete")
+    public void testClaimUndo() {
+        ShardedPatientRepository sharded = new ShardedPatientRepository(List.of(new InMemoryPatientRepository() {
+            @Override
+            public Patient save(Patient patient) {
+                if (patient.getName().equals("Broken")) throw new IllegalStateException("Shard unavailable");
+                return super.save(patient);
+            }
+        }));
+        Patient first = sharded.save(patient(1));
+
+        Patient broken = patient(2);
+        broken.setId(first.getId());
+        broken.setName("Broken");
+        assertThrows(IllegalStateException.class, () -> sharded.save(broken));
+        assertTrue(sharded.existsByEmail("patient1@test.com"));
+        assertFalse(sharded.existsByEmail("patient2@test.com"));
+
+        Patient missing = patient(3);
+        missing.setId(99L);
+        assertTrue(sharded.updateIfPresent(missing).isEmpty());
+        assertFalse(sharded.existsByEmail("patient3@test.com"));
+
+        sharded.delete(null);
+        assertEquals(sharded.count(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep routing for rows a failing shard saveAll stored, and skip null deletes")
+    public void testPartialShardBatch() {
+        ShardedPatientRepository sharded = new ShardedPatientRepository(List.of(new InMemoryPatientRepository() {
+            @Override
+            public List<Patient> saveAll(Collection<Patient> patients) {
+                // Commits the first patient and then fails, as a multi-chunk SQLite batch can
+                super.save(patients.iterator().next());
+                throw new IllegalStateException("Shard failed mid-batch");
+            }
+        }));
+        Patient kept = patient(1);
+        Patient lost = patient(2);
+        assertThrows(IllegalStateException.class, () -> sharded.saveAll(List.of(kept, lost)));
+
+        assertEquals(sharded.count(), 1L);
+        assertTrue(sharded.existsByEmail("patient1@test.com"));
+        assertTrue(sharded.insertIfEmailAbsent(patient(1)).isEmpty());
+        assertEquals(sharded.findById(kept.getId()).orElseThrow().getEmail(), "patient1@test.com");
+        assertFalse(sharded.existsByEmail("patient2@test.com"));
+        assertNull(lost.getId());
+
+        sharded.deleteAll(Arrays.asList(null, kept.getId()));
+        assertEquals(sharded.count(), 0L);
+        assertFalse(sharded.existsByEmail("patient1@test.com"));
+    }
+
+    @Test
+    @DisplayName("Should not leak the old email when a delete races an update of the same ID")
+    public void testUpdateRacingDelete() throws Exception {
+        ShardedPatientRepository[] sharded = new ShardedPatientRepository[1];
+        Thread[] deleter = new Thread[1];
+        sharded[0] = new ShardedPatientRepository(List.of(new InMemoryPatientRepository() {
+            @Override
+            public Optional<Patient> updateIfPresent(Patient patient) {
+                // The delete starts while the update is in the shard; it must wait for it
+                deleter[0] = Thread.ofPlatform().start(() -> sharded[0].delete(patient.getId()));
+                try {
+                    deleter[0].join(100);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.updateIfPresent(patient);
+            }
+        }));
+        Patient saved = sharded[0].save(patient(1));
+
+        Patient update = patient(2);
+        update.setId(saved.getId());
+        assertTrue(sharded[0].updateIfPresent(update).isPresent());
+        deleter[0].join();
+
+        assertTrue(sharded[0].findById(saved.getId()).isEmpty());
+        assertFalse(sharded[0].existsByEmail("patient1@test.com"));
+        assertFalse(sharded[0].existsByEmail("patient2@test.com"));
+        assertTrue(sharded[0].insertIfEmailAbsent(patient(1)).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should seed the allocator and routing index from existing shards")
+    public void testReopenExistingShards() {
+        List<PatientRepository> shards = List.of(new InMemoryPatientRepository(), new InMemoryPatientRepository());
+        ShardedPatientRepository first = new ShardedPatientRepository(shards);
+        for (int i = 0; i < 10; i++) {
+            first.save(patient(i));
+        }
+
+        ShardedPatientRepository reopened = new ShardedPatientRepository(shards);
+        assertTrue(reopened.existsByEmail("patient3@test.com"));
+        assertEquals(reopened.save(patient(10)).getId(), 11L);
+        assertEquals(reopened.findById(4L).orElseThrow().getName(), "Patient 3");
+    }
+
+    @Test
+    @DisplayName("Should handle concurrent creates without losing patients")
+    public void testConcurrentCreates() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 2_000; i++) {
+                int n = i % 1_000; // every email is attempted twice
+                executor.submit(() -> {
+                    try {
+                        repository.save(patient(n));
+                    } catch (IllegalArgumentException e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        assertEquals(repository.count(), 1_000L);
+        assertEquals(failures.get(), 1_000);
+    }
+}
@@ -103,6 +103,17 @@ public class SocketClientTest {
         assertTrue(response.startsWith("SUCCESS|2"), "Should return 2 patients");
     }
 
+    @Test
+    @DisplayName("Should fetch one page of patients")
+    public void testListPage() throws IOException {
+        client.sendCommand("CREATE|Patient1|p1@test.com|555-1111|1990-01-01");
+        client.sendCommand("CREATE|Patient2|p2@test.com|555-2222|1991-02-02");
+
+        assertTrue(client.listPage(0, 1).startsWith("SUCCESS|1|1:Patient1:"));
+        assertTrue(client.listPage(1, 1).startsWith("SUCCESS|1|2:Patient2:"));
+        assertTrue(client.listPage(2, 1).startsWith("SUCCESS|0"));
+    }
+
     @Test
     @DisplayName("Should search patients by name")
     public void testSearchPatients() throws IOException {
@@ -163,6 +163,25 @@ public class SocketServerTest {
         assertTrue(response.startsWith("SUCCESS|0"), "Should return success with count 0");
     }
 
+    @Test
+    @DisplayName("Should page through LIST by ID")
+    public void testListPageViaSocket() throws IOException {
+        for (int i = 1; i <= 5; i++) {
+            sendCommand("CREATE|Patient " + i + "|p" + i + "@test.com|555-000" + i + "|1990-01-01");
+        }
+
+        String first = sendCommand("LIST|0|2");
+        assertTrue(first.startsWith("SUCCESS|2|1:Patient 1:"), first);
+        assertTrue(first.contains("|2:Patient 2:"), first);
+        assertTrue(sendCommand("LIST|2|2").startsWith("SUCCESS|2|3:Patient 3:"));
+        assertTrue(sendCommand("LIST|4|2").startsWith("SUCCESS|1|5:Patient 5:"));
+        assertTrue(sendCommand("LIST|5|2").startsWith("SUCCESS|0"));
+
+        assertTrue(sendCommand("LIST|0").startsWith("ERROR|"));
+        assertTrue(sendCommand("LIST|x|2").startsWith("ERROR|Invalid"));
+        assertTrue(sendCommand("LIST|0|0").startsWith("ERROR|Page size"));
+    }
+
     @Test
     @DisplayName("Should search patients by name")
     public void testSearchViaSocket() throws IOException {
@@ -0,0 +1,33 @@
+package com.healthcare.java.patient;
+
+import static com.healthcare.java.patient.Benchmarks.*;
+import static com.healthcare.java.patient.PatientFixtures.*;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Skewed GET throughput (80% of reads on 10% of IDs) against SQLite alone and behind a
+ * 512 KB hot tier, plus the hot tier's bytes per patient
+ */
+public class TieredPatientRepositoryBenchmark {
+    public static void main(String[] args) throws Exception {
+        Path directory = tempDirectory("patients-tiered-bench");
+        try (SQLitePatientRepository sqlite = new SQLitePatientRepository(directory.resolve("patients.db").toString())) {
+            sqlite.saveAll(IntStream.range(0, 10_000).mapToObj(PatientFixtures::patient).toList());
+            long gets = (long) SKEWED_CLIENTS * SKEWED_GETS_PER_CLIENT;
+
+            long coldOnly = time(() -> skewedGets(sqlite));
+            TieredPatientRepository tiered = new TieredPatientRepository(sqlite, 1_000 * 512);
+            long withHotTier = time(() -> skewedGets(tiered));
+            System.out.printf("SQLite GET by ID (80%% of reads on 10%% of IDs), %d clients: cold only %,.0f ops/s, "
+                            + "tiered %,.0f ops/s (hit rate %.3f, %,d hot bytes)%n", SKEWED_CLIENTS,
+                    perSecond(gets, coldOnly), perSecond(gets, withHotTier), tiered.stats().hitRate(), tiered.hotBytes());
+            System.out.printf("Hot tier: %d patients in %,d of %,d budget bytes (~%d bytes each)%n",
+                    tiered.hotSize(), tiered.hotBytes(), tiered.hotBudgetBytes(),
+                    TieredPatientRepository.estimateBytes(patient(1_000)));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static com.healthcare.java.patient.PatientFixtures.patient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for the tiered repository: write-through, promotion on miss and byte-budget
+ * eviction (the skewed GET comparison with SQLite alone is in TieredPatientRepositoryBenchmark)
+ */
+@DisplayName("Tiered Repository Tests")
+public class TieredPatientRepositoryTest {
+    private Path directory;
+    private SQLitePatientRepository sqlite;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("patients-tiered");
+        sqlite = new SQLitePatientRepository(directory.resolve("patients.db").toString());
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        sqlite.close();
+        try (var files = Files.list(directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    @DisplayName("Should write through to both tiers and serve reads after writes hot")
+    public void testWriteThrough() {
+        TieredPatientRepository repository = new TieredPatientRepository(sqlite, 1 << 20);
+        Patient saved = repository.save(patient(1));
+        assertEquals(repository.hotSize(), 1);
+        assertEquals(sqlite.findById(saved.getId()).orElseThrow().getName(), "Patient 1");
+
+        Patient first = repository.findById(saved.getId()).orElseThrow();
+        first.setName("Mutated");
+        assertEquals(repository.findById(saved.getId()).orElseThrow().getName(), "Patient 1");
+        assertEquals(repository.stats().hits(), 2L);
+        assertEquals(repository.stats().misses(), 0L);
+
+        Patient update = repository.findById(saved.getId()).orElseThrow();
+        update.setName("Renamed");
+        repository.save(update);
+        assertEquals(repository.findById(saved.getId()).orElseThrow().getName(), "Renamed");
+        assertEquals(sqlite.findById(saved.getId()).orElseThrow().getName(), "Renamed");
+
+        assertThrows(DuplicateEmailException.class, () -> repository.save(patient(1)));
+        assertEquals(repository.count(), 1L);
+
+        repository.delete(saved.getId());
+        assertTrue(repository.findById(saved.getId()).isEmpty());
+        assertEquals(repository.hotBytes(), 0L);
+    }
+
+    @Test
+    @DisplayName("Should admit bulk inserts hot and skip taken emails")
+    public void testInsertAll() {
+        TieredPatientRepository repository = new TieredPatientRepository(sqlite, 1 << 20);
+        repository.save(patient(1));
+        List<Patient> inserted = repository.insertAllIfEmailAbsent(List.of(patient(1), patient(2), patient(3)));
+        assertEquals(inserted.stream().map(Patient::getEmail).toList(), List.of("patient2@test.com", "patient3@test.com"));
+        assertEquals(repository.hotSize(), 3);
+
+        repository.findById(inserted.get(1).getId());
+        assertEquals(repository.stats().misses(), 0L);
+    }
+
+    @Test
+    @DisplayName("Should not admit a new patient deleted before its insert returned")
+    public void testInsertRacingDelete() {
+        TieredPatientRepository[] tiered = new TieredPatientRepository[1];
+        InMemoryPatientRepository cold = new InMemoryPatientRepository() {
+            // Another client finds the committed row in a scan and deletes it before admission
+            @Override
+            public Patient save(Patient patient) {
+                Patient saved = super.save(patient);
+                tiered[0].delete(saved.getId());
+                return saved;
+            }
+
+            @Override
+            public List<Patient> insertAllIfEmailAbsent(Collection<Patient> patients) {
+                List<Patient> inserted = super.insertAllIfEmailAbsent(patients);
+                inserted.forEach(p -> tiered[0].delete(p.getId()));
+                return inserted;
+            }
+        };
+        TieredPatientRepository repository = new TieredPatientRepository(cold, 1 << 20);
+        tiered[0] = repository;
+
+        Patient saved = repository.save(patient(1));
+        List<Patient> inserted = repository.insertAllIfEmailAbsent(List.of(patient(2), patient(3)));
+        assertEquals(repository.hotSize(), 0);
+        assertTrue(repository.findById(saved.getId()).isEmpty());
+        assertTrue(repository.findById(inserted.get(1).getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should promote cold patients on a miss and drop everything on clear")
+    public void testPromotion() {
+        List<Patient> saved = sqlite.saveAll(List.of(patient(1), patient(2), patient(3)));
+        TieredPatientRepository repository = new TieredPatientRepository(sqlite, 1 << 20);
+        assertEquals(repository.hotSize(), 0);
+
+        assertEquals(repository.findById(saved.get(0).getId()).orElseThrow().getEmail(), "patient1@test.com");
+        assertEquals(repository.hotSize(), 1);
+        assertEquals(repository.hotBytes(), TieredPatientRepository.estimateBytes(saved.get(0)));
+        repository.findById(saved.get(0).getId());
+        assertEquals(repository.stats(), new CacheStats(1, 1, 0));
+
+        assertTrue(repository.findById(999L).isEmpty());
+        assertEquals(repository.findAll().size(), 3);
+        assertEquals(repository.hotSize(), 1);
+
+        repository.deleteAll(List.of(saved.get(0).getId(), saved.get(1).getId()));
+        assertEquals(repository.hotSize(), 0);
+        repository.findById(saved.get(2).getId());
+        repository.clear();
+        assertEquals(repository.hotSize(), 0);
+        assertTrue(repository.findById(saved.get(2).getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stay within the byte budget and keep the frequently used patients")
+    public void testByteBudget() {
+        long perPatient = TieredPatientRepository.estimateBytes(patient(1_000));
+        long budget = 200 * perPatient;
+        TieredPatientRepository repository = new TieredPatientRepository(sqlite, budget);
+        List<Patient> saved = repository.saveAll(IntStream.range(1_000, 3_000).mapToObj(
+                PatientFixtures::patient).toList());
+        assertTrue(repository.hotBytes() <= budget);
+        assertTrue(repository.stats().evictions() > 0);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                repository.findById(saved.get(i).getId());
+            }
+        }
+        for (Patient patient : saved) {
+            assertEquals(repository.findById(patient.getId()).orElseThrow().getEmail(), patient.getEmail());
+            assertTrue(repository.hotBytes() <= budget);
+        }
+
+        CacheStats before = repository.stats();
+        for (int i = 0; i < 100; i++) {
+            repository.findById(saved.get(i).getId());
+        }
+        assertTrue(repository.stats().hits() - before.hits() >= 90, "Frequently used patients should stay hot");
+    }
+
+    @Test
+    @DisplayName("Should count wide characters at two bytes each")
+    public void testEstimate() {
+        Patient latin = patient(1);
+        Patient wide = patient(1);
+        wide.setName("Пациент 1");
+        assertTrue(TieredPatientRepository.estimateBytes(wide) > TieredPatientRepository.estimateBytes(latin));
+    }
+
+    @Test
+    @DisplayName("Should serve most of a skewed GET load from the hot tier within budget")
+    public void testSkewedGetHitRate() {
+        sqlite.saveAll(IntStream.range(0, 10_000).mapToObj(PatientFixtures::patient).toList());
+        TieredPatientRepository tiered = new TieredPatientRepository(sqlite, 1_000 * 512);
+        PatientFixtures.skewedGets(tiered);
+        assertTrue(tiered.stats().hitRate() > 0.5);
+        assertTrue(tiered.hotBytes() <= tiered.hotBudgetBytes());
+    }
+}
@@ -0,0 +1,99 @@
+package com.healthcare.java.patient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests for the trigram name index
+ * Verifies candidate intersection, verification and incremental maintenance
+ */
+@DisplayName("Trigram Index Tests")
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TrigramIndex();
+        index.index(1L, "John Doe");
+        index.index(2L, "John Smith");
+        index.index(3L, "Jane Doe");
+        index.index(4L, "Johanna Doerr");
+    }
+
+    @Test
+    @DisplayName("Should find all names containing the query")
+    public void testSearch() {
+        assertEquals(new HashSet<>(index.search("john")), Set.of(1L, 2L));
+        assertEquals(new HashSet<>(index.search("Doe")), Set.of(1L, 3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should reject candidates whose grams match out of order")
+    public void testVerifiesCandidates() {
+        index.index(5L, "abcxbcd");
+        // Shares grams "abc" and "bcd" with the query but does not contain it
+        assertTrue(index.search("abcd").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should re-index renamed patients and drop removed ones")
+    public void testIncrementalUpdates() {
+        index.index(2L, "Jonathan Smith");
+        assertEquals(index.search("john"), List.of(1L));
+
+        index.remove(1L);
+        assertTrue(index.search("john").isEmpty());
+        assertEquals(index.size(), 3);
+    }
+
+    @Test
+    @DisplayName("Should drop posting sets that become empty")
+    public void testDropsEmptyPostings() {
+        TrigramIndex single = new TrigramIndex();
+        single.index(1L, "abcd");
+        assertEquals(single.gramCount(), 2);
+
+        single.index(1L, "wxyz");
+        assertEquals(single.gramCount(), 2);
+        assertTrue(single.search("abc").isEmpty());
+
+        single.remove(1L);
+        assertEquals(single.gramCount(), 0);
+    }
+
+    @Test
+    @DisplayName("Should only support queries of at least three characters")
+    public void testSupports() {
+        assertFalse(TrigramIndex.supports("jo"));
+        assertTrue(TrigramIndex.supports("joh"));
+    }
+
+    @Test
+    @DisplayName("Should match the linear scan on a larger registry")
+    public void testMatchesScan() {
+        String[] first = {"John", "Jane", "Maria", "Ahmed", "Li", "Olga"};
+        String[] last = {"Doe", "Smith", "Garcia", "Khan", "Wei", "Petrova"};
+        TrigramIndex large = new TrigramIndex();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String name = first[i % first.length] + " " + last[(i / 7) % last.length] + " " + i;
+            names.add(name);
+            large.index(i, name);
+        }
+
+        for (String query : new String[]{"mar", "smith", "n do", "123", "wei 4"}) {
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).toLowerCase().contains(query)) expected.add((long) i);
+            }
+            assertEquals(new HashSet<>(large.search(query)), expected, "Query: " + query);
+        }
+    }
+}